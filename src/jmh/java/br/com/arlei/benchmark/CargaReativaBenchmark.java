@@ -0,0 +1,159 @@
+package br.com.arlei.benchmark;
+
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.reativo.MensagemServiceReativo;
+import br.com.arlei.service.MensagemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Comparação de carga entre a aplicação servlet (Tomcat + JDBC) e a reativa
+ * (Netty + R2DBC) no mesmo contrato: {@value #CLIENTES} clientes concorrentes
+ * fazendo {@code GET /mensagens/{id}}, com {@value #POOL_CONEXOES} conexões
+ * com o banco nas duas pilhas e sem cache na servlet.
+ *
+ * <p>O modo {@code SampleTime} registra a distribuição de latência (p99 em
+ * {@code target/jmh-result.json}). Ao fim de cada iteração, com as conexões
+ * dos clientes ainda abertas, o heap ocupado após um GC e o número de threads
+ * são comparados com os valores medidos antes da carga; o acréscimo dividido
+ * por {@value #CLIENTES} é a memória por conexão. Cliente e servidor dividem a
+ * JVM, mas o custo do cliente é o mesmo nas duas pilhas: a diferença entre
+ * elas é do servidor. As threads não entram no heap; cada uma reserva ainda a
+ * sua pilha ({@code -Xss}). As duas medidas vão para {@link Medidas}, uma
+ * linha por iteração (as de aquecimento incluídas).
+ *
+ * <p>Sem {@code -Dbenchmark.postgres.url} as duas pilhas usam H2 em memória,
+ * o que serve para validar o harness mas não para comparar latência.
+ *
+ * <pre>
+ * mvn -Pbenchmark package -DskipTests -Djmh.args="CargaReativaBenchmark" \
+ *     -Djmh.jvmArgs="-Dbenchmark.postgres.url=jdbc:postgresql://localhost:5432/postgres"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(CargaReativaBenchmark.CLIENTES)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class CargaReativaBenchmark {
+
+    static final int CLIENTES = 1_000;
+
+    static final int POOL_CONEXOES = 20;
+
+    @Param({"servlet", "reativo"})
+    private String pilha;
+
+    private ConfigurableApplicationContext contexto;
+
+    private HttpClient httpClient;
+
+    private List<URI> uris;
+
+    private long heapAntesDaCarga;
+
+    private int threadsAntesDaCarga;
+
+    private int iteracao;
+
+    @Setup
+    public void setup() {
+        List<UUID> ids;
+        if ("reativo".equals(pilha)) {
+            contexto = ContextoAplicacao.iniciarServidorReativo(
+                    "spring.r2dbc.pool.initial-size=" + POOL_CONEXOES,
+                    "spring.r2dbc.pool.max-size=" + POOL_CONEXOES);
+            var mensagemService = contexto.getBean(MensagemServiceReativo.class);
+            ids = registrar(mensagem -> mensagemService.registrarMensagem(mensagem).block().getId());
+        } else {
+            var propriedades = new ArrayList<>(ContextoAplicacao.propriedadesPostgres());
+            propriedades.addAll(List.of(
+                    "server.tomcat.max-connections=" + (CLIENTES * 2),
+                    "spring.datasource.hikari.maximum-pool-size=" + POOL_CONEXOES,
+                    "spring.datasource.hikari.minimum-idle=" + POOL_CONEXOES,
+                    // sem cache: toda requisição vai ao banco, como na pilha reativa
+                    "mensagem.cache.tipo=nenhum",
+                    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                    "spring.jpa.properties.hibernate.cache.use_query_cache=false"));
+            contexto = ContextoAplicacao.iniciarServidor(propriedades.toArray(String[]::new));
+            var mensagemService = contexto.getBean(MensagemService.class);
+            ids = registrar(mensagem -> mensagemService.registrarMensagem(mensagem).getId());
+        }
+        var porta = contexto.getEnvironment().getProperty("local.server.port");
+        uris = ids.stream()
+                .map(id -> URI.create("http://localhost:" + porta + "/mensagens/" + id))
+                .toList();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        heapAntesDaCarga = heapAposGc();
+        threadsAntesDaCarga = ManagementFactory.getThreadMXBean().getThreadCount();
+    }
+
+    private static List<UUID> registrar(Function<Mensagem, UUID> registro) {
+        var ids = new ArrayList<UUID>();
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(registro.apply(Mensagem.builder()
+                    .usuario("joe")
+                    .conteudo("conteudo da mensagem " + i)
+                    .build()));
+        }
+        return ids;
+    }
+
+    @TearDown(Level.Iteration)
+    public void medirMemoria() {
+        var bytesPorConexao = (heapAposGc() - heapAntesDaCarga) / CLIENTES;
+        var threads = ManagementFactory.getThreadMXBean().getThreadCount() - threadsAntesDaCarga;
+        var parametros = "pilha=" + pilha + ",banco=" + (ContextoAplicacao.usaPostgres() ? "postgres" : "h2")
+                + ",iteracao=" + ++iteracao;
+        Medidas.registrar("CargaReativaBenchmark", parametros, "bytes_heap_por_conexao", bytesPorConexao);
+        Medidas.registrar("CargaReativaBenchmark", parametros, "threads_a_mais", threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    private static long heapAposGc() {
+        var memoria = ManagementFactory.getMemoryMXBean();
+        memoria.gc();
+        return memoria.getHeapMemoryUsage().getUsed();
+    }
+
+    @Benchmark
+    public int buscarMensagem() throws Exception {
+        var uri = uris.get(ThreadLocalRandom.current().nextInt(uris.size()));
+        var resposta = httpClient.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+        return resposta.statusCode();
+    }
+}
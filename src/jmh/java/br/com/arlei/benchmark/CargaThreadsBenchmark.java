@@ -0,0 +1,115 @@
+package br.com.arlei.benchmark;
+
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.service.MensagemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparação de carga entre threads de plataforma e threads virtuais.
+ *
+ * <p>O servidor sobe com no máximo {@value #THREADS_TOMCAT} threads no Tomcat
+ * e recebe {@value #CLIENTES} clientes concorrentes fazendo
+ * {@code GET /mensagens/{id}}. No modo de plataforma as requisições excedentes
+ * esperam uma thread do Tomcat; no modo virtual esperam apenas uma conexão do
+ * pool ({@value #POOL_CONEXOES} conexões nos dois modos). O modo
+ * {@code SampleTime} registra a distribuição de latência (p50, p99, p99.9).
+ *
+ * <p>Exige o Postgres: a vantagem das threads virtuais está na espera de I/O
+ * bloqueante, que o H2 em memória não tem.
+ *
+ * <p>Execução:
+ * <pre>
+ * mvn -Pbenchmark package -DskipTests -Djmh.args="CargaThreadsBenchmark" \
+ *     -Dbenchmark.postgres.url=jdbc:postgresql://localhost:5432/postgres
+ * </pre>
+ * O campo {@code threadsVirtuais} separa os dois modos em
+ * {@code target/jmh-result.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(CargaThreadsBenchmark.CLIENTES)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class CargaThreadsBenchmark {
+
+    static final int CLIENTES = 1_000;
+
+    static final int THREADS_TOMCAT = 50;
+
+    static final int POOL_CONEXOES = 20;
+
+    @Param({"false", "true"})
+    private boolean threadsVirtuais;
+
+    private ConfigurableApplicationContext contexto;
+
+    private HttpClient httpClient;
+
+    private List<URI> uris;
+
+    @Setup
+    public void setup() {
+        if (!ContextoAplicacao.usaPostgres()) {
+            throw new IllegalStateException("CargaThreadsBenchmark exige -D" + ContextoAplicacao.URL_POSTGRES);
+        }
+        var propriedades = new ArrayList<>(ContextoAplicacao.propriedadesPostgres());
+        propriedades.addAll(List.of(
+                "mensagem.threads-virtuais.habilitado=" + threadsVirtuais,
+                "server.tomcat.threads.max=" + THREADS_TOMCAT,
+                "server.tomcat.max-connections=" + (CLIENTES * 2),
+                "spring.datasource.hikari.maximum-pool-size=" + POOL_CONEXOES,
+                // sem cache: toda requisição vai ao banco, como no cenário de saturação
+                "mensagem.cache.tipo=nenhum"));
+        contexto = ContextoAplicacao.iniciarServidor(propriedades.toArray(String[]::new));
+        var porta = contexto.getEnvironment().getProperty("local.server.port");
+        var mensagemService = contexto.getBean(MensagemService.class);
+        uris = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            var mensagem = mensagemService.registrarMensagem(Mensagem.builder()
+                    .usuario("joe")
+                    .conteudo("conteudo da mensagem " + i)
+                    .build());
+            uris.add(URI.create("http://localhost:" + porta + "/mensagens/" + mensagem.getId()));
+        }
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int buscarMensagem() throws Exception {
+        var uri = uris.get(ThreadLocalRandom.current().nextInt(uris.size()));
+        var resposta = httpClient.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+        return resposta.statusCode();
+    }
+}
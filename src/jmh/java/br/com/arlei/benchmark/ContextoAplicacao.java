@@ -0,0 +1,109 @@
+package br.com.arlei.benchmark;
+
+import br.com.arlei.RestApiAplication;
+import br.com.arlei.reativo.RestApiReativaAplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+
+/**
+ * Sobe a aplicação com o perfil de teste (H2 em memória) para os benchmarks.
+ *
+ * <p>Com {@code -Dbenchmark.postgres.url=jdbc:postgresql://...} (usuário e
+ * senha em {@code benchmark.postgres.usuario}/{@code benchmark.postgres.senha})
+ * os benchmarks que dependem de I/O real usam esse Postgres; ver
+ * {@link #propriedadesPostgres()}.
+ */
+final class ContextoAplicacao {
+
+    static final String URL_POSTGRES = "benchmark.postgres.url";
+
+    private ContextoAplicacao() {
+    }
+
+    static boolean usaPostgres() {
+        return System.getProperty(URL_POSTGRES) != null;
+    }
+
+    /**
+     * Propriedades que apontam a aplicação servlet para o Postgres de
+     * {@code benchmark.postgres.url}; vazia sem a URL, mantendo o H2.
+     */
+    static List<String> propriedadesPostgres() {
+        if (!usaPostgres()) {
+            return List.of();
+        }
+        return List.of(
+                "spring.datasource.url=" + System.getProperty(URL_POSTGRES),
+                "spring.datasource.username=" + usuarioPostgres(),
+                "spring.datasource.password=" + senhaPostgres(),
+                "spring.datasource.driver-class-name=org.postgresql.Driver",
+                "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                "spring.jpa.database=postgresql",
+                "mensagem.busca.modo=postgres",
+                "spring.sql.init.mode=never");
+    }
+
+    private static String usuarioPostgres() {
+        return System.getProperty("benchmark.postgres.usuario", "postgres");
+    }
+
+    private static String senhaPostgres() {
+        return System.getProperty("benchmark.postgres.senha", "postgres");
+    }
+
+    static ConfigurableApplicationContext iniciar(String... propriedades) {
+        return iniciar(WebApplicationType.NONE, propriedades);
+    }
+
+    /**
+     * Sobe a aplicação com o Tomcat em porta aleatória; a porta fica em
+     * {@code local.server.port}.
+     */
+    static ConfigurableApplicationContext iniciarServidor(String... propriedades) {
+        return iniciar(WebApplicationType.SERVLET, propriedades);
+    }
+
+    /**
+     * Sobe a aplicação reativa (Netty + R2DBC) em porta aleatória, sobre o
+     * Postgres de {@code benchmark.postgres.url} ou, sem ele, sobre um H2 em
+     * memória próprio.
+     */
+    static ConfigurableApplicationContext iniciarServidorReativo(String... propriedades) {
+        return new SpringApplicationBuilder(RestApiReativaAplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(RestApiReativaAplication.PERFIL)
+                .properties("server.port=0")
+                .properties(propriedadesR2dbc().toArray(String[]::new))
+                .properties(propriedades)
+                .run();
+    }
+
+    // mesmo banco da URL JDBC; as opções do driver JDBC (?reWriteBatchedInserts=...) não valem no R2DBC
+    private static List<String> propriedadesR2dbc() {
+        if (!usaPostgres()) {
+            return List.of(
+                    "spring.r2dbc.url=r2dbc:h2:mem:///benchmark;DB_CLOSE_DELAY=-1",
+                    "spring.r2dbc.username=sa",
+                    "spring.r2dbc.password=");
+        }
+        var url = System.getProperty(URL_POSTGRES);
+        var opcoes = url.indexOf('?');
+        var semOpcoes = opcoes < 0 ? url : url.substring(0, opcoes);
+        return List.of(
+                "spring.r2dbc.url=" + semOpcoes.replaceFirst("^jdbc:", "r2dbc:"),
+                "spring.r2dbc.username=" + usuarioPostgres(),
+                "spring.r2dbc.password=" + senhaPostgres());
+    }
+
+    private static ConfigurableApplicationContext iniciar(WebApplicationType tipo, String... propriedades) {
+        return new SpringApplicationBuilder(RestApiAplication.class)
+                .web(tipo)
+                .profiles("test")
+                .properties("spring.jpa.show-sql=false", "server.port=0")
+                .properties(propriedades)
+                .run();
+    }
+}
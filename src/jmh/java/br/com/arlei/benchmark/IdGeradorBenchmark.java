@@ -0,0 +1,48 @@
+package br.com.arlei.benchmark;
+
+import br.com.arlei.id.IdGerador;
+import br.com.arlei.id.UuidV4Gerador;
+import br.com.arlei.id.UuidV7Gerador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de gerar um id, com 8 threads disputando o mesmo gerador.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IdGeradorBenchmark {
+
+    @Param({"v4", "v7"})
+    private String estrategia;
+
+    private IdGerador gerador;
+
+    @Setup
+    public void setup() {
+        gerador = estrategia.equals("v7") ? new UuidV7Gerador() : new UuidV4Gerador();
+    }
+
+    @Benchmark
+    public UUID gerar() {
+        return gerador.gerar();
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.arlei.benchmark;
+
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.service.MensagemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Inserções em lote com ids v4 e v7 sobre uma tabela já grande. Com
+ * {@code -Dbenchmark.postgres.url=jdbc:postgresql://...} (e usuário/senha em
+ * {@code benchmark.postgres.usuario}/{@code benchmark.postgres.senha}) usa o
+ * Postgres e registra o tamanho em bytes do índice da chave primária, após a
+ * carga inicial e ao final, em {@code target/jmh-medidas.csv}
+ * ({@link Medidas}); sem ela roda no H2 em memória, que mede apenas a vazão.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class InsercaoIdBenchmark {
+
+    private static final int LOTE = 500;
+
+    @Param({"v4", "v7"})
+    private String estrategia;
+
+    @Param({"1000000"})
+    private int mensagensIniciais;
+
+    private ConfigurableApplicationContext contexto;
+
+    private MensagemService mensagemService;
+
+    @Setup
+    public void setup() {
+        var propriedades = new ArrayList<>(List.of(
+                "mensagem.id.estrategia=" + estrategia,
+                "spring.jpa.properties.hibernate.generate_statistics=false"));
+        propriedades.addAll(ContextoAplicacao.propriedadesPostgres());
+        contexto = ContextoAplicacao.iniciar(propriedades.toArray(String[]::new));
+        mensagemService = contexto.getBean(MensagemService.class);
+        for (int i = 0; i < mensagensIniciais; i += LOTE) {
+            inserirLote();
+        }
+        // mesmo número de linhas nas duas estratégias: a comparação do índice é esta
+        registrarIndice("bytes_indice_apos_carga");
+    }
+
+    @TearDown
+    public void tearDown() {
+        // depois da medição o número de linhas depende da vazão de cada estratégia
+        registrarIndice("bytes_indice_final");
+        contexto.close();
+    }
+
+    private void registrarIndice(String medida) {
+        if (!ContextoAplicacao.usaPostgres()) {
+            return;
+        }
+        var jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        var bytes = jdbcTemplate.queryForObject(
+                "SELECT pg_relation_size(i.indexrelid)"
+                        + " FROM pg_index i WHERE i.indrelid = 'mensagem'::regclass AND i.indisprimary",
+                Long.class);
+        var linhas = jdbcTemplate.queryForObject("SELECT count(*) FROM mensagem", Long.class);
+        var parametros = "estrategia=" + estrategia + ",linhas=" + linhas;
+        Medidas.registrar("InsercaoIdBenchmark", parametros, medida, bytes);
+    }
+
+    private void inserirLote() {
+        mensagemService.registrarMensagens(IntStream.range(0, LOTE)
+                .mapToObj(i -> Mensagem.builder()
+                        .usuario("joe")
+                        .conteudo("conteudo da mensagem")
+                        .build())
+                .iterator());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public void registrarMensagens() {
+        inserirLote();
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.arlei.benchmark;
+
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.model.MensagemCursor;
+import br.com.arlei.service.MensagemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listagem em profundidades crescentes: paginação por offset (com count)
+ * contra a listagem por cursor na mesma posição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ListarMensagensBenchmark {
+
+    private static final int MENSAGENS = 50_000;
+
+    private static final int TAMANHO_PAGINA = 10;
+
+    @Param({"0", "10", "100", "1000", "4000"})
+    private int pagina;
+
+    private ConfigurableApplicationContext contexto;
+
+    private MensagemService mensagemService;
+
+    private MensagemCursor cursor;
+
+    @Setup
+    public void setup() {
+        contexto = ContextoAplicacao.iniciar();
+        mensagemService = contexto.getBean(MensagemService.class);
+        var mensagens = new ArrayList<Mensagem>(MENSAGENS);
+        for (int i = 0; i < MENSAGENS; i++) {
+            mensagens.add(Mensagem.builder()
+                    .usuario("usuario" + (i % 100))
+                    .conteudo("conteudo da mensagem " + i)
+                    .build());
+        }
+        mensagemService.registrarMensagens(mensagens.iterator());
+
+        // cursor equivalente ao fim da página anterior
+        cursor = null;
+        for (int i = 0; i < pagina; i++) {
+            var fatia = mensagemService.listarMensagens(cursor, TAMANHO_PAGINA);
+            var conteudo = fatia.getContent();
+            cursor = MensagemCursor.de(conteudo.get(conteudo.size() - 1));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Object listarPorOffset() {
+        return mensagemService.listarMensagens(PageRequest.of(pagina, TAMANHO_PAGINA));
+    }
+
+    @Benchmark
+    public Slice<Mensagem> listarPorCursor() {
+        return mensagemService.listarMensagens(cursor, TAMANHO_PAGINA);
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.arlei.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Medidas que o JMH não registra (tamanho de índice, bytes na rede, memória
+ * por conexão), acrescentadas como CSV em {@code benchmark.medidas}, ao lado
+ * do {@code jmh-result.json}.
+ */
+final class Medidas {
+
+    static final String ARQUIVO = "benchmark.medidas";
+
+    private static final String CABECALHO = "benchmark;parametros;medida;valor";
+
+    private Medidas() {
+    }
+
+    static void registrar(String benchmark, String parametros, String medida, long valor) {
+        var linha = String.join(";", benchmark, parametros, medida, Long.toString(valor));
+        System.out.printf("%n%s%n", linha);
+        var arquivo = Path.of(System.getProperty(ARQUIVO, "target/jmh-medidas.csv")).toAbsolutePath();
+        try {
+            Files.createDirectories(arquivo.getParent());
+            if (Files.notExists(arquivo)) {
+                Files.writeString(arquivo, CABECALHO + System.lineSeparator(), StandardCharsets.UTF_8);
+            }
+            Files.writeString(arquivo, linha + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
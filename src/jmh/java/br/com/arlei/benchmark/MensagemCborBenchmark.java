@@ -0,0 +1,96 @@
+package br.com.arlei.benchmark;
+
+import br.com.arlei.config.CborConfig;
+import br.com.arlei.model.Mensagem;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Página de {@code GET /mensagens} em JSON (datas no padrão
+ * {@code yyyy-MM-dd HH:mm:ss.SSSSS}) e em CBOR (datas em array), com os
+ * mappers configurados como na aplicação. O tamanho do payload de cada
+ * combinação é impresso no início do benchmark.
+ *
+ * <pre>
+ * mvn -Pbenchmark package -DskipTests -Djmh.args="MensagemCborBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MensagemCborBenchmark {
+
+    private static final TypeReference<List<Mensagem>> LISTA_MENSAGENS = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor"})
+    private String formato;
+
+    @Param({"10", "100", "1000"})
+    private int tamanhoPagina;
+
+    private ObjectMapper objectMapper;
+
+    private Page<Mensagem> pagina;
+
+    private byte[] mensagens;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = "cbor".equals(formato)
+                ? CborConfig.cborMapper(new Jackson2ObjectMapperBuilder())
+                : new Jackson2ObjectMapperBuilder().build();
+        var conteudo = new ArrayList<Mensagem>(tamanhoPagina);
+        var timestamp = LocalDateTime.now();
+        for (int i = 0; i < tamanhoPagina; i++) {
+            conteudo.add(Mensagem.builder()
+                    .id(UUID.randomUUID())
+                    .usuario("usuario" + (i % 50))
+                    .conteudo("conteudo da mensagem " + i + " para o benchmark de serialização")
+                    .dataCriacao(timestamp.minusSeconds(i))
+                    .dataAlteracao(timestamp.minusSeconds(i))
+                    .gostei(i)
+                    .versao(0L)
+                    .build());
+        }
+        pagina = new PageImpl<>(conteudo, PageRequest.of(0, tamanhoPagina), 100_000);
+        mensagens = objectMapper.writeValueAsBytes(conteudo);
+        System.out.printf("%nPágina com %d mensagens em %s: %d bytes%n",
+                tamanhoPagina, formato, objectMapper.writeValueAsBytes(pagina).length);
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws Exception {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    // A Page não é desserializável: a leitura usa só o conteúdo da página
+    @Benchmark
+    public List<Mensagem> desserializarMensagens() throws Exception {
+        return objectMapper.readValue(mensagens, LISTA_MENSAGENS);
+    }
+}
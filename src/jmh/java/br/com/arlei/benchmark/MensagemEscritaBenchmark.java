@@ -0,0 +1,130 @@
+package br.com.arlei.benchmark;
+
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.repository.MensagemRepository;
+import br.com.arlei.service.MensagemService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alteração e remoção pelo caminho antigo (SELECT + save/delete) e pelo
+ * MensagemService (UPDATE/DELETE únicos). A razão entre os contadores
+ * {@code comandos} e {@code operacoes} é a média de comandos SQL preparados
+ * por operação, lida das estatísticas do Hibernate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MensagemEscritaBenchmark {
+
+    private ConfigurableApplicationContext contexto;
+
+    private MensagemService mensagemService;
+
+    private MensagemRepository mensagemRepository;
+
+    private Statistics estatisticas;
+
+    private UUID id;
+
+    @Setup
+    public void setup() {
+        contexto = ContextoAplicacao.iniciar(
+                "spring.jpa.properties.hibernate.generate_statistics=true");
+        mensagemService = contexto.getBean(MensagemService.class);
+        mensagemRepository = contexto.getBean(MensagemRepository.class);
+        estatisticas = contexto.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void registrar() {
+        id = mensagemService.registrarMensagem(Mensagem.builder()
+                .usuario("joe")
+                .conteudo("conteudo da mensagem")
+                .build()).getId();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Comandos {
+
+        public long comandos;
+
+        public long operacoes;
+    }
+
+    private void contar(Comandos contador, long antes) {
+        contador.comandos += estatisticas.getPrepareStatementCount() - antes;
+        contador.operacoes++;
+    }
+
+    @Benchmark
+    public Mensagem alterarComSelectESave(Comandos contador) {
+        var antes = estatisticas.getPrepareStatementCount();
+        var mensagem = mensagemRepository.findById(id).orElseThrow();
+        mensagem.setConteudo("conteudo alterado");
+        mensagem.setDataAlteracao(LocalDateTime.now());
+        var alterada = mensagemRepository.save(mensagem);
+        contar(contador, antes);
+        return alterada;
+    }
+
+    @Benchmark
+    public Mensagem alterarComUpdate(Comandos contador) {
+        var antes = estatisticas.getPrepareStatementCount();
+        var mensagemNova = Mensagem.builder()
+                .id(id)
+                .usuario("joe")
+                .conteudo("conteudo alterado")
+                .build();
+        var alterada = mensagemService.alterarMensagem(id, mensagemNova);
+        contar(contador, antes);
+        return alterada;
+    }
+
+    @Benchmark
+    public void removerComSelectEDelete(Comandos contador) {
+        var antes = estatisticas.getPrepareStatementCount();
+        mensagemRepository.delete(mensagemRepository.findById(id).orElseThrow());
+        contar(contador, antes);
+    }
+
+    @Benchmark
+    public Boolean removerComDelete(Comandos contador) {
+        var antes = estatisticas.getPrepareStatementCount();
+        var removida = mensagemService.removerMensagem(id);
+        contar(contador, antes);
+        return removida;
+    }
+}
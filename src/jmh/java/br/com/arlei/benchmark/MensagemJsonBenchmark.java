@@ -0,0 +1,63 @@
+package br.com.arlei.benchmark;
+
+import br.com.arlei.model.Mensagem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização e desserialização de {@link Mensagem} pelo Jackson, incluindo
+ * as datas no formato {@code yyyy-MM-dd HH:mm:ss.SSSSS}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MensagemJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private Mensagem mensagem;
+
+    private byte[] json;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        var timestamp = LocalDateTime.now();
+        mensagem = Mensagem.builder()
+                .id(UUID.randomUUID())
+                .usuario("joe")
+                .conteudo("conteudo da mensagem para o benchmark de serialização")
+                .dataCriacao(timestamp)
+                .dataAlteracao(timestamp)
+                .gostei(42)
+                .build();
+        json = objectMapper.writeValueAsBytes(mensagem);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws Exception {
+        return objectMapper.writeValueAsBytes(mensagem);
+    }
+
+    @Benchmark
+    public Mensagem desserializar() throws Exception {
+        return objectMapper.readValue(json, Mensagem.class);
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.arlei.benchmark;
+
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.service.MensagemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações do {@link MensagemService} sobre H2 embarcado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MensagemServiceBenchmark {
+
+    private static final int MENSAGENS = 1_000;
+
+    private ConfigurableApplicationContext contexto;
+
+    private MensagemService mensagemService;
+
+    private List<UUID> ids;
+
+    @Setup
+    public void setup() {
+        contexto = ContextoAplicacao.iniciar();
+        mensagemService = contexto.getBean(MensagemService.class);
+        ids = new ArrayList<>(MENSAGENS);
+        for (int i = 0; i < MENSAGENS; i++) {
+            ids.add(mensagemService.registrarMensagem(novaMensagem()).getId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    private static Mensagem novaMensagem() {
+        return Mensagem.builder()
+                .usuario("joe")
+                .conteudo("conteudo da mensagem")
+                .build();
+    }
+
+    private UUID idAleatorio() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    @Benchmark
+    public Mensagem registrarMensagem() {
+        return mensagemService.registrarMensagem(novaMensagem());
+    }
+
+    @Benchmark
+    public Mensagem buscarMensagem() {
+        return mensagemService.buscarMensagem(idAleatorio());
+    }
+
+    @Benchmark
+    public Mensagem alterarMensagem() {
+        var id = idAleatorio();
+        var mensagemNova = novaMensagem();
+        mensagemNova.setId(id);
+        return mensagemService.alterarMensagem(id, mensagemNova);
+    }
+}
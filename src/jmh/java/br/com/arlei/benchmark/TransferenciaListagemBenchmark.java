@@ -0,0 +1,106 @@
+package br.com.arlei.benchmark;
+
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.service.MensagemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bytes trafegados por uma listagem de {@value #TAMANHO_PAGINA} mensagens:
+ * a {@code Page} de {@code GET /mensagens} (com {@code pageable}, {@code sort}
+ * e totais) contra o envelope enxuto de {@code GET /mensagens/cursor}
+ * (mensagens e próximo cursor), com e sem gzip, sobre HTTP/2 (h2c).
+ *
+ * <p>O cliente envia {@code Accept-Encoding: gzip} e não descomprime: o
+ * tamanho do corpo recebido é o tamanho na rede. Ele vai para {@link Medidas}
+ * no início de cada combinação, com o protocolo e a codificação que o
+ * servidor de fato usou; o benchmark mede o tempo da requisição.
+ *
+ * <pre>
+ * mvn -Pbenchmark package -DskipTests -Djmh.args="TransferenciaListagemBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TransferenciaListagemBenchmark {
+
+    private static final int MENSAGENS = 1_000;
+
+    private static final int TAMANHO_PAGINA = 100;
+
+    @Param({"pagina", "cursor"})
+    private String envelope;
+
+    @Param({"false", "true"})
+    private boolean compressao;
+
+    private ConfigurableApplicationContext contexto;
+
+    private HttpClient httpClient;
+
+    private HttpRequest requisicao;
+
+    @Setup
+    public void setup() throws Exception {
+        contexto = ContextoAplicacao.iniciarServidor(
+                "server.compression.enabled=" + compressao,
+                "server.http2.enabled=true");
+        var mensagens = new ArrayList<Mensagem>(MENSAGENS);
+        for (int i = 0; i < MENSAGENS; i++) {
+            mensagens.add(Mensagem.builder()
+                    .usuario("usuario" + (i % 100))
+                    .conteudo("conteudo da mensagem " + i + " publicada para o benchmark de transferência")
+                    .build());
+        }
+        contexto.getBean(MensagemService.class).registrarMensagens(mensagens.iterator());
+
+        var porta = contexto.getEnvironment().getProperty("local.server.port");
+        var caminho = "cursor".equals(envelope) ? "/mensagens/cursor" : "/mensagens";
+        requisicao = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + porta + caminho + "?size=" + TAMANHO_PAGINA))
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .build();
+
+        var resposta = httpClient.send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+        var parametros = "envelope=" + envelope + ",compressao=" + compressao
+                + ",protocolo=" + resposta.version()
+                + ",codificacao=" + resposta.headers().firstValue("Content-Encoding").orElse("identity");
+        Medidas.registrar("TransferenciaListagemBenchmark", parametros, "bytes_corpo", resposta.body().length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public byte[] listarMensagens() throws Exception {
+        return httpClient.send(requisicao, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.arlei.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão do id da URL feita pelo MensagemController, no caminho válido e
+ * no inválido (que lança IllegalArgumentException).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UuidParseBenchmark {
+
+    private String idValido = "4106c507-28d5-4294-97fd-3c025d83cb30";
+
+    private String idInvalido = "4106c507-28d5-4294-97fd";
+
+    @Benchmark
+    public UUID converterIdValido() {
+        return UUID.fromString(idValido);
+    }
+
+    @Benchmark
+    public Object converterIdInvalido() {
+        try {
+            return UUID.fromString(idInvalido);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
@@ -2,8 +2,10 @@ package br.com.arlei;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// o R2DBC é usado apenas pela aplicação reativa (src/reativo, perfil Maven reativo)
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class RestApiAplication {
     public static void main(String[] args){
         SpringApplication.run(RestApiAplication.class);
@@ -0,0 +1,124 @@
+package br.com.arlei.arquivo;
+
+import br.com.arlei.busca.BuscaMensagem;
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.repository.MensagemRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Move diariamente ({@code mensagem.arquivo.cron}) as mensagens mais antigas
+ * que {@code mensagem.arquivo.idade} para o {@link ArquivoEmSegmentos}, em
+ * lotes de {@code mensagensPorSegmento}, na ordem de {@code (dataCriacao, id)}.
+ *
+ * <p>Cada lote é lido com {@code FOR UPDATE}, gravado e sincronizado no
+ * segmento e removido na mesma transação: um PUT ou uma descarga de
+ * "gostei" concorrente espera o fim do lote e então não encontra mais a
+ * mensagem, em vez de ter a alteração apagada depois de o segmento guardar o
+ * conteúdo antigo. Se a transação falhar depois de o segmento ser publicado,
+ * a mensagem fica nos dois lugares e a busca continua achando a do banco
+ * primeiro. As mensagens arquivadas saem do índice de busca textual, que
+ * só consulta o banco. A remoção não passa pelo Hibernate, por isso a região
+ * de {@link Mensagem} e as páginas do cache de segundo nível são esvaziadas
+ * no fim.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ArquivamentoMensagens {
+
+    private static final String SELECAO = "SELECT id, usuario, conteudo, data_criacao, data_alteracao, gostei, versao"
+            + " FROM mensagem WHERE data_criacao < ? ORDER BY data_criacao, id LIMIT ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ArquivoEmSegmentos arquivo;
+
+    private final ArquivoProperties properties;
+
+    private final BuscaMensagem buscaMensagem;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Clock clock;
+
+    @Scheduled(cron = "${mensagem.arquivo.cron:0 30 3 * * *}")
+    public void executar() {
+        var limite = LocalDate.now(clock).minus(properties.idade()).atStartOfDay();
+        try {
+            var arquivadas = arquivar(limite);
+            if (arquivadas > 0) {
+                buscaMensagem.removerAnterioresA(limite);
+                var cache = entityManagerFactory.getCache().unwrap(Cache.class);
+                cache.evictEntityData(Mensagem.class);
+                cache.evictQueryRegion(MensagemRepository.REGIAO_PAGINAS);
+                log.info("arquivamento: {} mensagens anteriores a {} movidas para {}",
+                        arquivadas, limite, properties.diretorio());
+            }
+        } catch (IOException e) {
+            log.error("arquivamento interrompido", e);
+        }
+    }
+
+    long arquivar(LocalDateTime limite) throws IOException {
+        long arquivadas = 0;
+        int quantidade;
+        do {
+            quantidade = arquivarLote(limite);
+            arquivadas += quantidade;
+        } while (quantidade == properties.mensagensPorSegmento());
+        return arquivadas;
+    }
+
+    private int arquivarLote(LocalDateTime limite) throws IOException {
+        try {
+            return transactionTemplate.execute(status -> {
+                var lote = jdbcTemplate.query(SELECAO, ArquivamentoMensagens::mapear,
+                        limite, properties.mensagensPorSegmento());
+                try {
+                    arquivo.adicionar(lote);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                jdbcTemplate.batchUpdate("DELETE FROM mensagem WHERE id = ?",
+                        lote.stream().map(mensagem -> new Object[]{mensagem.getId()}).toList());
+                return lote.size();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Mensagem mapear(ResultSet rs, int linha) throws SQLException {
+        var versao = rs.getObject("versao", Long.class);
+        return Mensagem.builder()
+                .id(rs.getObject("id", UUID.class))
+                .usuario(rs.getString("usuario"))
+                .conteudo(rs.getString("conteudo"))
+                .dataCriacao(data(rs.getTimestamp("data_criacao")))
+                .dataAlteracao(data(rs.getTimestamp("data_alteracao")))
+                .gostei(rs.getInt("gostei"))
+                .versao(versao)
+                .build();
+    }
+
+    private static LocalDateTime data(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
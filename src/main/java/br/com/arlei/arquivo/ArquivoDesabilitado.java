@@ -0,0 +1,14 @@
+package br.com.arlei.arquivo;
+
+import br.com.arlei.model.Mensagem;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public class ArquivoDesabilitado implements ArquivoMensagens {
+
+    @Override
+    public Optional<Mensagem> buscar(UUID id) {
+        return Optional.empty();
+    }
+}
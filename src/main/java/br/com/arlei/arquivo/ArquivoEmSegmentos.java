@@ -0,0 +1,143 @@
+package br.com.arlei.arquivo;
+
+import br.com.arlei.model.Mensagem;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Arquivo em segmentos imutáveis, só acrescentados, em um diretório local.
+ *
+ * <p>Cada segmento é gravado em um arquivo temporário, sincronizado com o
+ * disco e publicado por um {@code move} atômico, seguido da sincronização do
+ * diretório: um segmento visível está completo e sobrevive a uma queda antes
+ * de as mensagens saírem do banco. Um segmento ilegível na subida (disco
+ * danificado, arquivo de versão antiga) é renomeado para
+ * {@code .invalido} e ignorado, sem impedir a aplicação de subir. A busca
+ * percorre os segmentos do mais novo para o mais antigo; cada um descarta
+ * pelo menor e maior id antes da busca binária.
+ */
+@Slf4j
+public class ArquivoEmSegmentos implements ArquivoMensagens {
+
+    static final String PREFIXO = "segmento-";
+
+    static final String EXTENSAO = ".seg";
+
+    static final String INVALIDO = ".invalido";
+
+    private final Path diretorio;
+
+    private final int linhasPorBloco;
+
+    private final List<SegmentoArquivo> segmentos = new CopyOnWriteArrayList<>();
+
+    public ArquivoEmSegmentos(Path diretorio, int linhasPorBloco) {
+        this.diretorio = diretorio;
+        this.linhasPorBloco = linhasPorBloco;
+        try {
+            Files.createDirectories(diretorio);
+            try (var arquivos = Files.list(diretorio)) {
+                for (var caminho : arquivos.filter(ArquivoEmSegmentos::ehSegmento).sorted().toList()) {
+                    abrir(caminho);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void abrir(Path caminho) throws IOException {
+        try {
+            segmentos.add(SegmentoArquivo.abrir(caminho));
+        } catch (IOException | RuntimeException e) {
+            var invalido = caminho.resolveSibling(caminho.getFileName() + INVALIDO);
+            log.error("segmento {} ilegível; movido para {}", caminho, invalido, e);
+            Files.move(caminho, invalido, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static boolean ehSegmento(Path caminho) {
+        var nome = caminho.getFileName().toString();
+        return nome.startsWith(PREFIXO) && nome.endsWith(EXTENSAO);
+    }
+
+    @Override
+    public Optional<Mensagem> buscar(UUID id) {
+        for (int i = segmentos.size() - 1; i >= 0; i--) {
+            var mensagem = segmentos.get(i).buscar(id);
+            if (mensagem.isPresent()) {
+                return mensagem;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Grava as mensagens em um novo segmento e o torna visível para a busca.
+     */
+    public synchronized void adicionar(List<Mensagem> mensagens) throws IOException {
+        if (mensagens.isEmpty()) {
+            return;
+        }
+        var nome = String.format("%s%010d%s", PREFIXO, proximoNumero(), EXTENSAO);
+        var temporario = diretorio.resolve(nome + ".tmp");
+        // sobra de uma gravação interrompida
+        Files.deleteIfExists(temporario);
+        SegmentoArquivo.gravar(temporario, mensagens, linhasPorBloco);
+        var caminho = Files.move(temporario, diretorio.resolve(nome), StandardCopyOption.ATOMIC_MOVE);
+        sincronizarDiretorio();
+        segmentos.add(SegmentoArquivo.abrir(caminho));
+    }
+
+    // torna o rename durável; nem todo sistema de arquivos permite abrir o diretório
+    private void sincronizarDiretorio() {
+        try (var canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            log.warn("não foi possível sincronizar o diretório {}", diretorio, e);
+        }
+    }
+
+    private long proximoNumero() {
+        if (segmentos.isEmpty()) {
+            return 1;
+        }
+        var nome = segmentos.get(segmentos.size() - 1).caminho().getFileName().toString();
+        return Long.parseLong(nome, PREFIXO.length(), nome.length() - EXTENSAO.length(), 10) + 1;
+    }
+
+    /**
+     * Segmentos com alguma mensagem criada no intervalo, pelo índice de
+     * {@code dataCriacao} mínima e máxima de cada um.
+     */
+    public List<SegmentoArquivo> segmentosEntre(LocalDateTime inicio, LocalDateTime fim) {
+        var resultado = new ArrayList<SegmentoArquivo>();
+        for (var segmento : segmentos) {
+            if (segmento.menorDataCriacao() != null
+                    && !segmento.menorDataCriacao().isAfter(fim)
+                    && !segmento.maiorDataCriacao().isBefore(inicio)) {
+                resultado.add(segmento);
+            }
+        }
+        resultado.sort(Comparator.comparing(SegmentoArquivo::menorDataCriacao));
+        return resultado;
+    }
+
+    public int quantidadeSegmentos() {
+        return segmentos.size();
+    }
+}
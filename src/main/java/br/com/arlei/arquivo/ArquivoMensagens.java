@@ -0,0 +1,15 @@
+package br.com.arlei.arquivo;
+
+import br.com.arlei.model.Mensagem;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Mensagens retiradas do banco pelo arquivamento. O arquivo é somente
+ * leitura: alterações e remoções continuam valendo só para o banco.
+ */
+public interface ArquivoMensagens {
+
+    Optional<Mensagem> buscar(UUID id);
+}
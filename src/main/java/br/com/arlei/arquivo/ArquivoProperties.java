@@ -0,0 +1,22 @@
+package br.com.arlei.arquivo;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Period;
+
+/**
+ * @param habilitado            liga o arquivamento e a leitura do arquivo em {@code buscarMensagem}
+ * @param diretorio             onde ficam os segmentos ({@code segmento-NNNNNNNNNN.seg})
+ * @param idade                 idade a partir da qual as mensagens saem do banco para o arquivo
+ * @param mensagensPorSegmento  máximo de mensagens gravadas em cada segmento
+ * @param linhasPorBloco        textos de {@code conteudo} comprimidos juntos em cada bloco LZ4
+ */
+@ConfigurationProperties("mensagem.arquivo")
+public record ArquivoProperties(
+        @DefaultValue("false") boolean habilitado,
+        @DefaultValue("arquivo") String diretorio,
+        @DefaultValue("6m") Period idade,
+        @DefaultValue("100000") int mensagensPorSegmento,
+        @DefaultValue("1024") int linhasPorBloco) {
+}
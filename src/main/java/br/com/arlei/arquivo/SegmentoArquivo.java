@@ -0,0 +1,335 @@
+package br.com.arlei.arquivo;
+
+import br.com.arlei.model.Mensagem;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Segmento imutável do arquivo de mensagens, em colunas, lido por
+ * {@link MappedByteBuffer}.
+ *
+ * <p>Layout (big-endian):
+ * <pre>
+ * cabeçalho   magic, versão, quantidade, linhas por bloco,
+ *             dataCriacao mínima e máxima, menor e maior id
+ * dicionário  usuários distintos (tamanho + UTF-8)
+ * colunas     id (16 bytes, em ordem), código do usuário (int),
+ *             dataCriacao e dataAlteracao (long, micros UTC), gostei (int), versao (long)
+ * conteúdo    índice dos blocos (posição, tamanho comprimido, tamanho original)
+ *             e os blocos comprimidos em LZ4, cada um com {@code linhasPorBloco} textos
+ * </pre>
+ * As linhas ficam ordenadas por id: a busca é binária sobre a coluna de ids e
+ * descomprime apenas o bloco de conteúdo da linha encontrada.
+ */
+public final class SegmentoArquivo {
+
+    static final int MAGIC = 0x4D534731;
+
+    static final int VERSAO = 1;
+
+    private static final long NULO = Long.MIN_VALUE;
+
+    private static final int CABECALHO = 4 + 4 + 4 + 4 + 8 + 8 + 16 + 16;
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final Path caminho;
+
+    private final MappedByteBuffer dados;
+
+    private final int quantidade;
+
+    private final int linhasPorBloco;
+
+    private final LocalDateTime menorDataCriacao;
+
+    private final LocalDateTime maiorDataCriacao;
+
+    private final UUID menorId;
+
+    private final UUID maiorId;
+
+    private final String[] usuarios;
+
+    private final int colunaIds;
+
+    private final int colunaUsuarios;
+
+    private final int colunaDataCriacao;
+
+    private final int colunaDataAlteracao;
+
+    private final int colunaGostei;
+
+    private final int colunaVersao;
+
+    private final int indiceBlocos;
+
+    private final int inicioBlocos;
+
+    private SegmentoArquivo(Path caminho, MappedByteBuffer dados) {
+        this.caminho = caminho;
+        this.dados = dados;
+        if (dados.capacity() < CABECALHO || dados.getInt(0) != MAGIC || dados.getInt(4) != VERSAO) {
+            throw new IllegalStateException("segmento inválido: " + caminho);
+        }
+        quantidade = dados.getInt(8);
+        linhasPorBloco = dados.getInt(12);
+        menorDataCriacao = data(dados.getLong(16));
+        maiorDataCriacao = data(dados.getLong(24));
+        menorId = new UUID(dados.getLong(32), dados.getLong(40));
+        maiorId = new UUID(dados.getLong(48), dados.getLong(56));
+
+        try {
+            var posicao = CABECALHO;
+            usuarios = new String[dados.getInt(posicao)];
+            posicao += 4;
+            for (int i = 0; i < usuarios.length; i++) {
+                var tamanho = dados.getInt(posicao);
+                var bytes = new byte[tamanho];
+                dados.get(posicao + 4, bytes);
+                usuarios[i] = new String(bytes, StandardCharsets.UTF_8);
+                posicao += 4 + tamanho;
+            }
+            colunaIds = posicao;
+            colunaUsuarios = colunaIds + quantidade * 16;
+            colunaDataCriacao = colunaUsuarios + quantidade * 4;
+            colunaDataAlteracao = colunaDataCriacao + quantidade * 8;
+            colunaGostei = colunaDataAlteracao + quantidade * 8;
+            colunaVersao = colunaGostei + quantidade * 4;
+            indiceBlocos = colunaVersao + quantidade * 8 + 4;
+            var blocos = dados.getInt(indiceBlocos - 4);
+            inicioBlocos = indiceBlocos + blocos * 16;
+            // o último bloco termina no fim do arquivo
+            var ultimo = indiceBlocos + (blocos - 1) * 16;
+            var fim = blocos == 0 ? inicioBlocos
+                    : inicioBlocos + dados.getLong(ultimo) + dados.getInt(ultimo + 8);
+            if (fim != dados.capacity()) {
+                throw new IllegalStateException("segmento truncado: " + caminho);
+            }
+        } catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IllegalStateException("segmento truncado: " + caminho, e);
+        }
+    }
+
+    /**
+     * Mapeia o arquivo em memória (somente leitura).
+     */
+    public static SegmentoArquivo abrir(Path caminho) throws IOException {
+        try (var canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            return new SegmentoArquivo(caminho, canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    /**
+     * Grava as mensagens em um novo segmento e sincroniza o arquivo com o
+     * disco ({@link FileChannel#force}). O arquivo só deve ser publicado
+     * (renomeado) depois que este método retornar.
+     */
+    public static void gravar(Path destino, List<Mensagem> mensagens, int linhasPorBloco) throws IOException {
+        var linhas = new ArrayList<>(mensagens);
+        linhas.sort(Comparator.comparing(Mensagem::getId));
+
+        var codigos = new HashMap<String, Integer>();
+        var dicionario = new ArrayList<String>();
+        for (var mensagem : linhas) {
+            codigos.computeIfAbsent(mensagem.getUsuario(), usuario -> {
+                dicionario.add(usuario);
+                return dicionario.size() - 1;
+            });
+        }
+        var blocos = comprimirConteudo(linhas, linhasPorBloco);
+
+        try (var canal = FileChannel.open(destino, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            var saida = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal)));
+            saida.writeInt(MAGIC);
+            saida.writeInt(VERSAO);
+            saida.writeInt(linhas.size());
+            saida.writeInt(linhasPorBloco);
+            saida.writeLong(linhas.stream().mapToLong(m -> micros(m.getDataCriacao()))
+                    .filter(valor -> valor != NULO).min().orElse(NULO));
+            saida.writeLong(linhas.stream().mapToLong(m -> micros(m.getDataCriacao())).max().orElse(NULO));
+            var menor = linhas.isEmpty() ? new UUID(0, 0) : linhas.get(0).getId();
+            var maior = linhas.isEmpty() ? new UUID(0, 0) : linhas.get(linhas.size() - 1).getId();
+            saida.writeLong(menor.getMostSignificantBits());
+            saida.writeLong(menor.getLeastSignificantBits());
+            saida.writeLong(maior.getMostSignificantBits());
+            saida.writeLong(maior.getLeastSignificantBits());
+
+            saida.writeInt(dicionario.size());
+            for (var usuario : dicionario) {
+                var bytes = usuario == null ? new byte[0] : usuario.getBytes(StandardCharsets.UTF_8);
+                saida.writeInt(bytes.length);
+                saida.write(bytes);
+            }
+            for (var mensagem : linhas) {
+                saida.writeLong(mensagem.getId().getMostSignificantBits());
+                saida.writeLong(mensagem.getId().getLeastSignificantBits());
+            }
+            for (var mensagem : linhas) {
+                saida.writeInt(codigos.get(mensagem.getUsuario()));
+            }
+            for (var mensagem : linhas) {
+                saida.writeLong(micros(mensagem.getDataCriacao()));
+            }
+            for (var mensagem : linhas) {
+                saida.writeLong(micros(mensagem.getDataAlteracao()));
+            }
+            for (var mensagem : linhas) {
+                saida.writeInt(mensagem.getGostei());
+            }
+            for (var mensagem : linhas) {
+                saida.writeLong(mensagem.getVersao() == null ? NULO : mensagem.getVersao());
+            }
+
+            saida.writeInt(blocos.size());
+            long posicao = 0;
+            for (var bloco : blocos) {
+                saida.writeLong(posicao);
+                saida.writeInt(bloco.comprimido().length);
+                saida.writeInt(bloco.tamanhoOriginal());
+                posicao += bloco.comprimido().length;
+            }
+            for (var bloco : blocos) {
+                saida.write(bloco.comprimido());
+            }
+            saida.flush();
+            canal.force(true);
+        }
+    }
+
+    private record Bloco(byte[] comprimido, int tamanhoOriginal) {
+    }
+
+    private static List<Bloco> comprimirConteudo(List<Mensagem> linhas, int linhasPorBloco) throws IOException {
+        LZ4Compressor compressor = LZ4.fastCompressor();
+        var blocos = new ArrayList<Bloco>();
+        for (int inicio = 0; inicio < linhas.size(); inicio += linhasPorBloco) {
+            var textos = new ByteArrayOutputStream();
+            var saida = new DataOutputStream(textos);
+            for (var mensagem : linhas.subList(inicio, Math.min(inicio + linhasPorBloco, linhas.size()))) {
+                if (mensagem.getConteudo() == null) {
+                    saida.writeInt(-1);
+                } else {
+                    var bytes = mensagem.getConteudo().getBytes(StandardCharsets.UTF_8);
+                    saida.writeInt(bytes.length);
+                    saida.write(bytes);
+                }
+            }
+            var original = textos.toByteArray();
+            blocos.add(new Bloco(compressor.compress(original), original.length));
+        }
+        return blocos;
+    }
+
+    public Optional<Mensagem> buscar(UUID id) {
+        if (quantidade == 0 || id.compareTo(menorId) < 0 || id.compareTo(maiorId) > 0) {
+            return Optional.empty();
+        }
+        int inicio = 0;
+        int fim = quantidade - 1;
+        while (inicio <= fim) {
+            var meio = (inicio + fim) >>> 1;
+            var comparacao = id(meio).compareTo(id);
+            if (comparacao < 0) {
+                inicio = meio + 1;
+            } else if (comparacao > 0) {
+                fim = meio - 1;
+            } else {
+                return Optional.of(ler(meio));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private UUID id(int linha) {
+        var posicao = colunaIds + linha * 16;
+        return new UUID(dados.getLong(posicao), dados.getLong(posicao + 8));
+    }
+
+    private Mensagem ler(int linha) {
+        var versao = dados.getLong(colunaVersao + linha * 8);
+        var usuario = usuarios[dados.getInt(colunaUsuarios + linha * 4)];
+        return Mensagem.builder()
+                .id(id(linha))
+                .usuario(usuario.isEmpty() ? null : usuario)
+                .conteudo(conteudo(linha))
+                .dataCriacao(data(dados.getLong(colunaDataCriacao + linha * 8)))
+                .dataAlteracao(data(dados.getLong(colunaDataAlteracao + linha * 8)))
+                .gostei(dados.getInt(colunaGostei + linha * 4))
+                .versao(versao == NULO ? null : versao)
+                .build();
+    }
+
+    private String conteudo(int linha) {
+        var entrada = indiceBlocos + (linha / linhasPorBloco) * 16;
+        var posicao = inicioBlocos + (int) dados.getLong(entrada);
+        var comprimido = dados.getInt(entrada + 8);
+        var original = dados.getInt(entrada + 12);
+
+        LZ4FastDecompressor descompressor = LZ4.fastDecompressor();
+        var textos = ByteBuffer.allocate(original);
+        descompressor.decompress(dados.slice(posicao, comprimido), 0, textos, 0, original);
+        for (int i = 0; i < linha % linhasPorBloco; i++) {
+            var tamanho = textos.getInt();
+            textos.position(textos.position() + Math.max(tamanho, 0));
+        }
+        var tamanho = textos.getInt();
+        if (tamanho < 0) {
+            return null;
+        }
+        return new String(textos.array(), textos.position(), tamanho, StandardCharsets.UTF_8);
+    }
+
+    private static long micros(LocalDateTime data) {
+        if (data == null) {
+            return NULO;
+        }
+        return data.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + data.getNano() / 1_000;
+    }
+
+    private static LocalDateTime data(long micros) {
+        if (micros == NULO) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    public Path caminho() {
+        return caminho;
+    }
+
+    public int quantidade() {
+        return quantidade;
+    }
+
+    public LocalDateTime menorDataCriacao() {
+        return menorDataCriacao;
+    }
+
+    public LocalDateTime maiorDataCriacao() {
+        return maiorDataCriacao;
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.arlei.busca;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Busca textual sobre {@code conteudo} e {@code usuario}. A implementação é
+ * escolhida pela propriedade {@code mensagem.busca.modo}.
+ */
+public interface BuscaMensagem {
+
+    /**
+     * @return ids das mensagens encontradas, da mais para a menos relevante
+     */
+    List<UUID> buscar(String consulta, int limite);
+
+    /**
+     * Esquece as mensagens criadas antes de {@code limite}, retiradas do banco
+     * pela retenção ou pelo arquivamento sem passar pelo serviço. Só as
+     * implementações com índice próprio precisam fazer algo.
+     */
+    default void removerAnterioresA(LocalDateTime limite) {
+    }
+}
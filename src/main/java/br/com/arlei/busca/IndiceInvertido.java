@@ -0,0 +1,263 @@
+package br.com.arlei.busca;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido em memória com ranqueamento BM25.
+ *
+ * <p>Cada mensagem indexada recebe um número de documento sequencial; a
+ * alteração de uma mensagem marca o documento anterior como removido e
+ * indexa um novo. Quando os removidos superam os ativos, a compactação
+ * descarta as postagens dos removidos e renumera os ativos em sequência,
+ * liberando também suas posições em {@code ids}, {@code comprimentos} e
+ * {@code criacoes}. Até lá, a frequência de documentos de cada termo
+ * ({@code df}) conta também os removidos; o IDF a compara com o total de
+ * documentos numerados, que também os inclui, e nunca fica negativo.
+ */
+public class IndiceInvertido {
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, ListaPostagens> postagens = new HashMap<>();
+
+    private final Map<UUID, Integer> documentos = new HashMap<>();
+
+    private static final int CAPACIDADE_INICIAL = 1024;
+
+    private List<UUID> ids = new ArrayList<>();
+
+    private int[] comprimentos = new int[CAPACIDADE_INICIAL];
+
+    // dataCriacao de cada documento, para a retirada por data
+    private long[] criacoes = new long[CAPACIDADE_INICIAL];
+
+    private final BitSet removidos = new BitSet();
+
+    private int removidosDesdeCompactacao;
+
+    private long somaComprimentos;
+
+    public void indexar(UUID id, LocalDateTime dataCriacao, String... campos) {
+        var termos = new ArrayList<String>();
+        for (var campo : campos) {
+            termos.addAll(Tokenizador.tokenizar(campo));
+        }
+        var frequencias = new HashMap<String, Integer>();
+        termos.forEach(termo -> frequencias.merge(termo, 1, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            removerDocumento(id);
+            compactarSeNecessario();
+            var documento = ids.size();
+            ids.add(id);
+            documentos.put(id, documento);
+            if (documento == comprimentos.length) {
+                comprimentos = Arrays.copyOf(comprimentos, comprimentos.length * 2);
+                criacoes = Arrays.copyOf(criacoes, criacoes.length * 2);
+            }
+            comprimentos[documento] = termos.size();
+            criacoes[documento] = instante(dataCriacao);
+            somaComprimentos += termos.size();
+            frequencias.forEach((termo, frequencia) ->
+                    postagens.computeIfAbsent(termo, chave -> new ListaPostagens())
+                            .adicionar(documento, frequencia));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removerDocumento(id);
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove os documentos criados antes de {@code limite}.
+     */
+    public void removerAnterioresA(LocalDateTime limite) {
+        var instanteLimite = instante(limite);
+        lock.writeLock().lock();
+        try {
+            var anteriores = documentos.entrySet().stream()
+                    .filter(entrada -> criacoes[entrada.getValue()] < instanteLimite)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            anteriores.forEach(this::removerDocumento);
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void limpar() {
+        lock.writeLock().lock();
+        try {
+            postagens.clear();
+            documentos.clear();
+            ids = new ArrayList<>();
+            comprimentos = new int[CAPACIDADE_INICIAL];
+            criacoes = new long[CAPACIDADE_INICIAL];
+            removidos.clear();
+            removidosDesdeCompactacao = 0;
+            somaComprimentos = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // documentos numerados desde a última compactação, ativos ou removidos
+    int documentosAlocados() {
+        lock.readLock().lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<UUID> buscar(String consulta, int limite) {
+        var termos = new LinkedHashSet<>(Tokenizador.tokenizar(consulta));
+        if (termos.isEmpty() || limite <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            var ativos = documentos.size();
+            if (ativos == 0) {
+                return Collections.emptyList();
+            }
+            var comprimentoMedio = (double) somaComprimentos / ativos;
+            var pontuacoes = new HashMap<Integer, Double>();
+            for (var termo : termos) {
+                var lista = postagens.get(termo);
+                if (lista == null) {
+                    continue;
+                }
+                var df = lista.quantidade();
+                var idf = Math.log(1 + (ids.size() - df + 0.5) / (df + 0.5));
+                lista.paraCada((documento, frequencia) -> {
+                    if (removidos.get(documento)) {
+                        return;
+                    }
+                    var normalizacao = 1 - B + B * comprimentos[documento] / comprimentoMedio;
+                    var pontuacao = idf * frequencia * (K1 + 1) / (frequencia + K1 * normalizacao);
+                    pontuacoes.merge(documento, pontuacao, Double::sum);
+                });
+            }
+            return melhores(pontuacoes, limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<UUID> melhores(Map<Integer, Double> pontuacoes, int limite) {
+        Comparator<Map.Entry<Integer, Double>> porPontuacao = Map.Entry.comparingByValue();
+        var heap = new PriorityQueue<>(porPontuacao);
+        for (var entrada : pontuacoes.entrySet()) {
+            heap.offer(entrada);
+            if (heap.size() > limite) {
+                heap.poll();
+            }
+        }
+        var resultado = new ArrayList<UUID>(heap.size());
+        while (!heap.isEmpty()) {
+            resultado.add(ids.get(heap.poll().getKey()));
+        }
+        Collections.reverse(resultado);
+        return resultado;
+    }
+
+    private void removerDocumento(UUID id) {
+        var documento = documentos.remove(id);
+        if (documento == null) {
+            return;
+        }
+        removidos.set(documento);
+        somaComprimentos -= comprimentos[documento];
+        removidosDesdeCompactacao++;
+    }
+
+    private void compactarSeNecessario() {
+        if (removidosDesdeCompactacao > documentos.size()) {
+            compactar();
+        }
+    }
+
+    // renumera os ativos na ordem atual, o que mantém as postagens ordenadas
+    private void compactar() {
+        var renumeracao = new int[ids.size()];
+        var capacidade = Math.max(CAPACIDADE_INICIAL, Integer.highestOneBit(Math.max(1, documentos.size())) * 2);
+        var novosIds = new ArrayList<UUID>(capacidade);
+        var novosComprimentos = new int[capacidade];
+        var novasCriacoes = new long[capacidade];
+        for (int documento = 0; documento < ids.size(); documento++) {
+            if (removidos.get(documento)) {
+                renumeracao[documento] = -1;
+                continue;
+            }
+            var novo = novosIds.size();
+            var id = ids.get(documento);
+            renumeracao[documento] = novo;
+            novosIds.add(id);
+            novosComprimentos[novo] = comprimentos[documento];
+            novasCriacoes[novo] = criacoes[documento];
+            documentos.put(id, novo);
+        }
+        var iterador = postagens.entrySet().iterator();
+        while (iterador.hasNext()) {
+            var entrada = iterador.next();
+            var compactada = entrada.getValue().compactar(renumeracao);
+            if (compactada.quantidade() == 0) {
+                iterador.remove();
+            } else {
+                entrada.setValue(compactada);
+            }
+        }
+        ids = novosIds;
+        comprimentos = novosComprimentos;
+        criacoes = novasCriacoes;
+        removidos.clear();
+        removidosDesdeCompactacao = 0;
+    }
+
+    // sem data, o documento nunca sai por removerAnterioresA
+    private static long instante(LocalDateTime data) {
+        if (data == null) {
+            return Long.MAX_VALUE;
+        }
+        return data.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + data.getNano();
+    }
+}
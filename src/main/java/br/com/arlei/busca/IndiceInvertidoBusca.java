@@ -0,0 +1,73 @@
+package br.com.arlei.busca;
+
+import br.com.arlei.datasource.LeituraPropria;
+import br.com.arlei.repository.MensagemRepository;
+import br.com.arlei.service.MensagemEvento;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Busca pelo {@link IndiceInvertido} em memória, reconstruído a partir do
+ * repositório na subida da aplicação e mantido pelos {@link MensagemEvento}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class IndiceInvertidoBusca implements BuscaMensagem {
+
+    private final IndiceInvertido indice = new IndiceInvertido();
+
+    private final MensagemRepository mensagemRepository;
+
+    // somente leitura: o Stream exige transação aberta durante a leitura
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        indice.limpar();
+        // uma réplica atrasada deixaria o índice sem as últimas mensagens
+        LeituraPropria.exigirPrimario();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (var mensagens = mensagemRepository.exportarMensagens()) {
+                    mensagens.forEach(mensagem -> {
+                        indice.indexar(mensagem.getId(), mensagem.getDataCriacao(),
+                                mensagem.getUsuario(), mensagem.getConteudo());
+                        mensagemRepository.desanexar(mensagem);
+                    });
+                }
+            });
+        } finally {
+            LeituraPropria.liberar();
+        }
+        log.info("índice de busca reconstruído com {} mensagens", indice.tamanho());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void atualizar(MensagemEvento evento) {
+        var mensagem = evento.mensagem();
+        switch (evento.tipo()) {
+            case REGISTRADA, ALTERADA ->
+                    indice.indexar(mensagem.getId(), mensagem.getDataCriacao(),
+                            mensagem.getUsuario(), mensagem.getConteudo());
+            case REMOVIDA -> indice.remover(mensagem.getId());
+        }
+    }
+
+    @Override
+    public List<UUID> buscar(String consulta, int limite) {
+        return indice.buscar(consulta, limite);
+    }
+
+    @Override
+    public void removerAnterioresA(LocalDateTime limite) {
+        indice.removerAnterioresA(limite);
+    }
+}
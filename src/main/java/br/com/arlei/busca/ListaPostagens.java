@@ -0,0 +1,93 @@
+package br.com.arlei.busca;
+
+import java.util.Arrays;
+
+/**
+ * Lista de postagens de um termo: pares (documento, frequência) em ordem
+ * crescente de documento, codificados em varint com o documento armazenado
+ * como diferença para o anterior.
+ */
+final class ListaPostagens {
+
+    @FunctionalInterface
+    interface ConsumidorPostagem {
+        void aceitar(int documento, int frequencia);
+    }
+
+    private byte[] dados = new byte[16];
+
+    private int tamanhoBytes;
+
+    private int quantidade;
+
+    private int ultimoDocumento = -1;
+
+    /**
+     * @param documento maior que o último documento adicionado
+     */
+    void adicionar(int documento, int frequencia) {
+        if (documento <= ultimoDocumento) {
+            throw new IllegalArgumentException("documentos devem ser adicionados em ordem crescente");
+        }
+        escreverVarint(documento - ultimoDocumento);
+        escreverVarint(frequencia);
+        ultimoDocumento = documento;
+        quantidade++;
+    }
+
+    void paraCada(ConsumidorPostagem consumidor) {
+        var posicao = new int[]{0};
+        var documento = -1;
+        for (int i = 0; i < quantidade; i++) {
+            documento += lerVarint(posicao);
+            consumidor.aceitar(documento, lerVarint(posicao));
+        }
+    }
+
+    /**
+     * Nova lista com os documentos renumerados; {@code -1} descarta o documento.
+     *
+     * @param renumeracao crescente entre os documentos mantidos
+     */
+    ListaPostagens compactar(int[] renumeracao) {
+        var compactada = new ListaPostagens();
+        paraCada((documento, frequencia) -> {
+            var novo = renumeracao[documento];
+            if (novo >= 0) {
+                compactada.adicionar(novo, frequencia);
+            }
+        });
+        return compactada;
+    }
+
+    int quantidade() {
+        return quantidade;
+    }
+
+    int tamanhoBytes() {
+        return tamanhoBytes;
+    }
+
+    private void escreverVarint(int valor) {
+        if (tamanhoBytes + 5 > dados.length) {
+            dados = Arrays.copyOf(dados, dados.length * 2);
+        }
+        while ((valor & ~0x7F) != 0) {
+            dados[tamanhoBytes++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        dados[tamanhoBytes++] = (byte) valor;
+    }
+
+    private int lerVarint(int[] posicao) {
+        var valor = 0;
+        var deslocamento = 0;
+        byte atual;
+        do {
+            atual = dados[posicao[0]++];
+            valor |= (atual & 0x7F) << deslocamento;
+            deslocamento += 7;
+        } while ((atual & 0x80) != 0);
+        return valor;
+    }
+}
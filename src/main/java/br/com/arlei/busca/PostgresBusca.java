@@ -0,0 +1,40 @@
+package br.com.arlei.busca;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Busca pelo full-text do Postgres: {@code tsvector} sobre usuario e conteudo
+ * com índice GIN de expressão, ranqueado por {@code ts_rank}.
+ */
+@RequiredArgsConstructor
+public class PostgresBusca implements BuscaMensagem {
+
+    private static final String DOCUMENTO =
+            "to_tsvector('portuguese', coalesce(usuario, '') || ' ' || coalesce(conteudo, ''))";
+
+    private static final String CONSULTA = "plainto_tsquery('portuguese', ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void criarIndice() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_mensagem_busca ON mensagem USING GIN (" + DOCUMENTO + ")");
+    }
+
+    @Override
+    public List<UUID> buscar(String consulta, int limite) {
+        return jdbcTemplate.query(
+                "SELECT id FROM mensagem"
+                        + " WHERE " + DOCUMENTO + " @@ " + CONSULTA
+                        + " ORDER BY ts_rank(" + DOCUMENTO + ", " + CONSULTA + ") DESC"
+                        + " LIMIT ?",
+                (rs, linha) -> rs.getObject(1, UUID.class),
+                consulta, consulta, limite);
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.arlei.busca;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Quebra o texto em termos: minúsculas, sem acentos, separados por qualquer
+ * caractere não alfanumérico.
+ */
+final class Tokenizador {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    // sem UNICODE_CHARACTER_CLASS, \p{Alnum} só reconhece letras ASCII
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{Alnum}]+", Pattern.UNICODE_CHARACTER_CLASS);
+
+    private Tokenizador() {
+    }
+
+    static List<String> tokenizar(String texto) {
+        var termos = new ArrayList<String>();
+        if (texto == null || texto.isBlank()) {
+            return termos;
+        }
+        var normalizado = Normalizer.normalize(texto.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        normalizado = ACENTOS.matcher(normalizado).replaceAll("");
+        for (var termo : SEPARADORES.split(normalizado)) {
+            if (!termo.isEmpty()) {
+                termos.add(termo);
+            }
+        }
+        return termos;
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.arlei.cache;
+
+import br.com.arlei.datasource.LeituraPropria;
+import br.com.arlei.model.Mensagem;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Cache limitado por tamanho (política W-TinyLFU do Caffeine) com expiração por TTL.
+ *
+ * <p>As cargas leem de onde a transação da thread lê (a réplica, se houver).
+ * Dentro da janela de leitura própria ({@link LeituraPropria#primarioExigido()})
+ * a cópia em cache pode ser anterior à escrita do cliente: a leitura vai ao
+ * primário e substitui a cópia. Um id que a réplica não encontrou é confirmado
+ * no primário por {@link CargaCompartilhada}; na hidratação em lote, aqui.
+ */
+public class CaffeineMensagemCache implements MensagemCache {
+
+    private final Cache<UUID, Mensagem> cache;
+
+    private final boolean confirmarNoPrimario;
+
+    public CaffeineMensagemCache(MensagemCacheProperties properties, boolean confirmarNoPrimario) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.capacidade())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        this.confirmarNoPrimario = confirmarNoPrimario;
+    }
+
+    @Override
+    public Optional<Mensagem> buscar(UUID id, Function<UUID, Optional<Mensagem>> carregador) {
+        if (LeituraPropria.primarioExigido()) {
+            var carregada = carregador.apply(id);
+            carregada.ifPresentOrElse(mensagem -> cache.put(id, mensagem), () -> cache.invalidate(id));
+            return carregada;
+        }
+        return Optional.ofNullable(cache.get(id, chave -> carregador.apply(chave).orElse(null)));
+    }
+
+    // getAll leva ao carregador só as ausentes, em uma chamada
+    @Override
+    public List<Mensagem> buscarTodos(List<UUID> ids, Function<Collection<UUID>, List<Mensagem>> carregador) {
+        Map<UUID, Mensagem> encontradas;
+        if (LeituraPropria.primarioExigido()) {
+            encontradas = carregarTodas(ids, carregador);
+            cache.putAll(encontradas);
+        } else {
+            encontradas = cache.getAll(ids, faltantes -> carregarTodas(List.copyOf(faltantes), carregador));
+        }
+        return ids.stream()
+                .map(encontradas::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // as que a réplica não devolveu podem ter sido gravadas há instantes: só essas vão ao primário
+    private Map<UUID, Mensagem> carregarTodas(List<UUID> ids, Function<Collection<UUID>, List<Mensagem>> carregador) {
+        var carregadas = new HashMap<UUID, Mensagem>();
+        carregador.apply(ids).forEach(mensagem -> carregadas.put(mensagem.getId(), mensagem));
+        if (carregadas.size() < ids.size() && confirmarNoPrimario && !LeituraPropria.primarioExigido()) {
+            var ausentes = ids.stream().filter(id -> !carregadas.containsKey(id)).toList();
+            LeituraPropria.noPrimario(() -> carregador.apply(ausentes))
+                    .forEach(mensagem -> carregadas.put(mensagem.getId(), mensagem));
+        }
+        return carregadas;
+    }
+
+    @Override
+    public void invalidar(UUID id) {
+        cache.invalidate(id);
+    }
+
+    @Override
+    public void invalidarAnterioresA(LocalDateTime limite) {
+        cache.asMap().values().removeIf(mensagem ->
+                mensagem.getDataCriacao() != null && mensagem.getDataCriacao().isBefore(limite));
+    }
+
+    @Override
+    public MensagemCacheEstatisticas estatisticas() {
+        var stats = cache.stats();
+        return new MensagemCacheEstatisticas(
+                stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize());
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.arlei.cache;
+
+import br.com.arlei.datasource.LeituraPropria;
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.service.MensagemEvento;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Uma única carga por id em andamento: buscas concorrentes pela mesma
+ * mensagem esperam a carga de quem chegou primeiro, com qualquer
+ * {@code mensagem.cache.tipo}.
+ *
+ * <p>Ids não encontrados ficam lembrados por {@code mensagem.inexistentes.ttl}
+ * e respondem vazio sem o carregador. Cada registro tira o seu id da lista;
+ * uma carga que terminou vazia só é lembrada se nenhuma mensagem da mesma
+ * faixa de ids foi registrada enquanto ela estava em andamento. Com um
+ * contador só, qualquer registro concorrente impediria a lembrança, e sob
+ * escrita contínua a lista ficaria vazia. Com réplica de leitura, a
+ * ausência é confirmada no primário antes de ser lembrada: uma réplica
+ * atrasada não esconde uma mensagem recém-gravada por outra instância
+ * durante o ttl. Quem já sabe que o id existe usa
+ * {@link #buscarExistente(UUID, Function)}.
+ */
+public class CargaCompartilhada {
+
+    private final ConcurrentMap<UUID, CompletableFuture<Optional<Mensagem>>> emAndamento = new ConcurrentHashMap<>();
+
+    private final Cache<UUID, Boolean> inexistentes;
+
+    private static final int FAIXAS = 1024;
+
+    // registros por faixa de ids, para detectar os que ocorreram durante uma carga
+    private final AtomicLongArray registros = new AtomicLongArray(FAIXAS);
+
+    private final boolean confirmarNoPrimario;
+
+    public CargaCompartilhada(InexistentesProperties properties, boolean confirmarNoPrimario) {
+        this.inexistentes = Caffeine.newBuilder()
+                .maximumSize(properties.capacidade())
+                .expireAfterWrite(properties.ttl())
+                .build();
+        this.confirmarNoPrimario = confirmarNoPrimario;
+    }
+
+    public Optional<Mensagem> buscar(UUID id, Function<UUID, Optional<Mensagem>> carregador) {
+        if (inexistentes.getIfPresent(id) != null) {
+            return Optional.empty();
+        }
+        return carregar(id, carregador);
+    }
+
+    /**
+     * Busca um id que sabidamente existe (por exemplo, o de uma chave de
+     * idempotência gravada por outra instância): ignora a lista de
+     * inexistentes. Se a réplica ainda não a recebeu, a carga a confirma no
+     * primário.
+     */
+    public Optional<Mensagem> buscarExistente(UUID id, Function<UUID, Optional<Mensagem>> carregador) {
+        inexistentes.invalidate(id);
+        return carregar(id, carregador);
+    }
+
+    private Optional<Mensagem> carregar(UUID id, Function<UUID, Optional<Mensagem>> carregador) {
+        var nova = new CompletableFuture<Optional<Mensagem>>();
+        var existente = emAndamento.putIfAbsent(id, nova);
+        if (existente != null) {
+            return aguardar(existente);
+        }
+        var faixa = faixa(id);
+        var registrosAntes = registros.get(faixa);
+        try {
+            var mensagem = carregador.apply(id);
+            if (mensagem.isEmpty() && confirmarNoPrimario && !LeituraPropria.primarioExigido()) {
+                mensagem = LeituraPropria.noPrimario(() -> carregador.apply(id));
+            }
+            if (mensagem.isEmpty() && registros.get(faixa) == registrosAntes) {
+                inexistentes.put(id, Boolean.TRUE);
+            }
+            nova.complete(mensagem);
+            return mensagem;
+        } catch (RuntimeException e) {
+            nova.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(id, nova);
+        }
+    }
+
+    private static Optional<Mensagem> aguardar(CompletableFuture<Optional<Mensagem>> carga) {
+        try {
+            return carga.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void atualizar(MensagemEvento evento) {
+        if (evento.tipo() == MensagemEvento.Tipo.REGISTRADA) {
+            registros.incrementAndGet(faixa(evento.mensagem().getId()));
+            inexistentes.invalidate(evento.mensagem().getId());
+        }
+    }
+
+    private static int faixa(UUID id) {
+        return Math.floorMod(id.hashCode(), FAIXAS);
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.arlei.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param capacidade número máximo de ids inexistentes lembrados
+ * @param ttl        por quanto tempo um id não encontrado responde 404 sem ir ao banco
+ */
+@ConfigurationProperties("mensagem.inexistentes")
+public record InexistentesProperties(
+        @DefaultValue("10000") long capacidade,
+        @DefaultValue("10s") Duration ttl) {
+}
@@ -0,0 +1,39 @@
+package br.com.arlei.cache;
+
+import br.com.arlei.model.Mensagem;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Cache de leitura das mensagens por id. A implementação é escolhida pela
+ * propriedade {@code mensagem.cache.tipo}.
+ */
+public interface MensagemCache {
+
+    /**
+     * Retorna a mensagem do cache ou a obtém pelo carregador. Mensagens não
+     * encontradas não são armazenadas.
+     */
+    Optional<Mensagem> buscar(UUID id, Function<UUID, Optional<Mensagem>> carregador);
+
+    /**
+     * Retorna as mensagens encontradas, na ordem de {@code ids}. As que não
+     * estão no cache são obtidas por uma única chamada ao carregador.
+     */
+    List<Mensagem> buscarTodos(List<UUID> ids, Function<Collection<UUID>, List<Mensagem>> carregador);
+
+    void invalidar(UUID id);
+
+    /**
+     * Remove as mensagens criadas antes de {@code limite}, retiradas do banco
+     * pela retenção sem passar pelo serviço.
+     */
+    void invalidarAnterioresA(LocalDateTime limite);
+
+    MensagemCacheEstatisticas estatisticas();
+}
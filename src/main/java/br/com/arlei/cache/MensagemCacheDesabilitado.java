@@ -0,0 +1,49 @@
+package br.com.arlei.cache;
+
+import br.com.arlei.model.Mensagem;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sem cache: toda busca vai ao carregador.
+ */
+public class MensagemCacheDesabilitado implements MensagemCache {
+
+    @Override
+    public Optional<Mensagem> buscar(UUID id, Function<UUID, Optional<Mensagem>> carregador) {
+        return carregador.apply(id);
+    }
+
+    @Override
+    public List<Mensagem> buscarTodos(List<UUID> ids, Function<Collection<UUID>, List<Mensagem>> carregador) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        var encontradas = carregador.apply(ids).stream()
+                .collect(Collectors.toMap(Mensagem::getId, Function.identity()));
+        return ids.stream()
+                .map(encontradas::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public void invalidar(UUID id) {
+    }
+
+    @Override
+    public void invalidarAnterioresA(LocalDateTime limite) {
+    }
+
+    @Override
+    public MensagemCacheEstatisticas estatisticas() {
+        return MensagemCacheEstatisticas.VAZIA;
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.arlei.cache;
+
+public record MensagemCacheEstatisticas(long acertos, long falhas, long remocoes, long tamanho) {
+
+    public static final MensagemCacheEstatisticas VAZIA = new MensagemCacheEstatisticas(0, 0, 0, 0);
+
+    /**
+     * Fração das leituras atendidas pelo cache, de 0 a 1; zero sem leituras.
+     */
+    public double taxaAcertos() {
+        var leituras = acertos + falhas;
+        return leituras == 0 ? 0 : (double) acertos / leituras;
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.arlei.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param tipo       {@code caffeine} (W-TinyLFU) ou {@code nenhum}
+ * @param capacidade número máximo de mensagens mantidas
+ * @param ttl        tempo de vida de cada entrada após a gravação
+ */
+@ConfigurationProperties("mensagem.cache")
+public record MensagemCacheProperties(
+        @DefaultValue("caffeine") String tipo,
+        @DefaultValue("10000") long capacidade,
+        @DefaultValue("5m") Duration ttl) {
+}
@@ -0,0 +1,22 @@
+package br.com.arlei.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Cache de segundo nível do Hibernate (JCache sobre Caffeine).
+ *
+ * @param entidades mensagens na região da entidade
+ * @param consultas resultados na região do cache de consulta
+ * @param paginas   páginas iniciais de GET /mensagens servidas pelo cache de consulta
+ * @param ttl       expiração após a escrita, nas duas regiões
+ */
+@ConfigurationProperties("mensagem.segundo-nivel")
+public record SegundoNivelProperties(
+        @DefaultValue("10000") long entidades,
+        @DefaultValue("1000") long consultas,
+        @DefaultValue("5") int paginas,
+        @DefaultValue("10m") Duration ttl) {
+}
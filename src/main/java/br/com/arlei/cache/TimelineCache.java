@@ -0,0 +1,177 @@
+package br.com.arlei.cache;
+
+import br.com.arlei.datasource.LeituraPropria;
+import br.com.arlei.model.MensagemCursor;
+import br.com.arlei.service.MensagemEvento;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Ids das mensagens mais recentes de cada usuário ativo, atualizados a cada
+ * registro para que a primeira página da timeline não precise do banco.
+ *
+ * <p>Um registro ou remoção do usuário durante o carregamento da timeline
+ * descarta o resultado: a consulta pode ter lido o banco antes do commit, e o
+ * evento não teria timeline em cache para atualizar. Cada carga e cada
+ * evento do mesmo usuário passam pelo {@code compute} da mesma chave, e um
+ * contador por faixa de usuários diz se houve evento no meio. Mesmo assim a
+ * timeline expira {@code ttl} depois de carregada, acessada ou não.
+ *
+ * <p>A carga lê de onde a transação da thread lê (a réplica, se houver).
+ * Dentro da janela de leitura própria ({@link LeituraPropria#primarioExigido()})
+ * a timeline em cache pode não ter a escrita do cliente: a leitura vai ao
+ * primário e substitui a do cache. Uma timeline vazia na réplica é
+ * confirmada no primário, porque a réplica pode não ter recebido a primeira
+ * mensagem do usuário.
+ */
+public class TimelineCache {
+
+    /**
+     * Mesma ordem do {@code ORDER BY data_criacao DESC, id DESC} do banco,
+     * que compara o UUID como 16 bytes sem sinal.
+     */
+    private static final Comparator<MensagemCursor> MAIS_RECENTE_PRIMEIRO =
+            Comparator.comparing(MensagemCursor::dataCriacao)
+                    .thenComparing(MensagemCursor::id, TimelineCache::compararSemSinal)
+                    .reversed();
+
+    private static final int FAIXAS = 1024;
+
+    private final Cache<String, Timeline> timelines;
+
+    // eventos por faixa de usuários, para detectar os que ocorreram durante uma carga
+    private final AtomicLongArray eventos = new AtomicLongArray(FAIXAS);
+
+    private final int capacidade;
+
+    private final boolean confirmarNoPrimario;
+
+    public TimelineCache(TimelineProperties properties, boolean confirmarNoPrimario) {
+        this.capacidade = properties.mensagens();
+        this.confirmarNoPrimario = confirmarNoPrimario;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(properties.usuarios())
+                .expireAfterWrite(properties.ttl())
+                .build();
+    }
+
+    static int compararSemSinal(UUID a, UUID b) {
+        var maisSignificativos = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return maisSignificativos != 0 ? maisSignificativos
+                : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    /**
+     * Quantidade de mensagens guardadas por usuário; páginas maiores vão ao banco.
+     */
+    public int capacidade() {
+        return capacidade;
+    }
+
+    public Timeline obter(String usuario, Function<String, Timeline> carregador) {
+        var primarioExigido = LeituraPropria.primarioExigido();
+        if (!primarioExigido) {
+            var timeline = timelines.getIfPresent(usuario);
+            if (timeline != null) {
+                return timeline;
+            }
+        }
+        var faixa = faixa(usuario);
+        var antes = eventos.get(faixa);
+        var carregada = carregador.apply(usuario);
+        if (carregada.primeiras(1).isEmpty() && confirmarNoPrimario && !primarioExigido) {
+            carregada = LeituraPropria.noPrimario(() -> carregador.apply(usuario));
+        }
+        var lida = carregada;
+        var atual = timelines.asMap().compute(usuario, (chave, existente) -> {
+            if (existente != null && !primarioExigido) {
+                return existente;
+            }
+            // evento do usuário durante a carga: usa o resultado só nesta leitura
+            return eventos.get(faixa) == antes ? lida : null;
+        });
+        return atual != null ? atual : lida;
+    }
+
+    public Timeline criar(List<MensagemCursor> posicoes, boolean haMais) {
+        return new Timeline(capacidade, posicoes, haMais);
+    }
+
+    public void invalidar(String usuario) {
+        timelines.invalidate(usuario);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void atualizar(MensagemEvento evento) {
+        var mensagem = evento.mensagem();
+        switch (evento.tipo()) {
+            case REGISTRADA -> timelines.asMap().compute(mensagem.getUsuario(), (usuario, timeline) -> {
+                eventos.incrementAndGet(faixa(usuario));
+                if (timeline != null) {
+                    timeline.adicionar(MensagemCursor.de(mensagem));
+                }
+                return timeline;
+            });
+            // a timeline ficaria com menos mensagens do que o banco tem: recarrega no próximo acesso.
+            // Remoções sem usuário são detectadas na leitura (MensagemServiceImpl).
+            case REMOVIDA -> {
+                if (mensagem.getUsuario() != null) {
+                    timelines.asMap().compute(mensagem.getUsuario(), (usuario, timeline) -> {
+                        eventos.incrementAndGet(faixa(usuario));
+                        return null;
+                    });
+                }
+            }
+            case ALTERADA -> {
+            }
+        }
+    }
+
+    private static int faixa(String usuario) {
+        return Math.floorMod(usuario.hashCode(), FAIXAS);
+    }
+
+    public static final class Timeline {
+
+        private final int capacidade;
+
+        private final List<MensagemCursor> posicoes;
+
+        private boolean haMais;
+
+        private Timeline(int capacidade, List<MensagemCursor> posicoes, boolean haMais) {
+            this.capacidade = capacidade;
+            this.posicoes = new ArrayList<>(posicoes);
+            this.posicoes.sort(MAIS_RECENTE_PRIMEIRO);
+            this.haMais = haMais;
+        }
+
+        synchronized void adicionar(MensagemCursor posicao) {
+            var indice = 0;
+            while (indice < posicoes.size() && MAIS_RECENTE_PRIMEIRO.compare(posicoes.get(indice), posicao) < 0) {
+                indice++;
+            }
+            posicoes.add(indice, posicao);
+            if (posicoes.size() > capacidade) {
+                posicoes.remove(posicoes.size() - 1);
+                haMais = true;
+            }
+        }
+
+        public synchronized List<MensagemCursor> primeiras(int quantidade) {
+            return List.copyOf(posicoes.subList(0, Math.min(quantidade, posicoes.size())));
+        }
+
+        public synchronized boolean haMaisQue(int quantidade) {
+            return posicoes.size() > quantidade || haMais;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.arlei.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param usuarios  número máximo de usuários com timeline em cache
+ * @param mensagens quantidade de mensagens recentes guardadas por usuário
+ * @param ttl       tempo desde a carga até a timeline sair do cache
+ */
+@ConfigurationProperties("mensagem.timeline")
+public record TimelineProperties(
+        @DefaultValue("10000") long usuarios,
+        @DefaultValue("50") int mensagens,
+        @DefaultValue("10m") Duration ttl) {
+}
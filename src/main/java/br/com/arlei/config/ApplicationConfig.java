@@ -1,11 +1,17 @@
 package br.com.arlei.config;
 
 
+import br.com.arlei.service.FilaRegistroProperties;
+import br.com.arlei.service.MensagemLoteProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.filter.CharacterEncodingFilter;
 
 @Configuration
+@EnableScheduling
+@EnableConfigurationProperties({MensagemLoteProperties.class, FilaRegistroProperties.class})
 public class ApplicationConfig {
 
     @Bean
@@ -15,4 +21,4 @@ public class ApplicationConfig {
         filter.setForceEncoding(true);
         return filter;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package br.com.arlei.config;
+
+import br.com.arlei.arquivo.ArquivamentoMensagens;
+import br.com.arlei.arquivo.ArquivoDesabilitado;
+import br.com.arlei.arquivo.ArquivoEmSegmentos;
+import br.com.arlei.arquivo.ArquivoMensagens;
+import br.com.arlei.arquivo.ArquivoProperties;
+import br.com.arlei.busca.BuscaMensagem;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(ArquivoProperties.class)
+public class ArquivoConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "mensagem.arquivo.habilitado", havingValue = "true")
+    public ArquivoEmSegmentos arquivoEmSegmentos(ArquivoProperties properties) {
+        return new ArquivoEmSegmentos(Path.of(properties.diretorio()), properties.linhasPorBloco());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "mensagem.arquivo.habilitado", havingValue = "true")
+    public ArquivamentoMensagens arquivamentoMensagens(JdbcTemplate jdbcTemplate,
+                                                       PlatformTransactionManager transactionManager,
+                                                       ArquivoEmSegmentos arquivoEmSegmentos,
+                                                       ArquivoProperties properties,
+                                                       BuscaMensagem buscaMensagem,
+                                                       EntityManagerFactory entityManagerFactory) {
+        return new ArquivamentoMensagens(jdbcTemplate, new TransactionTemplate(transactionManager),
+                arquivoEmSegmentos, properties, buscaMensagem, entityManagerFactory, Clock.systemDefaultZone());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "mensagem.arquivo.habilitado", havingValue = "false", matchIfMissing = true)
+    public ArquivoMensagens arquivoDesabilitado() {
+        return new ArquivoDesabilitado();
+    }
+}
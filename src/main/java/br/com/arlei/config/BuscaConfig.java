@@ -0,0 +1,31 @@
+package br.com.arlei.config;
+
+import br.com.arlei.busca.BuscaMensagem;
+import br.com.arlei.busca.IndiceInvertidoBusca;
+import br.com.arlei.busca.PostgresBusca;
+import br.com.arlei.repository.MensagemRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+public class BuscaConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "mensagem.busca.modo", havingValue = "indice", matchIfMissing = true)
+    public BuscaMensagem indiceInvertidoBusca(MensagemRepository mensagemRepository,
+                                              PlatformTransactionManager transactionManager) {
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return new IndiceInvertidoBusca(mensagemRepository, transactionTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "mensagem.busca.modo", havingValue = "postgres")
+    public BuscaMensagem postgresBusca(JdbcTemplate jdbcTemplate) {
+        return new PostgresBusca(jdbcTemplate);
+    }
+}
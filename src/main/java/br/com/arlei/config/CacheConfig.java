@@ -0,0 +1,98 @@
+package br.com.arlei.config;
+
+import br.com.arlei.cache.CaffeineMensagemCache;
+import br.com.arlei.cache.CargaCompartilhada;
+import br.com.arlei.cache.InexistentesProperties;
+import br.com.arlei.cache.MensagemCache;
+import br.com.arlei.cache.MensagemCacheDesabilitado;
+import br.com.arlei.cache.MensagemCacheProperties;
+import br.com.arlei.cache.SegundoNivelProperties;
+import br.com.arlei.cache.TimelineCache;
+import br.com.arlei.cache.TimelineProperties;
+import br.com.arlei.datasource.LeituraPropria;
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.repository.MensagemRepository;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+@EnableConfigurationProperties({MensagemCacheProperties.class, TimelineProperties.class, SegundoNivelProperties.class,
+        InexistentesProperties.class})
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "mensagem.cache.tipo", havingValue = "caffeine", matchIfMissing = true)
+    public MensagemCache caffeineMensagemCache(MensagemCacheProperties properties,
+                                               Optional<LeituraPropria> leituraPropria) {
+        // LeituraPropria só existe com réplica de leitura
+        return new CaffeineMensagemCache(properties, leituraPropria.isPresent());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "mensagem.cache.tipo", havingValue = "nenhum")
+    public MensagemCache mensagemCacheDesabilitado() {
+        return new MensagemCacheDesabilitado();
+    }
+
+    @Bean
+    public TimelineCache timelineCache(TimelineProperties properties, Optional<LeituraPropria> leituraPropria) {
+        return new TimelineCache(properties, leituraPropria.isPresent());
+    }
+
+    @Bean
+    public CargaCompartilhada cargaCompartilhada(InexistentesProperties properties,
+                                                 Optional<LeituraPropria> leituraPropria) {
+        // LeituraPropria só existe com réplica de leitura
+        return new CargaCompartilhada(properties, leituraPropria.isPresent());
+    }
+
+    /**
+     * Regiões do cache de segundo nível. Cada contexto tem o seu CacheManager
+     * (URI própria), para que contextos de teste não compartilhem entidades.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager segundoNivelCacheManager(SegundoNivelProperties properties) {
+        var cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("mensagem-segundo-nivel-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(Mensagem.REGIAO_CACHE, regiao(properties.entidades(), properties));
+        cacheManager.createCache(MensagemRepository.REGIAO_PAGINAS, regiao(properties.consultas(), properties));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                regiao(properties.consultas(), properties));
+        // os timestamps decidem se um resultado em cache ainda vale: não podem expirar nem ser descartados
+        var timestamps = new CaffeineConfiguration<Object, Object>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> regiao(long tamanho, SegundoNivelProperties properties) {
+        var configuracao = new CaffeineConfiguration<Object, Object>();
+        configuracao.setMaximumSize(OptionalLong.of(tamanho));
+        configuracao.setExpireAfterWrite(OptionalLong.of(properties.ttl().toNanos()));
+        configuracao.setStatisticsEnabled(true);
+        return configuracao;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer segundoNivelHibernateProperties(CacheManager segundoNivelCacheManager) {
+        return propriedades -> {
+            propriedades.put(ConfigSettings.CACHE_MANAGER, segundoNivelCacheManager);
+            propriedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.arlei.config;
+
+import br.com.arlei.model.Mensagem;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Formato binário {@code application/cbor} negociado pelo {@code Accept} e
+ * {@code Content-Type} nos endpoints de mensagem, ao lado do JSON.
+ */
+@Configuration
+public class CborConfig {
+
+    // substitui o conversor CBOR padrão do Spring MVC pelo mapper com as configurações do Boot
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+    }
+
+    public static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory())
+                .mixIn(Mensagem.class, MensagemCborMixIn.class)
+                .build();
+    }
+
+    // No CBOR as datas vão como [ano, mês, dia, hora, minuto, segundo, nanos], sem
+    // o padrão de texto do JSON. A leitura aceita os dois formatos.
+    abstract static class MensagemCborMixIn {
+
+        @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+        private LocalDateTime dataCriacao;
+
+        @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+        private LocalDateTime dataAlteracao;
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.arlei.config;
+
+import br.com.arlei.id.IdGerador;
+import br.com.arlei.id.UuidV4Gerador;
+import br.com.arlei.id.UuidV7Gerador;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "mensagem.id.estrategia", havingValue = "v7", matchIfMissing = true)
+    public IdGerador uuidV7Gerador() {
+        return new UuidV7Gerador();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "mensagem.id.estrategia", havingValue = "v4")
+    public IdGerador uuidV4Gerador() {
+        return new UuidV4Gerador();
+    }
+}
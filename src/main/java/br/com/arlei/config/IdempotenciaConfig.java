@@ -0,0 +1,43 @@
+package br.com.arlei.config;
+
+import br.com.arlei.idempotencia.ChavesIdempotenciaJdbc;
+import br.com.arlei.idempotencia.IdempotenciaProperties;
+import br.com.arlei.idempotencia.RegistroIdempotente;
+import br.com.arlei.limite.IdentificacaoCliente;
+import br.com.arlei.limite.LimiteProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.Optional;
+
+@Configuration
+@EnableConfigurationProperties({IdempotenciaProperties.class, LimiteProperties.class})
+public class IdempotenciaConfig {
+
+    @Bean(initMethod = "criarTabela")
+    @ConditionalOnProperty(name = "mensagem.idempotencia.banco", havingValue = "true")
+    public ChavesIdempotenciaJdbc chavesIdempotenciaJdbc(JdbcTemplate jdbcTemplate,
+                                                         PlatformTransactionManager transactionManager,
+                                                         IdempotenciaProperties properties) {
+        return new ChavesIdempotenciaJdbc(jdbcTemplate, new TransactionTemplate(transactionManager),
+                properties, Clock.systemDefaultZone());
+    }
+
+    // chaves de idempotência por cliente, com a identidade do limite de taxa, habilitado ou não
+    @Bean
+    public IdentificacaoCliente identificacaoCliente(LimiteProperties limiteProperties) {
+        return new IdentificacaoCliente(limiteProperties.cabecalho());
+    }
+
+    @Bean
+    public RegistroIdempotente registroIdempotente(IdempotenciaProperties properties,
+                                                   Optional<ChavesIdempotenciaJdbc> chavesIdempotenciaJdbc) {
+        return new RegistroIdempotente(properties, chavesIdempotenciaJdbc);
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.arlei.config;
+
+import br.com.arlei.limite.LimitadorTaxa;
+import br.com.arlei.limite.LimiteConcorrencia;
+import br.com.arlei.limite.LimiteProperties;
+import br.com.arlei.limite.LimiteTaxaFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Optional;
+
+@Configuration
+@EnableConfigurationProperties(LimiteProperties.class)
+@ConditionalOnProperty(name = "mensagem.limite.habilitado", havingValue = "true")
+public class LimiteConfig {
+
+    // antes dos demais filtros: a requisição recusada não faz nenhum outro trabalho
+    @Bean
+    public FilterRegistrationBean<LimiteTaxaFilter> limiteTaxaFilter(LimiteProperties properties,
+                                                                     MeterRegistry meterRegistry) {
+        var concorrencia = Optional.of(properties.concorrencia())
+                .filter(LimiteProperties.Concorrencia::habilitado);
+        var filtro = new LimiteTaxaFilter(properties, new LimitadorTaxa(properties, System::nanoTime),
+                concorrencia.map(LimiteConcorrencia::new), concorrencia.map(LimiteConcorrencia::new), meterRegistry);
+        var registro = new FilterRegistrationBean<>(filtro);
+        registro.addUrlPatterns("/mensagens", "/mensagens/*");
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.arlei.config;
+
+import br.com.arlei.cache.MensagemCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public MeterBinder mensagemCacheMetricas(MensagemCache mensagemCache) {
+        return registry -> {
+            FunctionCounter.builder("mensagem.cache.acertos", mensagemCache, cache -> cache.estatisticas().acertos())
+                    .register(registry);
+            FunctionCounter.builder("mensagem.cache.falhas", mensagemCache, cache -> cache.estatisticas().falhas())
+                    .register(registry);
+            FunctionCounter.builder("mensagem.cache.remocoes", mensagemCache, cache -> cache.estatisticas().remocoes())
+                    .register(registry);
+            Gauge.builder("mensagem.cache.tamanho", mensagemCache, cache -> cache.estatisticas().tamanho())
+                    .register(registry);
+            // desde a subida; a taxa recente sai de rate(acertos) / (rate(acertos) + rate(falhas))
+            Gauge.builder("mensagem.cache.taxa.acertos", mensagemCache, cache -> cache.estatisticas().taxaAcertos())
+                    .register(registry);
+        };
+    }
+
+    // Regiões do cache de segundo nível (entidade, páginas e timestamps), com a
+    // tag cache=<região>: as estatísticas vêm do JCache, sem hibernate.generate_statistics
+    @Bean
+    public MeterBinder segundoNivelMetricas(CacheManager segundoNivelCacheManager) {
+        return registry -> segundoNivelCacheManager.getCacheNames().forEach(regiao ->
+                JCacheMetrics.monitor(registry, segundoNivelCacheManager.getCache(regiao)));
+    }
+}
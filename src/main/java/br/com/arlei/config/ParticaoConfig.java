@@ -0,0 +1,44 @@
+package br.com.arlei.config;
+
+import br.com.arlei.busca.BuscaMensagem;
+import br.com.arlei.cache.MensagemCache;
+import br.com.arlei.particao.GerenciadorParticoes;
+import br.com.arlei.particao.ManutencaoParticoes;
+import br.com.arlei.particao.ParticaoProperties;
+import br.com.arlei.particao.ParticoesPostgres;
+import br.com.arlei.particao.ParticoesTabelaUnica;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(ParticaoProperties.class)
+public class ParticaoConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "mensagem.particao.modo", havingValue = "tabela", matchIfMissing = true)
+    public GerenciadorParticoes particoesTabelaUnica(JdbcTemplate jdbcTemplate) {
+        return new ParticoesTabelaUnica(jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "mensagem.particao.modo", havingValue = "postgres")
+    public GerenciadorParticoes particoesPostgres(JdbcTemplate jdbcTemplate) {
+        return new ParticoesPostgres(jdbcTemplate);
+    }
+
+    @Bean
+    public ManutencaoParticoes manutencaoParticoes(GerenciadorParticoes gerenciadorParticoes,
+                                                   ParticaoProperties properties,
+                                                   MensagemCache mensagemCache,
+                                                   BuscaMensagem buscaMensagem,
+                                                   EntityManagerFactory entityManagerFactory) {
+        return new ManutencaoParticoes(gerenciadorParticoes, properties, mensagemCache, buscaMensagem,
+                entityManagerFactory, Clock.systemDefaultZone());
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.arlei.config;
+
+import br.com.arlei.datasource.LeituraPropria;
+import br.com.arlei.datasource.LeituraPropriaFilter;
+import br.com.arlei.datasource.ReplicaProperties;
+import br.com.arlei.datasource.RoteamentoDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Primário ({@code spring.datasource}) e réplica de leitura
+ * ({@code mensagem.datasource.replica}), com os métodos
+ * {@code @Transactional(readOnly = true)} roteados para a réplica.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "mensagem.datasource.replica", name = "url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaDataSourceConfig {
+
+    static final long TIMEOUT_CONEXAO_REPLICA_MS = 250;
+
+    @Bean
+    public HikariDataSource primarioDataSource(DataSourceProperties properties, Environment environment) {
+        var dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(ReplicaProperties properties, Environment environment) {
+        var builder = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.url())
+                .username(properties.username())
+                .password(properties.password());
+        // sem driverClassName o builder deduz o driver pela URL
+        if (properties.driverClassName() != null) {
+            builder.driverClassName(properties.driverClassName());
+        }
+        var dataSource = builder.build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        // sem conexão na réplica, a leitura vai ao primário; não espera os 30s padrão do Hikari
+        dataSource.setConnectionTimeout(TIMEOUT_CONEXAO_REPLICA_MS);
+        Binder.get(environment).bind("mensagem.datasource.replica.hikari", Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primarioDataSource, HikariDataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(new RoteamentoDataSource(primarioDataSource, replicaDataSource));
+    }
+
+    @Bean
+    public LeituraPropria leituraPropria(ReplicaProperties properties) {
+        return new LeituraPropria(properties.janelaLeituraPropria());
+    }
+
+    @Bean
+    public LeituraPropriaFilter leituraPropriaFilter(LeituraPropria leituraPropria) {
+        return new LeituraPropriaFilter(leituraPropria);
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.arlei.config;
+
+import br.com.arlei.eventos.MensagemEventoBus;
+import br.com.arlei.eventos.StreamProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(StreamProperties.class)
+public class StreamConfig {
+
+    @Bean(destroyMethod = "encerrar")
+    public MensagemEventoBus mensagemEventoBus(StreamProperties properties, MeterRegistry meterRegistry) {
+        return new MensagemEventoBus(properties, meterRegistry);
+    }
+}
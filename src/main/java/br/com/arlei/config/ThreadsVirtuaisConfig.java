@@ -0,0 +1,34 @@
+package br.com.arlei.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Executa as requisições do Tomcat e as tarefas assíncronas do Spring MVC em
+ * threads virtuais. Ativado por {@code mensagem.threads-virtuais.habilitado}
+ * ou pelo perfil {@code threads-virtuais}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "mensagem.threads-virtuais.habilitado", havingValue = "true")
+public class ThreadsVirtuaisConfig {
+
+    // Substitui o executor do Spring MVC (StreamingResponseBody, @Async)
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    // o mesmo executor, pela chamada ao método: nada é resolvido pelo nome do parâmetro
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> protocolHandlerThreadsVirtuais() {
+        var executor = applicationTaskExecutor();
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.arlei.controller;
+
+import br.com.arlei.cache.MensagemCache;
+import br.com.arlei.cache.MensagemCacheEstatisticas;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Contadores do cache de leitura das mensagens.
+ */
+@RestController
+@RequestMapping("mensagens/cache")
+@RequiredArgsConstructor
+public class MensagemCacheController {
+
+  private final MensagemCache mensagemCache;
+
+  @GetMapping(
+          value = "/estatisticas",
+          produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<MensagemCacheEstatisticas> estatisticas() {
+    return new ResponseEntity<>(mensagemCache.estatisticas(), HttpStatus.OK);
+  }
+}
@@ -1,18 +1,43 @@
 package br.com.arlei.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
 import java.util.UUID;
+import br.com.arlei.exception.ChaveIdempotenciaReutilizadaException;
+import br.com.arlei.exception.IfMatchInvalidoException;
+import br.com.arlei.exception.MensagemFilaCheiaException;
 import br.com.arlei.exception.MensagemNotFoundException;
+import br.com.arlei.exception.MensagemVersaoConflitoException;
 import br.com.arlei.model.Mensagem;
+import br.com.arlei.model.MensagemCursor;
+import br.com.arlei.model.MensagemPagina;
+import br.com.arlei.model.ResultadoRegistro;
+import br.com.arlei.limite.IdentificacaoCliente;
 import br.com.arlei.service.MensagemService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 /**
@@ -23,28 +48,157 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class MensagemController {
 
+  private static final String RESPOND_ASYNC = "respond-async";
+
+  private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+  static final int LIMITE_MAXIMO_BUSCA = 100;
+
+  // corpo do 400 de um id que não é UUID; as métricas o distinguem dos demais 400
+  public static final String ID_INVALIDO = "ID inválido";
+
   private final MensagemService mensagemService;
 
+  private final ObjectMapper objectMapper;
+
+  private final IdentificacaoCliente identificacaoCliente;
+
+
+  @PostMapping(
+          consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+          produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE}
+  )
+  public ResponseEntity<?> registrarMensagem(
+          @RequestBody  Mensagem mensagem,
+          @RequestHeader(value = "Prefer", required = false) String prefer,
+          @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String chaveIdempotencia,
+          HttpServletRequest request){
+    try {
+      // com Idempotency-Key o registro é sempre síncrono: a repetição precisa da mensagem original
+      if (chaveIdempotencia != null) {
+        var mensagemRegistrada = mensagemService.registrarMensagem(
+                mensagem, identificacaoCliente.identificar(request), chaveIdempotencia);
+        return new ResponseEntity<>(mensagemRegistrada, HttpStatus.CREATED);
+      }
+      if (prefer != null && prefer.contains(RESPOND_ASYNC)) {
+        var id = mensagemService.enfileirarMensagem(mensagem);
+        if (id.isPresent()) {
+          return ResponseEntity.accepted()
+                  .location(URI.create("/mensagens/" + id.get()))
+                  .header("Preference-Applied", RESPOND_ASYNC)
+                  .body(Map.of("id", id.get()));
+        }
+      }
+      var mensagemRegistrada = mensagemService.registrarMensagem(mensagem);
+      return new ResponseEntity<>(mensagemRegistrada, HttpStatus.CREATED);
+    } catch (MensagemFilaCheiaException e) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+              .header(HttpHeaders.RETRY_AFTER, "1")
+              .body(e.getMessage());
+    } catch (ChaveIdempotenciaReutilizadaException e) {
+      return ResponseEntity.unprocessableEntity().body(e.getMessage());
+    } catch (ConstraintViolationException e) {
+      // mesmo contrato da API reativa: 400 com as mensagens de validação
+      return ResponseEntity.badRequest().body(e.getConstraintViolations().stream()
+              .map(ConstraintViolation::getMessage)
+              .toList());
+    }
+  }
 
+  /**
+   * Registra um lote de mensagens enviado como array JSON ou NDJSON (uma
+   * mensagem por linha). O corpo é lido de forma incremental e gravado em
+   * transações de {@code mensagem.lote.tamanho} mensagens. Se o lote for
+   * interrompido (item ilegível ou falha de gravação) depois de alguma
+   * mensagem gravada, a resposta é 207 com o resultado de cada item lido.
+   */
   @PostMapping(
-          consumes = MediaType.APPLICATION_JSON_VALUE,
+          value = "/lote",
+          consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
           produces = MediaType.APPLICATION_JSON_VALUE
   )
-  public ResponseEntity<Mensagem> registrarMensagem(@RequestBody  Mensagem mensagem){
-    var mensagemRegistrada = mensagemService.registrarMensagem(mensagem);
-    return new ResponseEntity<>(mensagemRegistrada, HttpStatus.CREATED);
+  public ResponseEntity<?> registrarMensagensEmLote(InputStream corpo) throws IOException {
+    try (MappingIterator<Mensagem> mensagens = objectMapper.readerFor(Mensagem.class).readValues(corpo)) {
+      var resultados = mensagemService.registrarMensagens(mensagens);
+      if (resultados.stream().noneMatch(ResultadoRegistro::interrompeu)) {
+        return new ResponseEntity<>(resultados, HttpStatus.CREATED);
+      }
+      return new ResponseEntity<>(resultados, statusLoteInterrompido(resultados));
+    } catch (JsonProcessingException | RuntimeJsonMappingException e) {
+      return ResponseEntity.badRequest().body("lote inválido");
+    }
+  }
+
+  // 207 se parte do lote foi gravada; senão, o motivo da interrupção
+  private static HttpStatus statusLoteInterrompido(List<ResultadoRegistro> resultados) {
+    var situacoes = resultados.stream().map(ResultadoRegistro::situacao).toList();
+    if (situacoes.contains(ResultadoRegistro.Situacao.REGISTRADA)) {
+      return HttpStatus.MULTI_STATUS;
+    }
+    return situacoes.contains(ResultadoRegistro.Situacao.NAO_GRAVADA)
+            ? HttpStatus.INTERNAL_SERVER_ERROR
+            : HttpStatus.BAD_REQUEST;
+  }
+
+  /**
+   * Exporta todas as mensagens em NDJSON, lidas por cursor no banco e
+   * escritas diretamente na resposta.
+   */
+  @GetMapping(
+          value = "/export",
+          produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> exportarMensagens() {
+    var escritor = objectMapper.writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .withRootValueSeparator("\n");
+    StreamingResponseBody corpo = saida -> {
+      try (var mensagens = escritor.writeValues(saida)) {
+        mensagemService.exportarMensagens(mensagem -> {
+          try {
+            mensagens.write(mensagem);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      }
+    };
+    return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(corpo);
+  }
+
+  @GetMapping(
+          value = "/busca",
+          produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+  public ResponseEntity<?> buscarMensagens(
+          @RequestParam(name = "q", required = false) String consulta,
+          @RequestParam(defaultValue = "20") int limite) {
+    if (consulta == null || consulta.isBlank()) {
+      return ResponseEntity.badRequest().body("consulta inválida");
+    }
+    if (limite < 1 || limite > LIMITE_MAXIMO_BUSCA) {
+      return ResponseEntity.badRequest().body("limite inválido");
+    }
+    var mensagens = mensagemService.buscarMensagens(consulta, limite);
+    return new ResponseEntity<>(mensagens, HttpStatus.OK);
   }
 
   @GetMapping(
           value = "/{id}",
-          produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<?> buscarMensagem(@PathVariable String id) {
+          produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+  public ResponseEntity<?> buscarMensagem(
+          @PathVariable String id,
+          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
     try {
       var uuid = UUID.fromString(id);
       var mensagemEncontrada = mensagemService.buscarMensagem(uuid);
-      return new ResponseEntity<>(mensagemEncontrada, HttpStatus.OK);
+      var etag = MensagemEtag.de(mensagemEncontrada);
+      if (ifNoneMatch != null && MensagemEtag.corresponde(ifNoneMatch, etag)) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+      }
+      return ResponseEntity.ok().eTag(etag).body(mensagemEncontrada);
     } catch (IllegalArgumentException e) {
-      return ResponseEntity.badRequest().body("ID inválido");
+      return ResponseEntity.badRequest().body(ID_INVALIDO);
     } catch (MensagemNotFoundException e) {
       return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
     }
@@ -52,20 +206,42 @@ public class MensagemController {
 
   @PutMapping(
           value = "/{id}",
-          consumes = MediaType.APPLICATION_JSON_VALUE,
-          produces = MediaType.APPLICATION_JSON_VALUE)
+          consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+          produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
   public ResponseEntity<?> atualizarMensagem(
           @PathVariable String id,
-          @RequestBody Mensagem mensagem) {
+          @RequestBody Mensagem mensagem,
+          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
     try {
       var uuid = UUID.fromString(id);
-      var mensagemAtualizada = mensagemService.alterarMensagem(uuid, mensagem);
-      return new ResponseEntity<>(mensagemAtualizada, HttpStatus.ACCEPTED);
+      var versaoEsperada = ifMatch == null ? OptionalLong.empty() : MensagemEtag.versao(ifMatch);
+      var mensagemAtualizada = versaoEsperada.isPresent()
+              ? mensagemService.alterarMensagem(uuid, mensagem, versaoEsperada.getAsLong())
+              : mensagemService.alterarMensagem(uuid, mensagem);
+      return ResponseEntity.status(HttpStatus.ACCEPTED)
+              .eTag(MensagemEtag.de(mensagemAtualizada))
+              .body(mensagemAtualizada);
     } catch (IllegalArgumentException e) {
-      return ResponseEntity.badRequest().body("ID inválido");
+      return ResponseEntity.badRequest().body(ID_INVALIDO);
     } catch (MensagemNotFoundException e) {
       return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    } catch (IfMatchInvalidoException e) {
+      // If-Match que não é um ETag desta API: erro de sintaxe do cliente
+      return ResponseEntity.badRequest().body(e.getMessage());
+    } catch (MensagemVersaoConflitoException e) {
+      return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+    }
+  }
+
+  @PostMapping("/{id}/gostei")
+  public ResponseEntity<?> registrarGostei(@PathVariable String id) {
+    try {
+      var uuid = UUID.fromString(id);
+      mensagemService.registrarGostei(uuid);
+      return new ResponseEntity<>("gostei registrado", HttpStatus.ACCEPTED);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(ID_INVALIDO);
     }
   }
 
@@ -77,14 +253,14 @@ public class MensagemController {
       mensagemService.removerMensagem(uuid);
       return new ResponseEntity<>("mensagem removida", HttpStatus.OK);
     } catch (IllegalArgumentException e) {
-      return ResponseEntity.badRequest().body("ID inválido");
+      return ResponseEntity.badRequest().body(ID_INVALIDO);
     } catch (MensagemNotFoundException e) {
       return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
     }
   }
   @GetMapping(
           value = "",
-          produces = MediaType.APPLICATION_JSON_VALUE)
+          produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
   public ResponseEntity<Page<Mensagem>> listarMensagens(
           @RequestParam(defaultValue = "0") int page,
           @RequestParam(defaultValue = "10") int size) {
@@ -92,4 +268,19 @@ public class MensagemController {
     Page<Mensagem> mensagens = mensagemService.listarMensagens(pageable);
     return new ResponseEntity<>(mensagens, HttpStatus.OK);
   }
+
+  @GetMapping(
+          value = "/cursor",
+          produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+  public ResponseEntity<?> listarMensagensPorCursor(
+          @RequestParam(required = false) String cursor,
+          @RequestParam(defaultValue = "10") int size) {
+    try {
+      var posicao = cursor == null ? null : MensagemCursor.decodificar(cursor);
+      var mensagens = mensagemService.listarMensagens(posicao, size);
+      return new ResponseEntity<>(MensagemPagina.de(mensagens), HttpStatus.OK);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body("cursor inválido");
+    }
+  }
 }
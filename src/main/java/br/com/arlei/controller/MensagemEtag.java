@@ -0,0 +1,53 @@
+package br.com.arlei.controller;
+
+import br.com.arlei.exception.IfMatchInvalidoException;
+import br.com.arlei.model.Mensagem;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * ETag da mensagem no formato {@code "versao-gostei"}: a versão muda a cada
+ * alteração de conteúdo e o gostei, que não altera a versão, entra apenas
+ * para que o If-None-Match não devolva 304 com o contador desatualizado.
+ */
+final class MensagemEtag {
+
+    private MensagemEtag() {
+    }
+
+    static String de(Mensagem mensagem) {
+        var versao = mensagem.getVersao() == null ? 0 : mensagem.getVersao();
+        return "\"" + versao + "-" + mensagem.getGostei() + "\"";
+    }
+
+    /**
+     * Versão informada no If-Match; vazio para {@code *}.
+     *
+     * @throws IfMatchInvalidoException quando o valor não segue o formato da ETag
+     */
+    static OptionalLong versao(String ifMatch) {
+        var etag = normalizar(ifMatch.split(",")[0]);
+        if (etag.equals("*")) {
+            return OptionalLong.empty();
+        }
+        try {
+            var fim = etag.indexOf('-');
+            return OptionalLong.of(Long.parseLong(etag.substring(1, fim < 0 ? etag.length() - 1 : fim)));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IfMatchInvalidoException("If-Match inválido");
+        }
+    }
+
+    static boolean corresponde(String ifNoneMatch, String etag) {
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(MensagemEtag::normalizar)
+                .anyMatch(valor -> valor.equals("*") || valor.equals(etag));
+    }
+
+    // comparação fraca (RFC 9110): ignora o prefixo W/
+    private static String normalizar(String valor) {
+        var etag = valor.trim();
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
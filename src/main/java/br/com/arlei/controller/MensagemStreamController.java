@@ -0,0 +1,70 @@
+package br.com.arlei.controller;
+
+import br.com.arlei.eventos.EventoStream;
+import br.com.arlei.eventos.MensagemEventoBus;
+import br.com.arlei.eventos.StreamProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Registro, alteração e remoção de mensagens em tempo real (Server-Sent
+ * Events), no lugar de consultar GET /mensagens periodicamente.
+ */
+@RestController
+@RequestMapping("mensagens")
+@RequiredArgsConstructor
+public class MensagemStreamController {
+
+  private final MensagemEventoBus mensagemEventoBus;
+
+  private final StreamProperties streamProperties;
+
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter acompanharMensagens(
+          @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEvento) {
+    var emitter = new SseEmitter(streamProperties.timeout().toMillis());
+    var assinante = mensagemEventoBus.assinar(ultimoId(ultimoEvento), new MensagemEventoBus.Destino() {
+      @Override
+      public void enviar(EventoStream evento) throws IOException {
+        var envio = SseEmitter.event()
+                .id(String.valueOf(evento.id()))
+                .name(evento.nome());
+        if (evento.mensagem() != null) {
+          envio.data(evento.mensagem(), MediaType.APPLICATION_JSON);
+        } else {
+          // eventos sem a linha data não são entregues pelo EventSource do navegador
+          envio.data("");
+        }
+        emitter.send(envio);
+      }
+
+      @Override
+      public void encerrar() {
+        emitter.complete();
+      }
+    });
+    emitter.onCompletion(() -> mensagemEventoBus.cancelar(assinante));
+    emitter.onTimeout(() -> mensagemEventoBus.cancelar(assinante));
+    emitter.onError(erro -> mensagemEventoBus.cancelar(assinante));
+    return emitter;
+  }
+
+  // um Last-Event-ID que não é deste servidor equivale a nenhum
+  private static Long ultimoId(String ultimoEvento) {
+    if (ultimoEvento == null) {
+      return null;
+    }
+    try {
+      return Long.parseLong(ultimoEvento.trim());
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
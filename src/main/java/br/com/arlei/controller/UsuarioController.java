@@ -0,0 +1,41 @@
+package br.com.arlei.controller;
+
+import br.com.arlei.model.MensagemCursor;
+import br.com.arlei.model.MensagemPagina;
+import br.com.arlei.service.MensagemService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Mensagens de um usuário (timeline).
+ */
+@RestController
+@RequestMapping("usuarios")
+@RequiredArgsConstructor
+public class UsuarioController {
+
+  private final MensagemService mensagemService;
+
+  @GetMapping(
+          value = "/{usuario}/mensagens",
+          produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+  public ResponseEntity<?> listarMensagensDoUsuario(
+          @PathVariable String usuario,
+          @RequestParam(required = false) String cursor,
+          @RequestParam(defaultValue = "10") int size) {
+    try {
+      var posicao = cursor == null ? null : MensagemCursor.decodificar(cursor);
+      var mensagens = mensagemService.listarMensagensDoUsuario(usuario, posicao, size);
+      return new ResponseEntity<>(MensagemPagina.de(mensagens), HttpStatus.OK);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body("cursor inválido");
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package br.com.arlei.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Janela "read-your-writes": clientes que escreveram há menos de
+ * {@code janela} leem do primário, porque a réplica pode ainda não ter
+ * recebido a escrita.
+ */
+public class LeituraPropria {
+
+    private static final ThreadLocal<Boolean> PRIMARIO = ThreadLocal.withInitial(() -> false);
+
+    private final Cache<String, Boolean> escritasRecentes;
+
+    public LeituraPropria(Duration janela) {
+        this.escritasRecentes = Caffeine.newBuilder()
+                .expireAfterWrite(janela)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public void registrarEscrita(String cliente) {
+        escritasRecentes.put(cliente, Boolean.TRUE);
+    }
+
+    public boolean escreveuRecentemente(String cliente) {
+        return escritasRecentes.getIfPresent(cliente) != null;
+    }
+
+    /**
+     * Faz as leituras da thread atual irem ao primário até {@link #liberar()}.
+     */
+    public static void exigirPrimario() {
+        PRIMARIO.set(true);
+    }
+
+    public static void liberar() {
+        PRIMARIO.remove();
+    }
+
+    /**
+     * Executa {@code leitura} no primário e restaura a escolha anterior da thread.
+     */
+    public static <T> T noPrimario(Supplier<T> leitura) {
+        if (primarioExigido()) {
+            return leitura.get();
+        }
+        exigirPrimario();
+        try {
+            return leitura.get();
+        } finally {
+            liberar();
+        }
+    }
+
+    public static boolean primarioExigido() {
+        return PRIMARIO.get();
+    }
+}
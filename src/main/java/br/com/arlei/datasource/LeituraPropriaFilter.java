@@ -0,0 +1,46 @@
+package br.com.arlei.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Identifica o cliente pelo cabeçalho {@code X-Cliente-Id} (ou pelo endereço
+ * remoto), registra suas escritas e envia ao primário as leituras feitas
+ * dentro da janela de {@link LeituraPropria}.
+ */
+@RequiredArgsConstructor
+public class LeituraPropriaFilter extends OncePerRequestFilter {
+
+    static final String CLIENTE = "X-Cliente-Id";
+
+    private final LeituraPropria leituraPropria;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var cliente = request.getHeader(CLIENTE);
+        if (cliente == null) {
+            cliente = request.getRemoteAddr();
+        }
+        var leitura = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        // registra antes de processar: a escrita já está visível no primário quando a resposta chega ao cliente
+        if (!leitura) {
+            leituraPropria.registrarEscrita(cliente);
+        }
+        if (leituraPropria.escreveuRecentemente(cliente)) {
+            LeituraPropria.exigirPrimario();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            LeituraPropria.liberar();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.arlei.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Réplica de leitura; o roteamento só é ativado quando {@code url} é informada.
+ * O pool aceita as mesmas opções de {@code spring.datasource.hikari} em
+ * {@code mensagem.datasource.replica.hikari}.
+ *
+ * @param janelaLeituraPropria tempo após uma escrita em que as leituras do
+ *                             mesmo cliente continuam indo ao primário
+ */
+@ConfigurationProperties("mensagem.datasource.replica")
+public record ReplicaProperties(
+        String url,
+        String username,
+        String password,
+        String driverClassName,
+        @DefaultValue("5s") Duration janelaLeituraPropria) {
+}
@@ -0,0 +1,54 @@
+package br.com.arlei.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Envia transações {@code readOnly} à réplica e o restante ao primário. Se a
+ * réplica não fornece conexão, a leitura cai para o primário.
+ *
+ * <p>Deve ficar atrás de um LazyConnectionDataSourceProxy: a conexão só pode
+ * ser escolhida depois que a transação expõe o readOnly.
+ */
+@Slf4j
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    enum Destino { PRIMARIO, REPLICA }
+
+    private final DataSource primario;
+
+    public RoteamentoDataSource(DataSource primario, DataSource replica) {
+        this.primario = primario;
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !LeituraPropria.primarioExigido()) {
+            return Destino.REPLICA;
+        }
+        return Destino.PRIMARIO;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        try {
+            return super.getConnection();
+        } catch (SQLException e) {
+            if (determineCurrentLookupKey() != Destino.REPLICA) {
+                throw e;
+            }
+            log.warn("réplica indisponível, lendo do primário: {}", e.getMessage());
+            return primario.getConnection();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.arlei.eventos;
+
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.service.MensagemEvento;
+
+/**
+ * Evento enviado em GET /mensagens/stream. O {@code id} cresce a cada evento
+ * e é o valor que o cliente devolve em {@code Last-Event-ID}.
+ */
+public record EventoStream(long id, String nome, Mensagem mensagem) {
+
+    /**
+     * Os eventos posteriores ao Last-Event-ID já saíram do histórico: o
+     * cliente deve recarregar a listagem.
+     */
+    public static final String REINICIO = "reinicio";
+
+    static EventoStream de(long id, MensagemEvento evento) {
+        return new EventoStream(id, evento.tipo().name().toLowerCase(), evento.mensagem());
+    }
+
+    static EventoStream reinicio(long id) {
+        return new EventoStream(id, REINICIO, null);
+    }
+}
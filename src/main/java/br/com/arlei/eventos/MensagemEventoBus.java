@@ -0,0 +1,264 @@
+package br.com.arlei.eventos;
+
+import br.com.arlei.service.MensagemEvento;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Distribui os {@link MensagemEvento} aos assinantes de GET /mensagens/stream.
+ *
+ * <p>Cada evento recebe um id sequencial e fica em um anel com os
+ * {@code historico} mais recentes, usado tanto para retomar a partir do
+ * Last-Event-ID quanto para a entrega: cada assinante guarda só o id do
+ * último evento enviado e lê os seguintes do anel. Publicar é reservar o id,
+ * gravar a posição do anel e acordar os assinantes, sem lock global: a
+ * thread da requisição nunca espera outra publicação nem uma conexão. Um
+ * assinante para no primeiro id ainda não gravado, então recebe os eventos
+ * na ordem dos ids mesmo com publicações concorrentes.
+ *
+ * <p>Os envios rodam nas {@code threads} de envio do próprio bus, no máximo
+ * um por assinante por vez, e as threads terminam com {@link #encerrar()}.
+ * Não são um bean: um {@code Executor} no contexto faria o Spring Boot
+ * deixar de criar o {@code applicationTaskExecutor}. Quem fica mais de {@code buffer} eventos atrás é desconectado, e uma
+ * escrita que passa de {@code envioTimeout} é interrompida por
+ * {@link #verificarEnvios()}, para que uma conexão lenta não prenda as
+ * threads de envio dos demais. O assinante desconectado retoma pelo
+ * histórico.
+ */
+@Slf4j
+public class MensagemEventoBus {
+
+    /**
+     * Conexão de um assinante.
+     */
+    public interface Destino {
+
+        void enviar(EventoStream evento) throws IOException;
+
+        void encerrar();
+    }
+
+    private final AtomicReferenceArray<EventoStream> historico;
+
+    private final AtomicLong ultimoId = new AtomicLong();
+
+    private final int buffer;
+
+    private final long envioTimeoutNanos;
+
+    private final Executor envio;
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+
+    private final Counter descartados;
+
+    public MensagemEventoBus(StreamProperties properties, MeterRegistry meterRegistry) {
+        this(properties,
+                Executors.newFixedThreadPool(properties.threads(), new CustomizableThreadFactory("mensagem-stream-")),
+                meterRegistry);
+    }
+
+    MensagemEventoBus(StreamProperties properties, Executor envio, MeterRegistry meterRegistry) {
+        this.historico = new AtomicReferenceArray<>(properties.historico());
+        this.buffer = properties.buffer();
+        this.envioTimeoutNanos = properties.envioTimeout().toNanos();
+        this.envio = envio;
+        Gauge.builder("mensagem.stream.assinantes", assinantes, Set::size)
+                .register(meterRegistry);
+        this.descartados = meterRegistry.counter("mensagem.stream.descartados");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publicar(MensagemEvento evento) {
+        var eventoStream = EventoStream.de(ultimoId.incrementAndGet(), evento);
+        historico.set(posicao(eventoStream.id()), eventoStream);
+        for (var assinante : assinantes) {
+            if (eventoStream.id() - assinante.enviado > assinante.capacidade) {
+                // consumidor lento: reconecta e retoma pelo histórico
+                descartar(assinante);
+            } else {
+                agendar(assinante);
+            }
+        }
+    }
+
+    /**
+     * Inscreve o destino, reenviando antes os eventos posteriores a
+     * {@code ultimoIdRecebido} que ainda estão no histórico.
+     */
+    public Assinante assinar(Long ultimoIdRecebido, Destino destino) {
+        var atual = ultimoId.get();
+        var enviado = atual;
+        var capacidade = buffer;
+        EventoStream reinicio = null;
+        if (ultimoIdRecebido != null) {
+            var primeiroDisponivel = Math.max(1, atual - historico.length() + 1);
+            if (ultimoIdRecebido + 1 < primeiroDisponivel || ultimoIdRecebido > atual) {
+                // eventos perdidos, ou ids de antes de um reinício do servidor
+                reinicio = EventoStream.reinicio(atual);
+            } else {
+                enviado = ultimoIdRecebido;
+                capacidade += (int) (atual - ultimoIdRecebido);
+            }
+        }
+        var assinante = new Assinante(destino, enviado, capacidade, reinicio);
+        assinantes.add(assinante);
+        agendar(assinante);
+        return assinante;
+    }
+
+    public void cancelar(Assinante assinante) {
+        assinante.ativo = false;
+        assinantes.remove(assinante);
+    }
+
+    public void encerrar() {
+        assinantes.forEach(assinante -> {
+            cancelar(assinante);
+            assinante.destino.encerrar();
+        });
+        if (envio instanceof ExecutorService threads) {
+            threads.shutdownNow();
+        }
+    }
+
+    /**
+     * Desconecta os assinantes com uma escrita em andamento há mais de
+     * {@code envioTimeout}, interrompendo a thread de envio presa nela.
+     */
+    @Scheduled(fixedDelayString = "${mensagem.stream.verificacao-envio:1000}")
+    public void verificarEnvios() {
+        var agora = System.nanoTime();
+        for (var assinante : assinantes) {
+            synchronized (assinante) {
+                if (assinante.enviando != null && agora - assinante.envioIniciado > envioTimeoutNanos) {
+                    log.debug("envio ao assinante excedeu {} ms", envioTimeoutNanos / 1_000_000);
+                    descartar(assinante);
+                    assinante.enviando.interrupt();
+                }
+            }
+        }
+    }
+
+    private int posicao(long id) {
+        return (int) (id % historico.length());
+    }
+
+    // o destino é encerrado pela thread de envio, a única que o usa
+    private void descartar(Assinante assinante) {
+        cancelar(assinante);
+        descartados.increment();
+        assinante.encerrar.set(true);
+        agendar(assinante);
+    }
+
+    private boolean disponivel(Assinante assinante) {
+        if (assinante.reinicio != null) {
+            return true;
+        }
+        var proximo = historico.get(posicao(assinante.enviado + 1));
+        return proximo != null && proximo.id() > assinante.enviado;
+    }
+
+    private void agendar(Assinante assinante) {
+        var pendente = assinante.encerrar.get() || (assinante.ativo && disponivel(assinante));
+        if (pendente && assinante.agendado.compareAndSet(false, true)) {
+            envio.execute(() -> drenar(assinante));
+        }
+    }
+
+    private void drenar(Assinante assinante) {
+        try {
+            if (assinante.reinicio != null && assinante.ativo) {
+                enviar(assinante, assinante.reinicio);
+                assinante.reinicio = null;
+            }
+            while (assinante.ativo) {
+                var id = assinante.enviado + 1;
+                var evento = historico.get(posicao(id));
+                if (evento == null || evento.id() < id) {
+                    // ainda não publicado; quem publicar agenda de novo
+                    break;
+                }
+                if (evento.id() > id) {
+                    // sobrescrito no anel antes do envio
+                    descartar(assinante);
+                    break;
+                }
+                enviar(assinante, evento);
+                assinante.enviado = id;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("assinante desconectado: {}", e.getMessage());
+            cancelar(assinante);
+        } finally {
+            if (assinante.encerrar.compareAndSet(true, false)) {
+                assinante.destino.encerrar();
+            }
+            assinante.agendado.set(false);
+        }
+        // eventos que chegaram entre a última leitura e a liberação do agendamento
+        agendar(assinante);
+    }
+
+    private void enviar(Assinante assinante, EventoStream evento) throws IOException {
+        synchronized (assinante) {
+            assinante.envioIniciado = System.nanoTime();
+            assinante.enviando = Thread.currentThread();
+        }
+        try {
+            assinante.destino.enviar(evento);
+        } finally {
+            synchronized (assinante) {
+                assinante.enviando = null;
+                // interrupção do verificarEnvios que chegou depois da escrita
+                Thread.interrupted();
+            }
+        }
+    }
+
+    public static final class Assinante {
+
+        private final Destino destino;
+
+        // eventos atrás do último publicado tolerados antes de desconectar
+        private final int capacidade;
+
+        private final AtomicBoolean agendado = new AtomicBoolean();
+
+        private final AtomicBoolean encerrar = new AtomicBoolean();
+
+        private volatile long enviado;
+
+        private volatile EventoStream reinicio;
+
+        private volatile boolean ativo = true;
+
+        // guardados pelo próprio assinante
+        private long envioIniciado;
+
+        private Thread enviando;
+
+        private Assinante(Destino destino, long enviado, int capacidade, EventoStream reinicio) {
+            this.destino = destino;
+            this.enviado = enviado;
+            this.capacidade = capacidade;
+            this.reinicio = reinicio;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.arlei.eventos;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param historico eventos recentes guardados para retomada por Last-Event-ID
+ * @param buffer    eventos aguardando envio por assinante; acima disso o
+ *                  assinante é desconectado e retoma pelo histórico
+ * @param threads   threads que escrevem nas conexões
+ * @param timeout   duração máxima de uma conexão; o cliente reconecta em seguida
+ * @param envioTimeout duração máxima de uma escrita na conexão; acima disso o
+ *                  assinante é desconectado e a thread de envio, liberada
+ */
+@ConfigurationProperties("mensagem.stream")
+public record StreamProperties(
+        @DefaultValue("1000") int historico,
+        @DefaultValue("256") int buffer,
+        @DefaultValue("4") int threads,
+        @DefaultValue("30m") Duration timeout,
+        @DefaultValue("10s") Duration envioTimeout) {
+}
@@ -0,0 +1,7 @@
+package br.com.arlei.exception;
+
+public class ChaveIdempotenciaReutilizadaException extends RuntimeException {
+    public ChaveIdempotenciaReutilizadaException(String mensagem) {
+        super(mensagem);
+    }
+}
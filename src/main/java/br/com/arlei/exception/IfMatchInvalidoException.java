@@ -0,0 +1,7 @@
+package br.com.arlei.exception;
+
+public class IfMatchInvalidoException extends RuntimeException {
+    public IfMatchInvalidoException(String mensagem) {
+        super(mensagem);
+    }
+}
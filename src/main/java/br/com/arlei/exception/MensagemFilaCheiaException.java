@@ -0,0 +1,7 @@
+package br.com.arlei.exception;
+
+public class MensagemFilaCheiaException extends RuntimeException {
+    public MensagemFilaCheiaException(String mensagem) {
+        super(mensagem);
+    }
+}
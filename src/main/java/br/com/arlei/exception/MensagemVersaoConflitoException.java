@@ -0,0 +1,7 @@
+package br.com.arlei.exception;
+
+public class MensagemVersaoConflitoException extends RuntimeException {
+    public MensagemVersaoConflitoException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.arlei.id;
+
+import java.util.UUID;
+
+/**
+ * Gera o id das novas mensagens. A estratégia é escolhida pela propriedade
+ * {@code mensagem.id.estrategia}.
+ */
+public interface IdGerador {
+
+    UUID gerar();
+}
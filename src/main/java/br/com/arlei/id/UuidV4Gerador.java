@@ -0,0 +1,14 @@
+package br.com.arlei.id;
+
+import java.util.UUID;
+
+/**
+ * UUID aleatório (versão 4): as inserções se espalham por todo o índice da chave primária.
+ */
+public class UuidV4Gerador implements IdGerador {
+
+    @Override
+    public UUID gerar() {
+        return UUID.randomUUID();
+    }
+}
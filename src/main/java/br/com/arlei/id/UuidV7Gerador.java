@@ -0,0 +1,55 @@
+package br.com.arlei.id;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUID ordenado pelo tempo (versão 7, RFC 9562): 48 bits de milissegundos,
+ * 12 bits de contador e 62 bits aleatórios. Ids novos entram sempre no fim
+ * do índice da chave primária.
+ *
+ * <p>Milissegundo e contador ficam em um único AtomicLong atualizado por CAS,
+ * o que torna os ids estritamente crescentes entre threads sem bloqueio. Se o
+ * contador estoura no mesmo milissegundo, ou o relógio volta, o estado avança
+ * além do relógio até que ele o alcance.
+ */
+public class UuidV7Gerador implements IdGerador {
+
+    private static final int BITS_CONTADOR = 12;
+
+    private static final long VERSAO = 0x7000L;
+
+    private static final long VARIANTE = 0x8000_0000_0000_0000L;
+
+    private final Clock relogio;
+
+    // (milissegundos << 12) | contador do último id gerado
+    private final AtomicLong ultimo = new AtomicLong();
+
+    public UuidV7Gerador() {
+        this(Clock.systemUTC());
+    }
+
+    public UuidV7Gerador(Clock relogio) {
+        this.relogio = relogio;
+    }
+
+    @Override
+    public UUID gerar() {
+        long atual;
+        long proximo;
+        do {
+            atual = ultimo.get();
+            var agora = relogio.millis() << BITS_CONTADOR;
+            proximo = agora > atual ? agora : atual + 1;
+        } while (!ultimo.compareAndSet(atual, proximo));
+
+        var milissegundos = proximo >>> BITS_CONTADOR;
+        var contador = proximo & ((1L << BITS_CONTADOR) - 1);
+        var maisSignificativos = (milissegundos << 16) | VERSAO | contador;
+        var menosSignificativos = (ThreadLocalRandom.current().nextLong() >>> 2) | VARIANTE;
+        return new UUID(maisSignificativos, menosSignificativos);
+    }
+}
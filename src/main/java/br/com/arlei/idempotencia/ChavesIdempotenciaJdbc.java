@@ -0,0 +1,83 @@
+package br.com.arlei.idempotencia;
+
+import br.com.arlei.model.Mensagem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Chaves de idempotência na tabela {@value #TABELA}, para que a deduplicação
+ * valha entre instâncias. A chave primária é o par (cliente, chave), e cada
+ * linha guarda o resumo do pedido que a gravou. Chaves vencidas são
+ * ignoradas na leitura e removidas a cada
+ * {@code mensagem.idempotencia.intervalo-limpeza} ms.
+ */
+@RequiredArgsConstructor
+public class ChavesIdempotenciaJdbc {
+
+    static final String TABELA = "mensagem_idempotencia";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final IdempotenciaProperties properties;
+
+    private final Clock clock;
+
+    public void criarTabela() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABELA
+                + " (cliente VARCHAR(512) NOT NULL, chave VARCHAR(255) NOT NULL, resumo CHAR(64) NOT NULL,"
+                + " mensagem_id UUID NOT NULL, data_criacao TIMESTAMP(6) NOT NULL, PRIMARY KEY (cliente, chave))");
+    }
+
+    public Optional<ChaveRegistrada> buscar(String cliente, String chave) {
+        return jdbcTemplate.query("SELECT mensagem_id, resumo FROM " + TABELA
+                                + " WHERE cliente = ? AND chave = ? AND data_criacao >= ?",
+                        (rs, linha) -> new ChaveRegistrada(rs.getObject("mensagem_id", UUID.class),
+                                rs.getString("resumo")),
+                        cliente, chave, vencimento())
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Grava a mensagem e a chave na mesma transação. Lança
+     * {@link org.springframework.dao.DuplicateKeyException} se a chave já
+     * estiver gravada; nesse caso nada é gravado e o evento de registro
+     * publicado pelo {@code registro} é descartado junto com a transação.
+     */
+    public Mensagem registrar(String cliente, String chave, String resumo, Supplier<Mensagem> registro) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM " + TABELA + " WHERE cliente = ? AND chave = ? AND data_criacao < ?",
+                    cliente, chave, vencimento());
+            var mensagem = registro.get();
+            jdbcTemplate.update("INSERT INTO " + TABELA
+                            + " (cliente, chave, resumo, mensagem_id, data_criacao) VALUES (?, ?, ?, ?, ?)",
+                    cliente, chave, resumo, mensagem.getId(), LocalDateTime.now(clock));
+            return mensagem;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${mensagem.idempotencia.intervalo-limpeza:60000}")
+    public void removerVencidas() {
+        jdbcTemplate.update("DELETE FROM " + TABELA + " WHERE data_criacao < ?", vencimento());
+    }
+
+    private LocalDateTime vencimento() {
+        return LocalDateTime.now(clock).minus(properties.ttl());
+    }
+
+    /**
+     * @param resumo resumo do pedido que gravou a mensagem
+     */
+    public record ChaveRegistrada(UUID mensagemId, String resumo) {
+    }
+}
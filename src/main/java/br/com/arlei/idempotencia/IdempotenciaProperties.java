@@ -0,0 +1,19 @@
+package br.com.arlei.idempotencia;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param capacidade chaves guardadas em memória (as menos usadas saem primeiro)
+ * @param ttl        por quanto tempo uma repetição com a mesma chave devolve a mensagem original
+ * @param banco      guarda também as chaves na tabela {@value ChavesIdempotenciaJdbc#TABELA},
+ *                   compartilhada entre as instâncias da aplicação
+ */
+@ConfigurationProperties("mensagem.idempotencia")
+public record IdempotenciaProperties(
+        @DefaultValue("100000") long capacidade,
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("false") boolean banco) {
+}
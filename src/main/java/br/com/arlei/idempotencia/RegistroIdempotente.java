@@ -0,0 +1,142 @@
+package br.com.arlei.idempotencia;
+
+import br.com.arlei.exception.ChaveIdempotenciaReutilizadaException;
+import br.com.arlei.model.Mensagem;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Registro de mensagens com {@code Idempotency-Key}: cada chave de cada
+ * cliente grava no máximo uma mensagem dentro do {@code ttl}. Clientes
+ * diferentes podem usar a mesma chave sem ver a mensagem um do outro.
+ *
+ * <p>Junto da chave fica o resumo (SHA-256) do pedido: usuário, conteúdo e
+ * "gostei", os campos que a gravação aproveita. Repetir a chave com outro
+ * pedido é erro do cliente ({@link ChaveIdempotenciaReutilizadaException}),
+ * e não uma repetição que devolve a mensagem original.
+ *
+ * <p>Em memória, a chave aponta para o resultado do primeiro registro,
+ * inclusive enquanto ele ainda está em andamento: requisições concorrentes
+ * com a mesma chave esperam essa gravação em vez de fazer a sua. Se o
+ * registro falhar, a chave é liberada e o erro chega a todas as que
+ * esperavam.
+ *
+ * <p>Com {@link ChavesIdempotenciaJdbc}, a chave é gravada na mesma
+ * transação da mensagem; entre instâncias diferentes, a chave primária da
+ * tabela decide qual registro vale e os demais devolvem a mensagem dele.
+ */
+public class RegistroIdempotente {
+
+    private final Cache<Chave, Registro> resultados;
+
+    private final Optional<ChavesIdempotenciaJdbc> chavesBanco;
+
+    public RegistroIdempotente(IdempotenciaProperties properties, Optional<ChavesIdempotenciaJdbc> chavesBanco) {
+        this.resultados = Caffeine.newBuilder()
+                .maximumSize(properties.capacidade())
+                .expireAfterWrite(properties.ttl())
+                .build();
+        this.chavesBanco = chavesBanco;
+    }
+
+    /**
+     * @param cliente  identidade de quem envia a chave
+     * @param pedido   mensagem recebida, antes de {@code registro} alterá-la
+     * @param registro grava a mensagem; chamado no máximo uma vez por chave
+     * @param busca    carrega a mensagem registrada por outra instância
+     * @throws ChaveIdempotenciaReutilizadaException se a chave já foi usada com outro pedido
+     */
+    public Mensagem registrar(String cliente, String chave, Mensagem pedido,
+                              Supplier<Mensagem> registro, Function<UUID, Mensagem> busca) {
+        var resumo = resumo(pedido);
+        var novo = new Registro(resumo, new CompletableFuture<>());
+        var existente = resultados.asMap().putIfAbsent(new Chave(cliente, chave), novo);
+        if (existente != null) {
+            conferir(existente.resumo(), resumo);
+            return aguardar(existente.resultado());
+        }
+        try {
+            var mensagem = chavesBanco
+                    .map(chaves -> registrarNoBanco(chaves, cliente, chave, resumo, registro, busca))
+                    .orElseGet(registro);
+            novo.resultado().complete(mensagem);
+            return mensagem;
+        } catch (RuntimeException e) {
+            resultados.asMap().remove(new Chave(cliente, chave), novo);
+            novo.resultado().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Mensagem registrarNoBanco(ChavesIdempotenciaJdbc chaves, String cliente, String chave,
+                                             String resumo, Supplier<Mensagem> registro,
+                                             Function<UUID, Mensagem> busca) {
+        var registrada = chaves.buscar(cliente, chave);
+        if (registrada.isPresent()) {
+            return devolver(registrada.get(), resumo, busca);
+        }
+        try {
+            return chaves.registrar(cliente, chave, resumo, registro);
+        } catch (DuplicateKeyException e) {
+            // outra instância gravou a mesma chave ao mesmo tempo; a transação desta foi desfeita
+            return devolver(chaves.buscar(cliente, chave).orElseThrow(() -> e), resumo, busca);
+        }
+    }
+
+    private static Mensagem devolver(ChavesIdempotenciaJdbc.ChaveRegistrada registrada, String resumo,
+                                     Function<UUID, Mensagem> busca) {
+        conferir(registrada.resumo(), resumo);
+        return busca.apply(registrada.mensagemId());
+    }
+
+    private static void conferir(String registrado, String recebido) {
+        if (!registrado.equals(recebido)) {
+            throw new ChaveIdempotenciaReutilizadaException("Idempotency-Key já usada com outra mensagem");
+        }
+    }
+
+    static String resumo(Mensagem pedido) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            // com o tamanho na frente, ("ab", "c") e ("a", "bc") não dão o mesmo resumo
+            for (var campo : new String[]{pedido.getUsuario(), pedido.getConteudo(),
+                    Integer.toString(pedido.getGostei())}) {
+                var valor = campo == null ? "-" : campo.length() + ":" + campo;
+                digest.update(valor.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Mensagem aguardar(CompletableFuture<Mensagem> emAndamento) {
+        try {
+            return emAndamento.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private record Chave(String cliente, String chave) {
+    }
+
+    private record Registro(String resumo, CompletableFuture<Mensagem> resultado) {
+    }
+}
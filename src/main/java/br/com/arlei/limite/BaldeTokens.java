@@ -0,0 +1,60 @@
+package br.com.arlei.limite;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de tokens sem lock, no formato GCRA: em vez de tokens e instante da
+ * última reposição, guarda um único {@code long} com o instante em que o
+ * balde estará cheio de novo. Consumir é avançar esse instante de um
+ * intervalo por {@code compareAndSet}; a requisição é recusada se ele ficar
+ * mais de uma rajada à frente do relógio.
+ */
+public class BaldeTokens {
+
+    private final long intervalo;
+
+    private final long rajada;
+
+    private final AtomicLong cheioEm;
+
+    public BaldeTokens(LimiteProperties.Taxa taxa, long agora) {
+        this.intervalo = (long) (1_000_000_000L / taxa.porSegundo());
+        this.rajada = intervalo * taxa.rajada();
+        this.cheioEm = new AtomicLong(agora);
+    }
+
+    /**
+     * Consulta o balde sem consumir.
+     *
+     * @return zero se há token, ou os nanossegundos até haver um
+     */
+    public long espera(long agora) {
+        return Math.max(0, Math.max(cheioEm.get(), agora) + intervalo - agora - rajada);
+    }
+
+    /**
+     * Consome um token.
+     *
+     * @return zero se havia token, ou os nanossegundos até haver um
+     */
+    public long consumir(long agora) {
+        while (true) {
+            var atual = cheioEm.get();
+            var proximo = Math.max(atual, agora) + intervalo;
+            var excesso = proximo - agora - rajada;
+            if (excesso > 0) {
+                return excesso;
+            }
+            if (cheioEm.compareAndSet(atual, proximo)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Devolve o token de um {@link #consumir(long)} que não foi usado.
+     */
+    public void devolver() {
+        cheioEm.addAndGet(-intervalo);
+    }
+}
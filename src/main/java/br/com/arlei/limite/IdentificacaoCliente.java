@@ -0,0 +1,27 @@
+package br.com.arlei.limite;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Identidade do cliente de uma requisição: o endereço remoto, subdividido
+ * pelo cabeçalho {@code mensagem.limite.cabecalho}. É a mesma chave dos
+ * baldes de {@link LimitadorTaxa} e a que separa as chaves de idempotência
+ * de clientes diferentes. Atrás de um proxy, o endereço só é o do cliente
+ * com {@code server.forward-headers-strategy} configurado.
+ */
+public class IdentificacaoCliente {
+
+    private final String cabecalho;
+
+    public IdentificacaoCliente(String cabecalho) {
+        this.cabecalho = cabecalho;
+    }
+
+    public String identificar(HttpServletRequest request) {
+        return chave(request.getRemoteAddr(), request.getHeader(cabecalho));
+    }
+
+    static String chave(String endereco, String cliente) {
+        return endereco + '|' + (cliente == null ? "" : cliente);
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.arlei.limite;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Baldes de tokens por cliente, separados para leitura e escrita: um produtor
+ * que esgota o seu balde de escrita continua lendo, e não tira capacidade
+ * de ninguém. Os baldes ficam em mapas do Caffeine, que não travam a leitura
+ * de baldes existentes.
+ *
+ * <p>O cliente é o endereço remoto, subdividido pelo cabeçalho informado por
+ * ele. Cada requisição consome do balde do par (endereço, cliente) e do
+ * balde do endereço, que vale {@code clientesPorEndereco} clientes: trocar o
+ * cabeçalho a cada requisição não dá mais taxa que isso, e os baldes novos
+ * que essa troca cria ficam limitados pelo mesmo endereço. Os dois baldes
+ * são consultados antes de qualquer consumo: uma requisição recusada por um
+ * deles não gasta o token do outro.
+ *
+ * <p>O endereço é o de {@code getRemoteAddr()}: atrás de um proxy, só é o
+ * do cliente com {@code server.forward-headers-strategy} e o proxy entre os
+ * confiáveis ({@code server.tomcat.remoteip.internal-proxies}).
+ */
+public class LimitadorTaxa {
+
+    private final LimiteProperties properties;
+
+    private final LongSupplier relogio;
+
+    private final Cache<String, BaldeTokens> leitura;
+
+    private final Cache<String, BaldeTokens> escrita;
+
+    public LimitadorTaxa(LimiteProperties properties, LongSupplier relogio) {
+        this.properties = properties;
+        this.relogio = relogio;
+        this.leitura = baldes(properties);
+        this.escrita = baldes(properties);
+    }
+
+    private static Cache<String, BaldeTokens> baldes(LimiteProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.clientes())
+                .expireAfterAccess(properties.inatividade())
+                .build();
+    }
+
+    /**
+     * @param cliente valor do cabeçalho de cliente, ou {@code null}
+     * @return zero se a requisição pode seguir, ou os nanossegundos até o
+     * cliente ter um token de novo
+     */
+    public long consumir(String endereco, String cliente, boolean escrever) {
+        var agora = relogio.getAsLong();
+        var taxa = escrever ? properties.escrita() : properties.leitura();
+        var baldes = escrever ? escrita : leitura;
+        var chave = IdentificacaoCliente.chave(endereco, cliente);
+        var doCliente = baldes.get(chave, k -> new BaldeTokens(taxa, agora));
+        var taxaEndereco = taxa.vezes(properties.clientesPorEndereco());
+        var doEndereco = baldes.get(endereco, k -> new BaldeTokens(taxaEndereco, agora));
+        var espera = Math.max(doCliente.espera(agora), doEndereco.espera(agora));
+        if (espera > 0) {
+            return espera;
+        }
+        espera = doCliente.consumir(agora);
+        if (espera > 0) {
+            return espera;
+        }
+        espera = doEndereco.consumir(agora);
+        if (espera > 0) {
+            // outra requisição do endereço levou o último token entre a consulta e o consumo
+            doCliente.devolver();
+        }
+        return espera;
+    }
+}
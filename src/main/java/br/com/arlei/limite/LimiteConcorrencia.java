@@ -0,0 +1,78 @@
+package br.com.arlei.limite;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de requisições simultâneas ajustado pela latência (algoritmo de
+ * gradiente). A latência de referência é uma média lenta das latências
+ * observadas; cada requisição concluída compara a sua latência com ela:
+ * <pre>
+ * gradiente = clamp(tolerancia * referencia / latencia, 0.5, 1)
+ * estimado  = limite * gradiente + sqrt(limite)
+ * limite    = limite * (1 - suavizacao) + estimado * suavizacao
+ * </pre>
+ * Enquanto a latência fica dentro da tolerância o limite cresce devagar
+ * (a parcela {@code sqrt(limite)} é a fila aceita); quando o serviço
+ * começa a enfileirar e a latência sobe, o limite cai e o excesso é
+ * recusado antes de chegar ao banco. Com menos da metade do limite em uso a
+ * latência não diz nada sobre a capacidade e o limite não muda.
+ */
+public class LimiteConcorrencia {
+
+    // peso de cada amostra na latência de referência: acompanha mudanças lentas, não picos
+    private static final double PESO_REFERENCIA = 0.01;
+
+    private final LimiteProperties.Concorrencia properties;
+
+    private final AtomicInteger emAndamento = new AtomicInteger();
+
+    private volatile double limite;
+
+    private double referencia;
+
+    public LimiteConcorrencia(LimiteProperties.Concorrencia properties) {
+        this.properties = properties;
+        this.limite = properties.inicial();
+    }
+
+    /**
+     * Reserva uma vaga. Quem recebe {@code true} deve chamar
+     * {@link #liberar(long)} ao terminar.
+     */
+    public boolean adquirir() {
+        if (emAndamento.incrementAndGet() > (int) limite) {
+            emAndamento.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void liberar(long latenciaNanos) {
+        var emUso = emAndamento.getAndDecrement();
+        ajustar(latenciaNanos, emUso);
+    }
+
+    private synchronized void ajustar(long latenciaNanos, int emUso) {
+        if (latenciaNanos <= 0) {
+            return;
+        }
+        referencia = referencia == 0
+                ? latenciaNanos
+                : referencia * (1 - PESO_REFERENCIA) + latenciaNanos * PESO_REFERENCIA;
+        if (emUso < limite / 2) {
+            return;
+        }
+        var gradiente = Math.max(0.5, Math.min(1.0, properties.tolerancia() * referencia / latenciaNanos));
+        var estimado = limite * gradiente + Math.sqrt(limite);
+        var suavizado = limite * (1 - properties.suavizacao()) + estimado * properties.suavizacao();
+        limite = Math.max(properties.minimo(), Math.min(properties.maximo(), suavizado));
+    }
+
+    public int limite() {
+        return (int) limite;
+    }
+
+    public int emAndamento() {
+        return emAndamento.get();
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.arlei.limite;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param habilitado        aplica os limites aos endpoints de {@code /mensagens}
+ * @param cabecalho         cabeçalho que separa os clientes de um mesmo endereço remoto (NAT, proxy);
+ *                          não identifica o cliente sozinho, porque quem o envia escolhe o valor
+ * @param clientesPorEndereco clientes a plena taxa por endereço remoto: o balde do endereço tem
+ *                          essa vez a taxa e a rajada de um cliente, seja qual for o cabeçalho
+ * @param clientes          clientes com balde em memória; acima disso, os menos ativos perdem o balde
+ * @param inatividade       tempo sem requisições até o balde do cliente ser descartado
+ * @param leituraPorSegundo GET e HEAD repostos por segundo no balde de cada cliente
+ * @param leituraRajada     capacidade do balde de leitura: requisições seguidas aceitas com ele cheio
+ * @param escritaPorSegundo demais métodos repostos por segundo no balde de cada cliente
+ * @param escritaRajada     capacidade do balde de escrita
+ * @param concorrencia      limite adaptativo de requisições simultâneas, somando todos os clientes;
+ *                          leituras e escritas têm limites separados com a mesma configuração
+ */
+@ConfigurationProperties("mensagem.limite")
+public record LimiteProperties(
+        @DefaultValue("false") boolean habilitado,
+        @DefaultValue("X-Cliente-Id") String cabecalho,
+        @DefaultValue("10") int clientesPorEndereco,
+        @DefaultValue("100000") long clientes,
+        @DefaultValue("10m") Duration inatividade,
+        @DefaultValue("100") double leituraPorSegundo,
+        @DefaultValue("200") int leituraRajada,
+        @DefaultValue("10") double escritaPorSegundo,
+        @DefaultValue("20") int escritaRajada,
+        @DefaultValue Concorrencia concorrencia) {
+
+    public Taxa leitura() {
+        return new Taxa(leituraPorSegundo, leituraRajada);
+    }
+
+    public Taxa escrita() {
+        return new Taxa(escritaPorSegundo, escritaRajada);
+    }
+
+    public record Taxa(double porSegundo, int rajada) {
+
+        Taxa vezes(int clientes) {
+            return new Taxa(porSegundo * clientes, rajada * clientes);
+        }
+    }
+
+    /**
+     * @param habilitado  responde 503 quando as requisições em andamento passam do limite
+     * @param inicial     limite na subida da aplicação
+     * @param minimo      menor limite possível
+     * @param maximo      maior limite possível
+     * @param tolerancia  quanto a latência pode crescer sobre a de referência antes de o limite cair
+     * @param suavizacao  peso de cada nova estimativa sobre o limite atual (0 a 1)
+     */
+    public record Concorrencia(
+            @DefaultValue("true") boolean habilitado,
+            @DefaultValue("100") int inicial,
+            @DefaultValue("10") int minimo,
+            @DefaultValue("1000") int maximo,
+            @DefaultValue("2.0") double tolerancia,
+            @DefaultValue("0.2") double suavizacao) {
+    }
+}
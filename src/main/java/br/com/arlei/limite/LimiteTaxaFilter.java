@@ -0,0 +1,117 @@
+package br.com.arlei.limite;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controle de admissão dos endpoints de mensagem, antes de qualquer trabalho:
+ * <ul>
+ *   <li>taxa por endereço remoto e cliente ({@link LimitadorTaxa}): acima
+ *   dela, 429 com {@code Retry-After} em segundos até o próximo token;</li>
+ *   <li>concorrência ({@link LimiteConcorrencia}), com limites separados
+ *   para leitura e escrita: uma enxurrada de escritas lentas derruba o
+ *   limite de escrita sem recusar leituras. Acima do limite adaptativo,
+ *   503 com {@code Retry-After: 1}.</li>
+ * </ul>
+ * O stream, a exportação e o lote ficam fora do limite de concorrência: são
+ * longos por natureza e a sua duração não diz nada sobre a latência do
+ * serviço.
+ */
+public class LimiteTaxaFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LONGA_DURACAO = Set.of("/mensagens/stream", "/mensagens/export", "/mensagens/lote");
+
+    private final LimiteProperties properties;
+
+    private final LimitadorTaxa limitadorTaxa;
+
+    private final Optional<LimiteConcorrencia> concorrenciaLeitura;
+
+    private final Optional<LimiteConcorrencia> concorrenciaEscrita;
+
+    private final Counter recusadasPorTaxa;
+
+    private final Counter recusadasPorConcorrencia;
+
+    public LimiteTaxaFilter(LimiteProperties properties, LimitadorTaxa limitadorTaxa,
+                            Optional<LimiteConcorrencia> concorrenciaLeitura,
+                            Optional<LimiteConcorrencia> concorrenciaEscrita,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limitadorTaxa = limitadorTaxa;
+        this.concorrenciaLeitura = concorrenciaLeitura;
+        this.concorrenciaEscrita = concorrenciaEscrita;
+        this.recusadasPorTaxa = meterRegistry.counter("mensagem.limite.recusadas", "motivo", "taxa");
+        this.recusadasPorConcorrencia = meterRegistry.counter("mensagem.limite.recusadas", "motivo", "concorrencia");
+        registrarMetricas(concorrenciaLeitura, "leitura", meterRegistry);
+        registrarMetricas(concorrenciaEscrita, "escrita", meterRegistry);
+    }
+
+    private static void registrarMetricas(Optional<LimiteConcorrencia> concorrencia, String tipo,
+                                          MeterRegistry meterRegistry) {
+        concorrencia.ifPresent(limite -> {
+            Gauge.builder("mensagem.limite.concorrencia", limite, LimiteConcorrencia::limite)
+                    .tag("tipo", tipo)
+                    .register(meterRegistry);
+            Gauge.builder("mensagem.limite.em-andamento", limite, LimiteConcorrencia::emAndamento)
+                    .tag("tipo", tipo)
+                    .register(meterRegistry);
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var leitura = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        var cliente = request.getHeader(properties.cabecalho());
+        var espera = limitadorTaxa.consumir(request.getRemoteAddr(), cliente, !leitura);
+        if (espera > 0) {
+            recusadasPorTaxa.increment();
+            recusar(response, HttpStatus.TOO_MANY_REQUESTS, segundos(espera), "limite de requisições excedido");
+            return;
+        }
+        var concorrencia = leitura ? concorrenciaLeitura : concorrenciaEscrita;
+        if (concorrencia.isEmpty() || LONGA_DURACAO.contains(request.getRequestURI())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        var limite = concorrencia.get();
+        if (!limite.adquirir()) {
+            recusadasPorConcorrencia.increment();
+            recusar(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "serviço sobrecarregado");
+            return;
+        }
+        var inicio = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limite.liberar(System.nanoTime() - inicio);
+        }
+    }
+
+    private static long segundos(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static void recusar(HttpServletResponse response, HttpStatus status, long retryAfter, String mensagem)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(mensagem);
+    }
+}
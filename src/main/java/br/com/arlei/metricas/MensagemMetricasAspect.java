@@ -0,0 +1,133 @@
+package br.com.arlei.metricas;
+
+import br.com.arlei.controller.MensagemController;
+import br.com.arlei.exception.MensagemFilaCheiaException;
+import br.com.arlei.exception.MensagemNotFoundException;
+import br.com.arlei.exception.MensagemVersaoConflitoException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Tempo de cada operação do MensagemService ({@code mensagem.servico}) e de
+ * cada requisição do MensagemController ({@code mensagem.requisicao}), com
+ * histograma de percentis e o resultado como tag.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MensagemMetricasAspect {
+
+    static final String SUCESSO = "sucesso";
+    static final String NAO_ENCONTRADA = "nao_encontrada";
+    static final String ID_INVALIDO = "id_invalido";
+    static final String INVALIDO = "invalido";
+    static final String CONFLITO = "conflito";
+    static final String LIMITADO = "limitado";
+    static final String ERRO = "erro";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* br.com.arlei.service.MensagemService.*(..))")
+    public Object medirServico(ProceedingJoinPoint joinPoint) throws Throwable {
+        var amostra = Timer.start(meterRegistry);
+        var resultado = ERRO;
+        try {
+            var retorno = joinPoint.proceed();
+            resultado = SUCESSO;
+            return retorno;
+        } catch (MensagemNotFoundException e) {
+            resultado = NAO_ENCONTRADA;
+            throw e;
+        } catch (IllegalArgumentException e) {
+            resultado = ID_INVALIDO;
+            throw e;
+        } catch (MensagemVersaoConflitoException e) {
+            resultado = CONFLITO;
+            throw e;
+        } catch (ConstraintViolationException e) {
+            resultado = INVALIDO;
+            throw e;
+        } catch (MensagemFilaCheiaException e) {
+            resultado = LIMITADO;
+            throw e;
+        } finally {
+            amostra.stop(timer("mensagem.servico", joinPoint, resultado));
+        }
+    }
+
+    /**
+     * O controller converte as exceções em status: 404 para
+     * MensagemNotFoundException e 400 para IllegalArgumentException. A
+     * exportação termina só quando o corpo em streaming é escrito, então o
+     * tempo dela é encerrado pelo próprio corpo.
+     */
+    @Around("execution(public * br.com.arlei.controller.MensagemController.*(..))")
+    public Object medirRequisicao(ProceedingJoinPoint joinPoint) throws Throwable {
+        var amostra = Timer.start(meterRegistry);
+        Object retorno;
+        try {
+            retorno = joinPoint.proceed();
+        } catch (Throwable e) {
+            amostra.stop(timer("mensagem.requisicao", joinPoint, ERRO));
+            throw e;
+        }
+        if (retorno instanceof ResponseEntity<?> resposta && resposta.getBody() instanceof StreamingResponseBody corpo) {
+            return new ResponseEntity<>(medirCorpo(corpo, amostra, joinPoint),
+                    resposta.getHeaders(), resposta.getStatusCode());
+        }
+        var resultado = retorno instanceof ResponseEntity<?> resposta ? resultado(resposta) : ERRO;
+        amostra.stop(timer("mensagem.requisicao", joinPoint, resultado));
+        return retorno;
+    }
+
+    private StreamingResponseBody medirCorpo(
+            StreamingResponseBody corpo, Timer.Sample amostra, ProceedingJoinPoint joinPoint) {
+        return saida -> {
+            var resultado = ERRO;
+            try {
+                corpo.writeTo(saida);
+                resultado = SUCESSO;
+            } finally {
+                amostra.stop(timer("mensagem.requisicao", joinPoint, resultado));
+            }
+        };
+    }
+
+    private static String resultado(ResponseEntity<?> resposta) {
+        var status = resposta.getStatusCode();
+        if (status.is2xxSuccessful() || status.isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return SUCESSO;
+        }
+        if (status.isSameCodeAs(HttpStatus.NOT_FOUND)) {
+            return NAO_ENCONTRADA;
+        }
+        if (status.isSameCodeAs(HttpStatus.BAD_REQUEST)
+                && MensagemController.ID_INVALIDO.equals(resposta.getBody())) {
+            return ID_INVALIDO;
+        }
+        if (status.isSameCodeAs(HttpStatus.PRECONDITION_FAILED)) {
+            return CONFLITO;
+        }
+        if (status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+            return LIMITADO;
+        }
+        return status.is4xxClientError() ? INVALIDO : ERRO;
+    }
+
+    private Timer timer(String nome, ProceedingJoinPoint joinPoint, String resultado) {
+        return Timer.builder(nome)
+                .tag("operacao", joinPoint.getSignature().getName())
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -1,23 +1,39 @@
 package br.com.arlei.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.jackson.Jacksonized;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.PartitionKey;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Mensagem.REGIAO_CACHE)
+@Table(indexes = {
+        // Índice da listagem por cursor: ordenação (dataCriacao, id) decrescente
+        @Index(name = "idx_mensagem_data_criacao_id", columnList = "dataCriacao DESC, id DESC"),
+        // Timeline por usuário: GET /usuarios/{usuario}/mensagens
+        @Index(name = "idx_mensagem_usuario_data_criacao", columnList = "usuario, dataCriacao DESC, id DESC")
+})
 @Data
 @Builder(toBuilder = true)
 @NoArgsConstructor
@@ -25,6 +41,8 @@ import java.util.UUID;
 @Jacksonized
 public class Mensagem {
 
+    public static final String REGIAO_CACHE = "mensagem";
+
     @Id
     @GenericGenerator(name = "uuid")
     private UUID id;
@@ -35,7 +53,9 @@ public class Mensagem {
     @NotEmpty(message = "conteúdo não pode estar vazio")
     private String conteudo;
 
+    // Chave de partição no perfil particionado: entra no WHERE dos UPDATE/DELETE da entidade
     @CreationTimestamp
+    @PartitionKey
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSSSS")
     private LocalDateTime dataCriacao;
 
@@ -43,9 +63,17 @@ public class Mensagem {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSSSS")
     private LocalDateTime dataAlteracao;
 
+    // Alterado apenas pelo UPDATE incremental do GosteiAcumulador
     @Builder.Default
+    @Column(updatable = false)
     private int gostei = 0;
 
+    // Controle otimista: alterações com If-Match só são gravadas na versão esperada.
+    // Nulo até a primeira gravação, para que o save() trate a mensagem como nova
+    @Version
+    @ColumnDefault("0")
+    private Long versao;
+
     @PrePersist
     public void prePersist() {
         var timestamp = LocalDateTime.now();
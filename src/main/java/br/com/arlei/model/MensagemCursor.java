@@ -0,0 +1,45 @@
+package br.com.arlei.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posição da listagem por cursor (keyset): a última mensagem entregue,
+ * identificada pelo par (dataCriacao, id) usado na ordenação.
+ * Trafega como texto opaco em Base64 URL.
+ */
+public record MensagemCursor(LocalDateTime dataCriacao, UUID id) {
+
+    private static final String SEPARADOR = "|";
+
+    public static MensagemCursor de(Mensagem mensagem) {
+        return new MensagemCursor(mensagem.getDataCriacao(), mensagem.getId());
+    }
+
+    public String codificar() {
+        var valor = dataCriacao + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException quando o cursor não foi gerado por {@link #codificar()}
+     */
+    public static MensagemCursor decodificar(String cursor) {
+        try {
+            var valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var posicao = valor.indexOf(SEPARADOR);
+            if (posicao < 0) {
+                throw new IllegalArgumentException("cursor inválido");
+            }
+            return new MensagemCursor(
+                    LocalDateTime.parse(valor.substring(0, posicao)),
+                    UUID.fromString(valor.substring(posicao + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("cursor inválido", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.arlei.model;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Resposta da listagem por cursor: apenas as mensagens e o cursor da próxima
+ * página, sem total de elementos (não executa count).
+ */
+public record MensagemPagina(List<Mensagem> mensagens, String proximoCursor) {
+
+    public static MensagemPagina de(Slice<Mensagem> fatia) {
+        var mensagens = fatia.getContent();
+        String proximoCursor = null;
+        if (fatia.hasNext() && !mensagens.isEmpty()) {
+            proximoCursor = MensagemCursor.de(mensagens.get(mensagens.size() - 1)).codificar();
+        }
+        return new MensagemPagina(mensagens, proximoCursor);
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.arlei.model;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado do registro de um item do lote, na mesma posição em que foi enviado.
+ *
+ * <p>{@code ILEGIVEL} e {@code NAO_GRAVADA} interrompem o lote: os itens
+ * anteriores com {@code REGISTRADA} já estão gravados, e os seguintes não
+ * foram lidos.
+ */
+public record ResultadoRegistro(int indice, UUID id, Situacao situacao, List<String> erros) {
+
+    public enum Situacao { REGISTRADA, INVALIDA, ILEGIVEL, NAO_GRAVADA }
+
+    public static ResultadoRegistro registrada(int indice, UUID id) {
+        return new ResultadoRegistro(indice, id, Situacao.REGISTRADA, List.of());
+    }
+
+    public static ResultadoRegistro invalida(int indice, List<String> erros) {
+        return new ResultadoRegistro(indice, null, Situacao.INVALIDA, erros);
+    }
+
+    public static ResultadoRegistro ilegivel(int indice) {
+        return new ResultadoRegistro(indice, null, Situacao.ILEGIVEL, List.of("lote inválido"));
+    }
+
+    public static ResultadoRegistro naoGravada(int indice) {
+        return new ResultadoRegistro(indice, null, Situacao.NAO_GRAVADA, List.of("falha ao gravar o lote"));
+    }
+
+    public boolean interrompeu() {
+        return situacao == Situacao.ILEGIVEL || situacao == Situacao.NAO_GRAVADA;
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.arlei.particao;
+
+/**
+ * Destino das mensagens que passaram do período de retenção.
+ */
+public enum AcaoRetencao {
+
+    /** Apaga as mensagens (no Postgres, {@code DROP TABLE} da partição inteira). */
+    REMOVER,
+
+    /**
+     * Retira as mensagens da tabela {@code mensagem} sem apagá-las (no
+     * Postgres, {@code DETACH PARTITION}: a partição vira uma tabela avulsa).
+     */
+    DESANEXAR
+}
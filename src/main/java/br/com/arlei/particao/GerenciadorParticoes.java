@@ -0,0 +1,23 @@
+package br.com.arlei.particao;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Organização da tabela {@code mensagem} por {@code dataCriacao}. A
+ * implementação é escolhida pela propriedade {@code mensagem.particao.modo}.
+ */
+public interface GerenciadorParticoes {
+
+    /**
+     * Garante as partições de {@code mesAtual} e dos {@code futuras} meses seguintes.
+     */
+    void criarParticoes(YearMonth mesAtual, int futuras);
+
+    /**
+     * Retira da tabela as mensagens criadas antes de {@code limite}.
+     *
+     * @return se alguma mensagem foi retirada
+     */
+    boolean aplicarRetencao(LocalDateTime limite, AcaoRetencao acao);
+}
@@ -0,0 +1,72 @@
+package br.com.arlei.particao;
+
+import br.com.arlei.busca.BuscaMensagem;
+import br.com.arlei.cache.MensagemCache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Cria as partições dos próximos meses e aplica a retenção na subida da
+ * aplicação e diariamente ({@code mensagem.particao.cron}).
+ *
+ * <p>A retenção não passa pelo serviço nem pelo Hibernate: as mensagens
+ * retiradas também saem do cache de leitura, do índice de busca e das regiões
+ * do cache de segundo nível.
+ *
+ * <p>Uma falha (lock da tabela indisponível, partição retirada por outro
+ * processo) só é registrada: a manutenção é refeita na próxima execução e não
+ * pode impedir a aplicação de subir.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ManutencaoParticoes {
+
+    private final GerenciadorParticoes gerenciadorParticoes;
+
+    private final ParticaoProperties properties;
+
+    private final MensagemCache mensagemCache;
+
+    private final BuscaMensagem buscaMensagem;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Clock clock;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        executar();
+    }
+
+    @Scheduled(cron = "${mensagem.particao.cron:0 0 3 * * *}")
+    public void executar() {
+        try {
+            gerenciadorParticoes.criarParticoes(YearMonth.now(clock), properties.futuras());
+        } catch (RuntimeException e) {
+            log.error("falha ao criar partições", e);
+        }
+        if (properties.retencao() == null) {
+            return;
+        }
+        var limite = LocalDate.now(clock).minus(properties.retencao()).atStartOfDay();
+        try {
+            if (gerenciadorParticoes.aplicarRetencao(limite, properties.acao())) {
+                mensagemCache.invalidarAnterioresA(limite);
+                buscaMensagem.removerAnterioresA(limite);
+                entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+                log.info("retenção: mensagens anteriores a {} retiradas ({})", limite, properties.acao());
+            }
+        } catch (RuntimeException e) {
+            log.error("falha ao aplicar a retenção anterior a {}", limite, e);
+        }
+    }
+}
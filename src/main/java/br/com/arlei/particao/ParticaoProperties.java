@@ -0,0 +1,20 @@
+package br.com.arlei.particao;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Period;
+
+/**
+ * @param modo     {@code tabela} (tabela única, H2) ou {@code postgres} (particionamento declarativo por mês)
+ * @param futuras  meses à frente do atual com partição já criada
+ * @param retencao idade a partir da qual as mensagens saem da tabela; sem valor, nada é retirado
+ * @param acao     o que fazer com as mensagens fora da retenção
+ */
+@ConfigurationProperties("mensagem.particao")
+public record ParticaoProperties(
+        @DefaultValue("tabela") String modo,
+        @DefaultValue("3") int futuras,
+        Period retencao,
+        @DefaultValue("remover") AcaoRetencao acao) {
+}
@@ -0,0 +1,112 @@
+package br.com.arlei.particao;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Particionamento declarativo do Postgres por mês de {@code dataCriacao}
+ * (tabela criada por {@code schema-particionado.sql}). Cada mês é a partição
+ * {@code mensagem_pAAAA_MM}; a retenção retira partições inteiras com
+ * {@code DROP TABLE} ou {@code DETACH PARTITION}, sem varrer linhas.
+ *
+ * <p>Uma partição só sai quando o mês inteiro passou do limite: a retenção tem
+ * a granularidade de um mês.
+ *
+ * <p>Cada operação roda em uma transação com {@code pg_try_advisory_xact_lock}:
+ * com várias instâncias, só uma altera as partições por vez e as demais não
+ * fazem nada. {@code lock_timeout} limita a espera pelo lock da tabela
+ * {@code mensagem}, que criar ou retirar uma partição exige; sem ele, o DDL
+ * ficaria na fila atrás das consultas longas e bloquearia as seguintes.
+ *
+ * <p>A chave primária de uma tabela particionada precisa incluir a coluna de
+ * partição, por isso é {@code (id, data_criacao)}. Uma busca só por
+ * {@code id} não tem como descartar partições e consulta o índice de cada
+ * uma: o custo cresce com o número de partições mantidas pela retenção, em
+ * troca de retirar um mês sem varrer linhas.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ParticoesPostgres implements GerenciadorParticoes {
+
+    private static final Pattern NOME_PARTICAO = Pattern.compile("mensagem_p(\\d{4})_(\\d{2})");
+
+    // chave do advisory lock da manutenção de partições
+    static final long CHAVE_LOCK = 0x6d656e7361676e6cL;
+
+    static final String LOCK_TIMEOUT = "5s";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void criarParticoes(YearMonth mesAtual, int futuras) {
+        if (!bloquear()) {
+            return;
+        }
+        for (int i = 0; i <= futuras; i++) {
+            var mes = mesAtual.plusMonths(i);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + nome(mes) + " PARTITION OF mensagem"
+                    + " FOR VALUES FROM ('" + mes.atDay(1) + "') TO ('" + mes.plusMonths(1).atDay(1) + "')");
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean aplicarRetencao(LocalDateTime limite, AcaoRetencao acao) {
+        if (!bloquear()) {
+            return false;
+        }
+        var particoes = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i"
+                        + " JOIN pg_class c ON c.oid = i.inhrelid"
+                        + " JOIN pg_class p ON p.oid = i.inhparent"
+                        + " WHERE p.relname = 'mensagem'",
+                String.class);
+        var retirou = false;
+        for (var particao : particoes) {
+            var mes = mes(particao);
+            // partição padrão e partições que ainda têm mensagens dentro da retenção ficam
+            if (mes.isEmpty() || mes.get().plusMonths(1).atDay(1).atStartOfDay().isAfter(limite)) {
+                continue;
+            }
+            if (acao == AcaoRetencao.DESANEXAR) {
+                jdbcTemplate.execute("ALTER TABLE mensagem DETACH PARTITION " + particao);
+            } else {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + particao);
+            }
+            log.info("partição {} retirada ({})", particao, acao);
+            retirou = true;
+        }
+        return retirou;
+    }
+
+    // o lock é liberado no fim da transação
+    private boolean bloquear() {
+        jdbcTemplate.execute("SET LOCAL lock_timeout = '" + LOCK_TIMEOUT + "'");
+        var obtido = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, CHAVE_LOCK);
+        if (!Boolean.TRUE.equals(obtido)) {
+            log.info("manutenção de partições em andamento em outra instância");
+            return false;
+        }
+        return true;
+    }
+
+    static String nome(YearMonth mes) {
+        return String.format("mensagem_p%04d_%02d", mes.getYear(), mes.getMonthValue());
+    }
+
+    static Optional<YearMonth> mes(String particao) {
+        var nome = NOME_PARTICAO.matcher(particao);
+        if (!nome.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(nome.group(1)), Integer.parseInt(nome.group(2))));
+    }
+}
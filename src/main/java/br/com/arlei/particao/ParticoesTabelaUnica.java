@@ -0,0 +1,39 @@
+package br.com.arlei.particao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Tabela única, sem particionamento (H2 nos testes): não há partições a criar
+ * e a retenção é um único {@code DELETE} pela faixa de {@code dataCriacao},
+ * apoiado no índice {@code idx_mensagem_data_criacao_id}. Em
+ * {@link AcaoRetencao#DESANEXAR} as mensagens são copiadas antes para
+ * {@value #TABELA_ARQUIVO}, no lugar das partições desanexadas do Postgres.
+ */
+@RequiredArgsConstructor
+public class ParticoesTabelaUnica implements GerenciadorParticoes {
+
+    static final String TABELA_ARQUIVO = "mensagem_arquivo";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void criarParticoes(YearMonth mesAtual, int futuras) {
+    }
+
+    @Override
+    @Transactional
+    public boolean aplicarRetencao(LocalDateTime limite, AcaoRetencao acao) {
+        if (acao == AcaoRetencao.DESANEXAR) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABELA_ARQUIVO
+                    + " AS SELECT * FROM mensagem WITH NO DATA");
+            jdbcTemplate.update("INSERT INTO " + TABELA_ARQUIVO
+                    + " SELECT * FROM mensagem WHERE data_criacao < ?", limite);
+        }
+        return jdbcTemplate.update("DELETE FROM mensagem WHERE data_criacao < ?", limite) > 0;
+    }
+}
@@ -1,17 +1,74 @@
 package br.com.arlei.repository;
 
 import br.com.arlei.model.Mensagem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface MensagemRepository extends JpaRepository<Mensagem, UUID> {
+public interface MensagemRepository extends JpaRepository<Mensagem, UUID>, MensagemRepositoryCustom {
+
+   String REGIAO_PAGINAS = "mensagem-paginas";
 
    @Query("SELECT m FROM Mensagem m ORDER BY m.dataCriacao DESC")
    Page<Mensagem> listarMensagens(Pageable pageable);
-}
\ No newline at end of file
+
+   // Mesma consulta pelo cache de consulta do Hibernate (listagem e count);
+   // qualquer escrita na tabela invalida a região
+   @QueryHints(value = {
+           @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+           @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REGIAO_PAGINAS)
+   }, forCounting = true)
+   @Query("SELECT m FROM Mensagem m ORDER BY m.dataCriacao DESC")
+   Page<Mensagem> listarMensagensEmCache(Pageable pageable);
+
+   // Listagem por cursor (keyset): Slice não executa count, busca size + 1 linhas
+   @Query("SELECT m FROM Mensagem m ORDER BY m.dataCriacao DESC, m.id DESC")
+   Slice<Mensagem> listarMensagensRecentes(Pageable pageable);
+
+   @Query("SELECT m FROM Mensagem m"
+           + " WHERE m.dataCriacao <= :dataCriacao"
+           + " AND (m.dataCriacao < :dataCriacao OR m.id < :id)"
+           + " ORDER BY m.dataCriacao DESC, m.id DESC")
+   Slice<Mensagem> listarMensagensAnterioresA(
+           @Param("dataCriacao") LocalDateTime dataCriacao,
+           @Param("id") UUID id,
+           Pageable pageable);
+
+   // Somente leitura aqui: listarMensagensDoUsuario não abre transação, para
+   // que a timeline em cache não ocupe uma conexão
+   @Transactional(readOnly = true)
+   Slice<Mensagem> findByUsuarioOrderByDataCriacaoDescIdDesc(String usuario, Pageable pageable);
+
+   @Transactional(readOnly = true)
+   @Query("SELECT m FROM Mensagem m"
+           + " WHERE m.usuario = :usuario"
+           + " AND m.dataCriacao <= :dataCriacao"
+           + " AND (m.dataCriacao < :dataCriacao OR m.id < :id)"
+           + " ORDER BY m.dataCriacao DESC, m.id DESC")
+   Slice<Mensagem> listarMensagensDoUsuarioAnterioresA(
+           @Param("usuario") String usuario,
+           @Param("dataCriacao") LocalDateTime dataCriacao,
+           @Param("id") UUID id,
+           Pageable pageable);
+
+   // Cursor no servidor: exige transação aberta enquanto o Stream é consumido
+   @QueryHints({
+           @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+           @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+   })
+   @Query("SELECT m FROM Mensagem m")
+   Stream<Mensagem> exportarMensagens();
+}
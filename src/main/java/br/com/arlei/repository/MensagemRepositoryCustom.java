@@ -0,0 +1,46 @@
+package br.com.arlei.repository;
+
+import br.com.arlei.model.Mensagem;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Operações do repositório implementadas diretamente sobre o EntityManager.
+ */
+public interface MensagemRepositoryCustom {
+
+    /**
+     * Insere as mensagens (com id já atribuído) em uma única transação,
+     * usando o batch de JDBC do Hibernate ({@code hibernate.jdbc.batch_size}).
+     */
+    void persistirEmLote(List<Mensagem> mensagens);
+
+    /**
+     * Remove a mensagem do contexto de persistência, liberando a memória
+     * durante a leitura de grandes volumes.
+     */
+    void desanexar(Mensagem mensagem);
+
+    /**
+     * Soma {@code delta} aos "gostei" da mensagem em um único UPDATE.
+     *
+     * @return linhas alteradas (zero se o id não existe)
+     */
+    int incrementarGostei(UUID id, long delta);
+
+    /**
+     * Escrita em um único comando: o número de linhas afetadas indica se o id
+     * existe.
+     */
+    int alterarConteudo(UUID id, String conteudo, LocalDateTime dataAlteracao);
+
+    /**
+     * Como {@link #alterarConteudo}, mas só altera a mensagem que ainda estiver
+     * na versão informada.
+     */
+    int alterarConteudoNaVersao(UUID id, long versao, String conteudo, LocalDateTime dataAlteracao);
+
+    int removerPorId(UUID id);
+}
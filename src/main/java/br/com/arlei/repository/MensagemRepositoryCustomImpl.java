@@ -0,0 +1,108 @@
+package br.com.arlei.repository;
+
+import br.com.arlei.model.Mensagem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * As escritas de uma única mensagem são SQL nativo: um UPDATE/DELETE em JPQL
+ * faz o Hibernate esvaziar a região inteira de {@link Mensagem} no cache de
+ * segundo nível, e a descarga dos "gostei" roda a cada segundo. Aqui só a
+ * entrada da mensagem alterada sai da região, e os resultados de consulta
+ * sobre a tabela (as páginas de {@link MensagemRepository#REGIAO_PAGINAS})
+ * são invalidados como em qualquer escrita do Hibernate.
+ */
+public class MensagemRepositoryCustomImpl implements MensagemRepositoryCustom {
+
+    private static final String[] ESPACOS = {"mensagem"};
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void persistirEmLote(List<Mensagem> mensagens) {
+        // persist em vez de save: com id atribuído o save faria merge (um SELECT por mensagem)
+        mensagens.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    public void desanexar(Mensagem mensagem) {
+        entityManager.detach(mensagem);
+    }
+
+    @Override
+    @Transactional
+    public int incrementarGostei(UUID id, long delta) {
+        return alterar(id, "UPDATE mensagem SET gostei = gostei + :delta WHERE id = :id",
+                query -> query.setParameter("delta", delta));
+    }
+
+    @Override
+    @Transactional
+    public int alterarConteudo(UUID id, String conteudo, LocalDateTime dataAlteracao) {
+        var alteradas = alterar(id, "UPDATE mensagem SET conteudo = :conteudo, data_alteracao = :dataAlteracao,"
+                        + " versao = versao + 1 WHERE id = :id",
+                query -> query.setParameter("conteudo", conteudo).setParameter("dataAlteracao", dataAlteracao));
+        // a releitura na mesma transação não pode vir do contexto de persistência
+        entityManager.clear();
+        return alteradas;
+    }
+
+    @Override
+    @Transactional
+    public int alterarConteudoNaVersao(UUID id, long versao, String conteudo, LocalDateTime dataAlteracao) {
+        var alteradas = alterar(id, "UPDATE mensagem SET conteudo = :conteudo, data_alteracao = :dataAlteracao,"
+                        + " versao = versao + 1 WHERE id = :id AND versao = :versao",
+                query -> query.setParameter("versao", versao)
+                        .setParameter("conteudo", conteudo)
+                        .setParameter("dataAlteracao", dataAlteracao));
+        entityManager.clear();
+        return alteradas;
+    }
+
+    @Override
+    @Transactional
+    public int removerPorId(UUID id) {
+        return alterar(id, "DELETE FROM mensagem WHERE id = :id", query -> { });
+    }
+
+    private int alterar(UUID id, String sql, Consumer<NativeQuery<?>> parametros) {
+        var sessao = entityManager.unwrap(SessionImplementor.class);
+        var fabrica = sessao.getFactory();
+        // mesmo protocolo de uma atualização da entidade: a entrada fica travada até
+        // o fim da transação, e uma leitura concorrente não recoloca a versão antiga
+        var persister = fabrica.getMappingMetamodel().getEntityDescriptor(Mensagem.class);
+        var acesso = persister.getCacheAccessStrategy();
+        var chave = acesso == null ? null
+                : acesso.generateCacheKey(id, persister, fabrica, sessao.getTenantIdentifier());
+        var trava = acesso == null ? null : acesso.lockItem(sessao, chave, null);
+        // resultados de consulta gravados até o fim da transação já nascem vencidos
+        var timestamps = fabrica.getCache().getTimestampsCache();
+        timestamps.preInvalidate(ESPACOS, sessao);
+        sessao.getActionQueue().registerProcess((sucesso, sessaoConcluida) -> {
+            if (acesso != null) {
+                // destravada, a entrada só aceita o que for lido depois deste ponto
+                acesso.unlockItem(sessaoConcluida, chave, trava);
+            }
+            timestamps.invalidate(ESPACOS, sessaoConcluida);
+        });
+
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        // sem espaço sincronizado o Hibernate esvaziaria todas as regiões
+        query.addSynchronizedQuerySpace("");
+        query.setParameter("id", id);
+        parametros.accept(query);
+        return query.executeUpdate();
+    }
+}
@@ -0,0 +1,268 @@
+package br.com.arlei.service;
+
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.repository.MensagemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro assíncrono (write-behind): as requisições enfileiram a mensagem já
+ * com id e uma única thread escritora grava em lotes de
+ * {@code mensagem.lote.tamanho}, uma transação por lote.
+ *
+ * <p>Uma mensagem aceita (202) só é descartada se for inválida
+ * ({@link DataIntegrityViolationException} ou {@link ConstraintViolationException}
+ * ao gravá-la sozinha) e o id dela não estiver no banco; se estiver, o commit
+ * de uma tentativa anterior chegou ao banco e a mensagem conta como gravada.
+ * Qualquer outra falha é tratada como banco indisponível:
+ * o lote é mantido e regravado com espera crescente, e enquanto isso o
+ * escritor não consome a fila, que enche e passa a recusar com 429.
+ *
+ * <p>No encerramento a fila deixa de aceitar mensagens e o escritor grava o que
+ * restou, mesmo se interrompido; o Spring aguarda até
+ * {@code spring.lifecycle.timeout-per-shutdown-phase}. O que não for gravado
+ * nesse prazo (banco ainda indisponível) fica em {@code mensagem.fila.profundidade}
+ * e no log.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "mensagem.assincrono.habilitado", havingValue = "true")
+public class FilaRegistro implements SmartLifecycle {
+
+  // para depois do servidor web (que deixa de aceitar requisições) e antes do DataSource
+  static final int FASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+  private final MensagemRepository mensagemRepository;
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  private final FilaRegistroProperties properties;
+
+  private final int tamanhoLote;
+
+  private final BlockingQueue<Mensagem> fila;
+
+  private final Counter gravadas;
+
+  private final Counter rejeitadas;
+
+  private final Counter perdidas;
+
+  private final Counter retentativas;
+
+  private volatile boolean aceitando;
+
+  private volatile Thread escritor;
+
+  public FilaRegistro(MensagemRepository mensagemRepository,
+                      ApplicationEventPublisher eventPublisher,
+                      FilaRegistroProperties properties,
+                      MensagemLoteProperties loteProperties,
+                      MeterRegistry meterRegistry) {
+    this.mensagemRepository = mensagemRepository;
+    this.eventPublisher = eventPublisher;
+    this.properties = properties;
+    this.tamanhoLote = loteProperties.tamanho();
+    this.fila = new ArrayBlockingQueue<>(properties.capacidade());
+    Gauge.builder("mensagem.fila.profundidade", fila, BlockingQueue::size)
+            .register(meterRegistry);
+    Gauge.builder("mensagem.fila.capacidade", properties, FilaRegistroProperties::capacidade)
+            .register(meterRegistry);
+    this.gravadas = meterRegistry.counter("mensagem.fila.gravadas");
+    this.rejeitadas = meterRegistry.counter("mensagem.fila.rejeitadas");
+    this.perdidas = meterRegistry.counter("mensagem.fila.perdidas");
+    this.retentativas = meterRegistry.counter("mensagem.fila.retentativas");
+  }
+
+  /**
+   * Enfileira sem bloquear; {@code false} com a fila cheia ou em encerramento.
+   */
+  public boolean enfileirar(Mensagem mensagem) {
+    if (aceitando && fila.offer(mensagem)) {
+      return true;
+    }
+    rejeitadas.increment();
+    return false;
+  }
+
+  public int profundidade() {
+    return fila.size();
+  }
+
+  @Override
+  public void start() {
+    aceitando = true;
+    escritor = new Thread(this::escrever, "mensagem-escritor");
+    // com o banco indisponível além do prazo de encerramento, não impede a JVM de terminar
+    escritor.setDaemon(true);
+    escritor.start();
+  }
+
+  @Override
+  public void stop(Runnable callback) {
+    aceitando = false;
+    log.info("encerrando o registro assíncrono com {} mensagens na fila", fila.size());
+    var thread = escritor;
+    new Thread(() -> {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      callback.run();
+    }, "mensagem-escritor-encerramento").start();
+  }
+
+  @Override
+  public void stop() {
+    aceitando = false;
+    try {
+      escritor.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    var thread = escritor;
+    return thread != null && thread.isAlive();
+  }
+
+  @Override
+  public int getPhase() {
+    return FASE;
+  }
+
+  private void escrever() {
+    var lote = new ArrayList<Mensagem>(tamanhoLote);
+    var interrompido = false;
+    while (aceitando || !fila.isEmpty()) {
+      Mensagem primeira;
+      try {
+        primeira = fila.poll(properties.espera().toMillis(), TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        // a interrupção não descarta a fila: as mensagens já foram aceitas pelo cliente
+        interrompido = true;
+        log.warn("escritor interrompido com {} mensagens na fila; continuando a gravação", fila.size());
+        primeira = fila.poll();
+      }
+      if (primeira == null) {
+        continue;
+      }
+      lote.add(primeira);
+      fila.drainTo(lote, tamanhoLote - 1);
+      interrompido |= gravar(lote);
+      lote.clear();
+    }
+    if (interrompido) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Grava o lote até conseguir. Se o lote tiver uma mensagem inválida, grava
+   * uma a uma para descartar só ela.
+   *
+   * @return se a thread foi interrompida durante alguma espera
+   */
+  private boolean gravar(List<Mensagem> lote) {
+    var recuo = new Recuo();
+    while (true) {
+      try {
+        persistir(lote);
+        publicarRegistro(lote);
+        return recuo.interrompido;
+      } catch (RuntimeException e) {
+        if (invalida(e)) {
+          log.warn("lote de {} mensagens com mensagem inválida; gravando individualmente", lote.size(), e);
+          break;
+        }
+        recuo.aguardar(lote.size(), e);
+      }
+    }
+    for (var mensagem : lote) {
+      gravarIndividualmente(mensagem, recuo);
+    }
+    return recuo.interrompido;
+  }
+
+  private void gravarIndividualmente(Mensagem mensagem, Recuo recuo) {
+    while (true) {
+      try {
+        persistir(List.of(mensagem));
+        publicarRegistro(List.of(mensagem));
+        return;
+      } catch (RuntimeException e) {
+        if (!invalida(e)) {
+          recuo.aguardar(1, e);
+          continue;
+        }
+        // o JPA traduz a chave duplicada como DataIntegrityViolationException genérica
+        boolean gravada;
+        try {
+          gravada = mensagemRepository.existsById(mensagem.getId());
+        } catch (RuntimeException falha) {
+          recuo.aguardar(1, falha);
+          continue;
+        }
+        if (gravada) {
+          // o commit de uma tentativa anterior chegou ao banco, mas a resposta não
+          publicarRegistro(List.of(mensagem));
+        } else {
+          perdidas.increment();
+          log.error("mensagem {} inválida descartada", mensagem.getId(), e);
+        }
+        return;
+      }
+    }
+  }
+
+  private void persistir(List<Mensagem> mensagens) {
+    // o persist de uma tentativa desfeita já atribuiu a versão
+    mensagens.forEach(mensagem -> mensagem.setVersao(null));
+    mensagemRepository.persistirEmLote(mensagens);
+  }
+
+  private static boolean invalida(RuntimeException e) {
+    return e instanceof DataIntegrityViolationException || e instanceof ConstraintViolationException;
+  }
+
+  // espera exponencial entre as tentativas de um mesmo lote
+  private class Recuo {
+
+    private long espera = properties.recuoInicial().toMillis();
+
+    private boolean interrompido;
+
+    void aguardar(int mensagens, RuntimeException falha) {
+      retentativas.increment();
+      log.warn("banco indisponível ao gravar {} mensagens; nova tentativa em {} ms", mensagens, espera, falha);
+      try {
+        Thread.sleep(espera);
+      } catch (InterruptedException e) {
+        interrompido = true;
+      }
+      espera = Math.min(espera * 2, properties.recuoMaximo().toMillis());
+    }
+  }
+
+  private void publicarRegistro(List<Mensagem> mensagens) {
+    gravadas.increment(mensagens.size());
+    mensagens.forEach(mensagem -> eventPublisher.publishEvent(MensagemEvento.registrada(mensagem)));
+  }
+}
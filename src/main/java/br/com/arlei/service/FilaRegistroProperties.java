@@ -0,0 +1,23 @@
+package br.com.arlei.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param habilitado aceita {@code Prefer: respond-async} em POST /mensagens
+ * @param capacidade mensagens aguardando gravação; acima disso a API responde 429
+ * @param espera     tempo máximo que o escritor aguarda por novas mensagens
+ *                   antes de verificar se deve encerrar
+ * @param recuoInicial espera antes de tentar de novo um lote que falhou com o banco indisponível
+ * @param recuoMaximo  limite da espera, que dobra a cada falha seguida
+ */
+@ConfigurationProperties("mensagem.assincrono")
+public record FilaRegistroProperties(
+        @DefaultValue("false") boolean habilitado,
+        @DefaultValue("10000") int capacidade,
+        @DefaultValue("100ms") Duration espera,
+        @DefaultValue("100ms") Duration recuoInicial,
+        @DefaultValue("30s") Duration recuoMaximo) {
+}
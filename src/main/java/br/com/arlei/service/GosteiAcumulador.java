@@ -0,0 +1,112 @@
+package br.com.arlei.service;
+
+import br.com.arlei.cache.MensagemCache;
+import br.com.arlei.repository.MensagemRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acumula os "gostei" em memória, em contadores particionados por mensagem
+ * ({@link LongAdder}), e descarrega periodicamente no banco com um único
+ * {@code UPDATE ... SET gostei = gostei + :delta} por mensagem.
+ *
+ * <p>O incremento não bloqueia: busca o contador no mapa e incrementa fora
+ * dele. Um contador ocioso é aposentado pela descarga (marcado e retirado do
+ * mapa) e o que chegar a ele depois é transferido para o contador novo da
+ * mensagem, por quem o encontrar aposentado: a descarga logo após retirá-lo
+ * ou o próprio incremento, que confere a marca depois de incrementar. Como
+ * {@code sumThenReset} zera cada célula atomicamente, cada "gostei" é
+ * transferido uma única vez.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GosteiAcumulador {
+
+  private final MensagemRepository mensagemRepository;
+
+  private final MensagemCache mensagemCache;
+
+  private final Map<UUID, Contador> pendentes = new ConcurrentHashMap<>();
+
+  public void incrementar(UUID id) {
+    adicionar(id, 1);
+  }
+
+  private void adicionar(UUID id, long quantidade) {
+    var restante = quantidade;
+    while (restante != 0) {
+      var contador = pendentes.get(id);
+      if (contador == null) {
+        contador = pendentes.computeIfAbsent(id, chave -> new Contador());
+      }
+      contador.add(restante);
+      if (!contador.aposentado) {
+        return;
+      }
+      // aposentado pela descarga: leva o que ainda não foi transferido para um contador novo
+      pendentes.remove(id, contador);
+      restante = contador.sumThenReset();
+    }
+  }
+
+  /**
+   * Total de "gostei" recebidos e ainda não gravados no banco.
+   */
+  public long pendente(UUID id) {
+    var contador = pendentes.get(id);
+    return contador == null ? 0 : contador.sum();
+  }
+
+  @Scheduled(fixedDelayString = "${mensagem.gostei.intervalo-descarga:1000}")
+  public void descarregar() {
+    pendentes.forEach((id, contador) -> {
+      var delta = contador.sumThenReset();
+      if (delta == 0) {
+        aposentar(id, contador);
+        return;
+      }
+      try {
+        mensagemRepository.incrementarGostei(id, delta);
+        // o delta deixou de ser pendente: a cópia em cache ficaria defasada
+        mensagemCache.invalidar(id);
+      } catch (RuntimeException e) {
+        // Devolve o delta para a próxima descarga
+        adicionar(id, delta);
+        log.warn("falha ao gravar gostei da mensagem {}", id, e);
+      }
+    });
+  }
+
+  /**
+   * Retira um contador ocioso do mapa. Incrementos que o alcançaram antes da
+   * marca são transferidos aqui; os que vierem depois, pelo próprio
+   * incremento.
+   */
+  private void aposentar(UUID id, Contador contador) {
+    contador.aposentado = true;
+    pendentes.remove(id, contador);
+    var restante = contador.sumThenReset();
+    if (restante != 0) {
+      adicionar(id, restante);
+    }
+  }
+
+  @PreDestroy
+  public void encerrar() {
+    descarregar();
+  }
+
+  private static final class Contador extends LongAdder {
+
+    private volatile boolean aposentado;
+  }
+}
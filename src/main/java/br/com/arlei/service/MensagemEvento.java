@@ -0,0 +1,30 @@
+package br.com.arlei.service;
+
+import br.com.arlei.model.Mensagem;
+
+/**
+ * Evento publicado pelo {@link MensagemService} após cada gravação, para os
+ * componentes que mantêm estruturas derivadas das mensagens.
+ *
+ * <p>Os ouvintes usam {@code @TransactionalEventListener(fallbackExecution = true)}:
+ * um evento publicado dentro de uma transação (o registro com chave de
+ * idempotência no banco, por exemplo) só é entregue depois do commit e é
+ * descartado no rollback, para que índice, timeline e stream nunca vejam uma
+ * mensagem que não existe. Fora de transação, a entrega é imediata.
+ */
+public record MensagemEvento(Tipo tipo, Mensagem mensagem) {
+
+    public enum Tipo { REGISTRADA, ALTERADA, REMOVIDA }
+
+    public static MensagemEvento registrada(Mensagem mensagem) {
+        return new MensagemEvento(Tipo.REGISTRADA, mensagem);
+    }
+
+    public static MensagemEvento alterada(Mensagem mensagem) {
+        return new MensagemEvento(Tipo.ALTERADA, mensagem);
+    }
+
+    public static MensagemEvento removida(Mensagem mensagem) {
+        return new MensagemEvento(Tipo.REMOVIDA, mensagem);
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.arlei.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param tamanho mensagens gravadas por transação no registro em lote;
+ *                deve acompanhar {@code hibernate.jdbc.batch_size}
+ */
+@ConfigurationProperties("mensagem.lote")
+public record MensagemLoteProperties(@DefaultValue("500") int tamanho) {
+}
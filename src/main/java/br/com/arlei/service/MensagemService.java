@@ -1,18 +1,34 @@
 package br.com.arlei.service;
 
 import br.com.arlei.model.Mensagem;
+import br.com.arlei.model.MensagemCursor;
+import br.com.arlei.model.ResultadoRegistro;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface MensagemService {
 
     Mensagem registrarMensagem(Mensagem mensagem);
+    Mensagem registrarMensagem(Mensagem mensagem, String cliente, String chaveIdempotencia);
+    Optional<UUID> enfileirarMensagem(Mensagem mensagem);
+    List<ResultadoRegistro> registrarMensagens(Iterator<Mensagem> mensagens);
     Mensagem buscarMensagem(UUID id);
     Mensagem alterarMensagem(UUID id, Mensagem mensagemNova);
+    Mensagem alterarMensagem(UUID id, Mensagem mensagemNova, long versaoEsperada);
     Boolean removerMensagem(UUID id);
     Page<Mensagem> listarMensagens(Pageable page);
+    Slice<Mensagem> listarMensagens(MensagemCursor cursor, int tamanho);
+    Slice<Mensagem> listarMensagensDoUsuario(String usuario, MensagemCursor cursor, int tamanho);
+    void registrarGostei(UUID id);
+    void exportarMensagens(Consumer<Mensagem> destino);
+    List<Mensagem> buscarMensagens(String consulta, int limite);
 
 
 
@@ -1,59 +1,391 @@
 package br.com.arlei.service;
 
+import br.com.arlei.arquivo.ArquivoMensagens;
+import br.com.arlei.busca.BuscaMensagem;
+import br.com.arlei.cache.CargaCompartilhada;
+import br.com.arlei.cache.MensagemCache;
+import br.com.arlei.cache.SegundoNivelProperties;
+import br.com.arlei.cache.TimelineCache;
+import br.com.arlei.exception.MensagemFilaCheiaException;
 import br.com.arlei.exception.MensagemNotFoundException;
+import br.com.arlei.exception.MensagemVersaoConflitoException;
+import br.com.arlei.id.IdGerador;
+import br.com.arlei.idempotencia.RegistroIdempotente;
 import br.com.arlei.model.Mensagem;
+import br.com.arlei.model.MensagemCursor;
+import br.com.arlei.model.ResultadoRegistro;
 import br.com.arlei.repository.MensagemRepository;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * TDD.
 */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class MensagemServiceImpl implements MensagemService {
 
   private final MensagemRepository mensagemRepository;
 
+  private final GosteiAcumulador gosteiAcumulador;
+
+  private final MensagemCache mensagemCache;
+
+  private final Validator validator;
+
+  private final MensagemLoteProperties loteProperties;
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  private final BuscaMensagem buscaMensagem;
+
+  private final TimelineCache timelineCache;
+
+  private final IdGerador idGerador;
+
+  private final SegundoNivelProperties segundoNivelProperties;
+
+  // mensagens já retiradas do banco pelo arquivamento (mensagem.arquivo)
+  private final ArquivoMensagens arquivoMensagens;
+
+  private final RegistroIdempotente registroIdempotente;
+
+  private final CargaCompartilhada cargaCompartilhada;
+
+  // presente apenas com mensagem.assincrono.habilitado=true
+  private final Optional<FilaRegistro> filaRegistro;
+
+  // validada antes do save, como na API reativa: a violação chega ao cliente
+  // como 400, e não embrulhada pela transação
   @Override
   public Mensagem registrarMensagem(Mensagem mensagem) {
-    mensagem.setId(UUID.randomUUID());
-    return mensagemRepository.save(mensagem);
+    validar(mensagem);
+    return gravar(mensagem);
   }
 
+  /**
+   * Registra a mensagem uma única vez por cliente e chave de idempotência:
+   * repetições da mesma chave, inclusive concorrentes, devolvem a mensagem
+   * original. A mesma chave com outra mensagem gera
+   * {@link br.com.arlei.exception.ChaveIdempotenciaReutilizadaException}.
+   */
+  @Override
+  public Mensagem registrarMensagem(Mensagem mensagem, String cliente, String chaveIdempotencia) {
+    validar(mensagem);
+    return registroIdempotente.registrar(cliente, chaveIdempotencia, mensagem,
+            () -> gravar(mensagem), this::buscarMensagemRegistrada);
+  }
+
+  private Mensagem gravar(Mensagem mensagem) {
+    mensagem.setId(idGerador.gerar());
+    mensagem.setVersao(null);
+    var mensagemRegistrada = mensagemRepository.save(mensagem);
+    eventPublisher.publishEvent(MensagemEvento.registrada(mensagemRegistrada));
+    return mensagemRegistrada;
+  }
+
+  private void validar(Mensagem mensagem) {
+    var violacoes = validator.validate(mensagem);
+    if (!violacoes.isEmpty()) {
+      throw new ConstraintViolationException(violacoes);
+    }
+  }
+
+  /**
+   * Valida, atribui o id e enfileira para gravação assíncrona. Vazio quando o
+   * modo assíncrono está desabilitado.
+   */
+  @Override
+  public Optional<UUID> enfileirarMensagem(Mensagem mensagem) {
+    if (filaRegistro.isEmpty()) {
+      return Optional.empty();
+    }
+    // a falha de validação não pode chegar ao escritor, onde desfaria um lote inteiro
+    validar(mensagem);
+    mensagem.setId(idGerador.gerar());
+    mensagem.setVersao(null);
+    if (!filaRegistro.get().enfileirar(mensagem)) {
+      throw new MensagemFilaCheiaException("fila de registro cheia");
+    }
+    return Optional.of(mensagem.getId());
+  }
+
+  // Cada lote é uma transação: um item ilegível ou uma falha de gravação
+  // encerra o processamento, e os resultados informam o que já foi gravado.
+  @Override
+  public List<ResultadoRegistro> registrarMensagens(Iterator<Mensagem> mensagens) {
+    var resultados = new ArrayList<ResultadoRegistro>();
+    var lote = new ArrayList<Mensagem>(loteProperties.tamanho());
+    var indice = 0;
+    while (true) {
+      Mensagem mensagem;
+      try {
+        if (!mensagens.hasNext()) {
+          break;
+        }
+        mensagem = mensagens.next();
+      } catch (RuntimeException e) {
+        // o corpo não pode ser lido a partir daqui; grava o que já foi validado
+        if (persistirEmLote(lote, resultados)) {
+          resultados.add(ResultadoRegistro.ilegivel(indice));
+        }
+        return resultados;
+      }
+      var erros = validator.validate(mensagem).stream()
+              .map(ConstraintViolation::getMessage)
+              .toList();
+      if (erros.isEmpty()) {
+        mensagem.setId(idGerador.gerar());
+        mensagem.setVersao(null);
+        lote.add(mensagem);
+        resultados.add(ResultadoRegistro.registrada(indice, mensagem.getId()));
+      } else {
+        resultados.add(ResultadoRegistro.invalida(indice, erros));
+      }
+      if (lote.size() == loteProperties.tamanho()) {
+        if (!persistirEmLote(lote, resultados)) {
+          return resultados;
+        }
+        lote.clear();
+      }
+      indice++;
+    }
+    persistirEmLote(lote, resultados);
+    return resultados;
+  }
+
+  // Em caso de falha, os itens do lote passam a NAO_GRAVADA
+  private boolean persistirEmLote(List<Mensagem> lote, List<ResultadoRegistro> resultados) {
+    if (lote.isEmpty()) {
+      return true;
+    }
+    try {
+      mensagemRepository.persistirEmLote(lote);
+    } catch (RuntimeException e) {
+      log.warn("falha ao gravar lote de {} mensagens", lote.size(), e);
+      var ids = lote.stream().map(Mensagem::getId).collect(Collectors.toSet());
+      resultados.replaceAll(resultado -> ids.contains(resultado.id())
+              ? ResultadoRegistro.naoGravada(resultado.indice())
+              : resultado);
+      return false;
+    }
+    lote.forEach(mensagem -> eventPublisher.publishEvent(MensagemEvento.registrada(mensagem)));
+    return true;
+  }
+
+  // Sem transação própria: quem espera a carga compartilhada não deve ocupar
+  // uma conexão. O findById abre a sua, somente leitura.
   @Override
   public Mensagem buscarMensagem(UUID id) {
-    return mensagemRepository.findById(id).orElseThrow(()
-            -> new MensagemNotFoundException("Mensagem não encontrada"));
+    var mensagem = cargaCompartilhada.buscar(id, this::carregarMensagem)
+            .orElseThrow(() -> new MensagemNotFoundException("Mensagem não encontrada"));
+    return comGosteiPendente(mensagem);
+  }
+
+  // id de uma chave de idempotência: a mensagem existe, talvez gravada há
+  // instantes por outra instância, então a lista de inexistentes não vale
+  private Mensagem buscarMensagemRegistrada(UUID id) {
+    var mensagem = cargaCompartilhada.buscarExistente(id, this::carregarMensagem)
+            .orElseThrow(() -> new MensagemNotFoundException("Mensagem não encontrada"));
+    return comGosteiPendente(mensagem);
+  }
+
+  private Optional<Mensagem> carregarMensagem(UUID id) {
+    return mensagemCache.buscar(id, carregada -> mensagemRepository.findById(carregada)
+            .or(() -> arquivoMensagens.buscar(carregada)));
   }
 
+  // "gostei" ainda no acumulador; cópia para não alterar a instância do cache
+  private Mensagem comGosteiPendente(Mensagem mensagem) {
+    var gosteiPendente = gosteiAcumulador.pendente(mensagem.getId());
+    if (gosteiPendente == 0) {
+      return mensagem;
+    }
+    return mensagem.toBuilder()
+            .gostei(mensagem.getGostei() + (int) gosteiPendente)
+            .build();
+  }
+
+  // UPDATE e leitura da linha alterada na mesma transação: a linha fica
+  // bloqueada até o commit, e um DELETE concorrente não transforma o PUT em 404
   @Override
+  @Transactional
   public Mensagem alterarMensagem(UUID id, Mensagem mensagemNova) {
-    var mensagem = buscarMensagem(id);
-    if (!mensagem.getId().equals(mensagemNova.getId())) {
+    verificarId(id, mensagemNova);
+    var alteradas = mensagemRepository.alterarConteudo(id, mensagemNova.getConteudo(), LocalDateTime.now());
+    if (alteradas == 0) {
+      throw new MensagemNotFoundException("Mensagem não encontrada");
+    }
+    return concluirAlteracao(id);
+  }
+
+  @Override
+  @Transactional
+  public Mensagem alterarMensagem(UUID id, Mensagem mensagemNova, long versaoEsperada) {
+    verificarId(id, mensagemNova);
+    var alteradas = mensagemRepository.alterarConteudoNaVersao(
+            id, versaoEsperada, mensagemNova.getConteudo(), LocalDateTime.now());
+    if (alteradas == 0) {
+      if (!mensagemRepository.existsById(id)) {
+        throw new MensagemNotFoundException("Mensagem não encontrada");
+      }
+      throw new MensagemVersaoConflitoException("mensagem alterada por outra requisição");
+    }
+    return concluirAlteracao(id);
+  }
+
+  private void verificarId(UUID id, Mensagem mensagemNova) {
+    if (!id.equals(mensagemNova.getId())) {
+      if (!mensagemRepository.existsById(id)) {
+        throw new MensagemNotFoundException("Mensagem não encontrada");
+      }
       throw new MensagemNotFoundException("mensagem não apresenta o ID correto");
     }
-    mensagem.setDataAlteracao(LocalDateTime.now());
-    mensagem.setConteudo(mensagemNova.getConteudo());
-    return mensagemRepository.save(mensagem);
+  }
+
+  private Mensagem concluirAlteracao(UUID id) {
+    var mensagemAlterada = obterMensagem(id);
+    // depois do commit: antes dele, uma leitura concorrente recolocaria a versão antiga no cache
+    aposCommit(() -> mensagemCache.invalidar(id));
+    eventPublisher.publishEvent(MensagemEvento.alterada(mensagemAlterada));
+    return mensagemAlterada;
   }
 
   @Override
   public Boolean removerMensagem(UUID id) {
-    var mensagem = buscarMensagem(id);
-    mensagemRepository.delete(mensagem);
+    if (mensagemRepository.removerPorId(id) == 0) {
+      throw new MensagemNotFoundException("Mensagem não encontrada");
+    }
+    mensagemCache.invalidar(id);
+    // o DELETE não devolve a linha: o evento leva apenas o id
+    eventPublisher.publishEvent(MensagemEvento.removida(Mensagem.builder().id(id).build()));
 
     return true;
   }
 
   @Override
+  @Transactional(readOnly = true)
   public Page<Mensagem> listarMensagens(Pageable page) {
+    if (page.isPaged() && page.getPageNumber() < segundoNivelProperties.paginas()) {
+      return mensagemRepository.listarMensagensEmCache(page);
+    }
     return mensagemRepository.listarMensagens(page);
   }
-}
 
+  @Override
+  @Transactional(readOnly = true)
+  public Slice<Mensagem> listarMensagens(MensagemCursor cursor, int tamanho) {
+    var pagina = PageRequest.of(0, tamanho);
+    if (cursor == null) {
+      return mensagemRepository.listarMensagensRecentes(pagina);
+    }
+    return mensagemRepository.listarMensagensAnterioresA(cursor.dataCriacao(), cursor.id(), pagina);
+  }
+
+  // Sem transação própria: a timeline em cache é servida sem conexão com o
+  // banco. As consultas do repositório abrem a sua, somente leitura.
+  @Override
+  public Slice<Mensagem> listarMensagensDoUsuario(String usuario, MensagemCursor cursor, int tamanho) {
+    var pagina = PageRequest.of(0, tamanho);
+    if (cursor != null) {
+      return mensagemRepository.listarMensagensDoUsuarioAnterioresA(
+              usuario, cursor.dataCriacao(), cursor.id(), pagina);
+    }
+    if (tamanho > timelineCache.capacidade()) {
+      return mensagemRepository.findByUsuarioOrderByDataCriacaoDescIdDesc(usuario, pagina);
+    }
+    // Primeira página: ids da timeline em cache e mensagens do MensagemCache
+    var timeline = timelineCache.obter(usuario, this::carregarTimeline);
+    var posicoes = timeline.primeiras(tamanho);
+    var ids = posicoes.stream().map(MensagemCursor::id).toList();
+    var mensagens = mensagemCache.buscarTodos(ids, mensagemRepository::findAllById).stream()
+            .map(this::comGosteiPendente)
+            .toList();
+    if (mensagens.size() < posicoes.size()) {
+      // alguma mensagem foi removida desde o carregamento da timeline
+      timelineCache.invalidar(usuario);
+      return mensagemRepository.findByUsuarioOrderByDataCriacaoDescIdDesc(usuario, pagina);
+    }
+    return new SliceImpl<>(mensagens, pagina, timeline.haMaisQue(tamanho));
+  }
+
+  private TimelineCache.Timeline carregarTimeline(String usuario) {
+    var recentes = mensagemRepository.findByUsuarioOrderByDataCriacaoDescIdDesc(
+            usuario, PageRequest.of(0, timelineCache.capacidade()));
+    recentes.forEach(mensagem -> mensagemCache.buscar(mensagem.getId(), id -> Optional.of(mensagem)));
+    return timelineCache.criar(recentes.map(MensagemCursor::de).getContent(), recentes.hasNext());
+  }
+
+  @Override
+  public void registrarGostei(UUID id) {
+    gosteiAcumulador.incrementar(id);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public void exportarMensagens(Consumer<Mensagem> destino) {
+    try (var mensagens = mensagemRepository.exportarMensagens()) {
+      mensagens.forEach(mensagem -> {
+        destino.accept(mensagem);
+        mensagemRepository.desanexar(mensagem);
+      });
+    }
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<Mensagem> buscarMensagens(String consulta, int limite) {
+    var ids = buscaMensagem.buscar(consulta, limite);
+    Map<UUID, Mensagem> mensagens = mensagemRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Mensagem::getId, Function.identity()));
+    // mantém a ordem de relevância da busca
+    return ids.stream()
+            .map(mensagens::get)
+            .filter(Objects::nonNull)
+            .toList();
+  }
+
+  private static void aposCommit(Runnable acao) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      acao.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        acao.run();
+      }
+    });
+  }
+
+  private Mensagem obterMensagem(UUID id) {
+    return mensagemRepository.findById(id).orElseThrow(()
+            -> new MensagemNotFoundException("Mensagem não encontrada"));
+  }
+}
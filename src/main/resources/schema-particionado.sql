@@ -0,0 +1,18 @@
+-- Tabela mensagem particionada por mês de data_criacao. As partições mensais
+-- (mensagem_pAAAA_MM) são criadas por ManutencaoParticoes; a partição padrão só
+-- recebe mensagens fora delas e deve ficar vazia.
+-- A chave primária inclui data_criacao, exigência do particionamento: uma busca
+-- só por id consulta o índice de todas as partições (ver ParticoesPostgres).
+CREATE TABLE IF NOT EXISTS mensagem (
+    id UUID NOT NULL,
+    usuario VARCHAR(255),
+    conteudo VARCHAR(255),
+    data_criacao TIMESTAMP(6) NOT NULL,
+    data_alteracao TIMESTAMP(6),
+    gostei INTEGER NOT NULL DEFAULT 0,
+    versao BIGINT DEFAULT 0,
+    PRIMARY KEY (id, data_criacao)
+) PARTITION BY RANGE (data_criacao);
+CREATE TABLE IF NOT EXISTS mensagem_padrao PARTITION OF mensagem DEFAULT;
+CREATE INDEX IF NOT EXISTS idx_mensagem_data_criacao_id ON mensagem (data_criacao DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_mensagem_usuario_data_criacao ON mensagem (usuario, data_criacao DESC, id DESC);
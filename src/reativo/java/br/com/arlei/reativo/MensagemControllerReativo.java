@@ -0,0 +1,95 @@
+package br.com.arlei.reativo;
+
+import java.util.UUID;
+import br.com.arlei.exception.MensagemNotFoundException;
+import br.com.arlei.model.Mensagem;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Classe controladora da mensagem na aplicação reativa: mesmos caminhos,
+ * códigos de status e corpos de {@code MensagemController}.
+ */
+@RestController
+@Profile(RestApiReativaAplication.PERFIL)
+@RequestMapping("mensagens")
+@RequiredArgsConstructor
+public class MensagemControllerReativo {
+
+  private final MensagemServiceReativo mensagemService;
+
+
+  @PostMapping(
+          consumes = MediaType.APPLICATION_JSON_VALUE,
+          produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  public Mono<ResponseEntity<?>> registrarMensagem(@RequestBody Mensagem mensagem) {
+    return mensagemService.registrarMensagem(mensagem)
+            .<ResponseEntity<?>>map(mensagemRegistrada -> new ResponseEntity<>(mensagemRegistrada, HttpStatus.CREATED))
+            .onErrorResume(ConstraintViolationException.class, e -> Mono.just(ResponseEntity.badRequest()
+                    .body(e.getConstraintViolations().stream()
+                            .map(ConstraintViolation::getMessage)
+                            .toList())));
+  }
+
+  @GetMapping(
+          value = "/{id}",
+          produces = MediaType.APPLICATION_JSON_VALUE)
+  public Mono<ResponseEntity<?>> buscarMensagem(@PathVariable String id) {
+    return tratarErros(uuid(id)
+            .flatMap(mensagemService::buscarMensagem)
+            .map(ResponseEntity::ok));
+  }
+
+  @PutMapping(
+          value = "/{id}",
+          consumes = MediaType.APPLICATION_JSON_VALUE,
+          produces = MediaType.APPLICATION_JSON_VALUE)
+  public Mono<ResponseEntity<?>> atualizarMensagem(
+          @PathVariable String id,
+          @RequestBody Mensagem mensagem) {
+    return tratarErros(uuid(id)
+            .flatMap(uuid -> mensagemService.alterarMensagem(uuid, mensagem))
+            .map(mensagemAtualizada -> new ResponseEntity<>(mensagemAtualizada, HttpStatus.ACCEPTED)));
+  }
+
+  @DeleteMapping("/{id}")
+  public Mono<ResponseEntity<?>> apagarMensagem(@PathVariable String id) {
+    return tratarErros(uuid(id)
+            .flatMap(mensagemService::removerMensagem)
+            .thenReturn(new ResponseEntity<>("mensagem removida", HttpStatus.OK)));
+  }
+
+  @GetMapping(
+          value = "",
+          produces = MediaType.APPLICATION_JSON_VALUE)
+  public Mono<ResponseEntity<Page<Mensagem>>> listarMensagens(
+          @RequestParam(defaultValue = "0") int page,
+          @RequestParam(defaultValue = "10") int size) {
+    return mensagemService.listarMensagens(PageRequest.of(page, size))
+            .map(mensagens -> new ResponseEntity<>(mensagens, HttpStatus.OK));
+  }
+
+  // o id inválido vira sinal de erro, tratado junto com os erros do serviço
+  private static Mono<UUID> uuid(String id) {
+    return Mono.fromCallable(() -> UUID.fromString(id));
+  }
+
+  private static Mono<ResponseEntity<?>> tratarErros(Mono<? extends ResponseEntity<?>> resposta) {
+    return resposta.<ResponseEntity<?>>map(entidade -> entidade)
+            .onErrorResume(IllegalArgumentException.class,
+                    e -> Mono.just(ResponseEntity.badRequest().body("ID inválido")))
+            .onErrorResume(MensagemNotFoundException.class,
+                    e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage())));
+  }
+}
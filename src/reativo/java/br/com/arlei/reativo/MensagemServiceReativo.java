@@ -0,0 +1,18 @@
+package br.com.arlei.reativo;
+
+import br.com.arlei.model.Mensagem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface MensagemServiceReativo {
+
+    Mono<Mensagem> registrarMensagem(Mensagem mensagem);
+    Mono<Mensagem> buscarMensagem(UUID id);
+    Mono<Mensagem> alterarMensagem(UUID id, Mensagem mensagemNova);
+    Mono<Void> removerMensagem(UUID id);
+    Mono<Page<Mensagem>> listarMensagens(Pageable page);
+
+}
@@ -0,0 +1,145 @@
+package br.com.arlei.reativo;
+
+import br.com.arlei.exception.MensagemNotFoundException;
+import br.com.arlei.id.IdGerador;
+import br.com.arlei.model.Mensagem;
+
+import io.r2dbc.spi.Readable;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mesmas regras de {@code MensagemServiceImpl} sobre R2DBC: nenhuma chamada
+ * bloqueia a thread do Netty, que atende outras conexões enquanto o banco
+ * responde. Cache, busca, timeline e eventos ficam na aplicação servlet.
+ */
+@Service
+@Profile(RestApiReativaAplication.PERFIL)
+@RequiredArgsConstructor
+public class MensagemServiceReativoImpl implements MensagemServiceReativo {
+
+  private static final String COLUNAS =
+          "id, usuario, conteudo, data_criacao, data_alteracao, gostei, versao";
+
+  private final DatabaseClient databaseClient;
+
+  private final Validator validator;
+
+  private final IdGerador idGerador;
+
+  @Override
+  public Mono<Mensagem> registrarMensagem(Mensagem mensagem) {
+    var violacoes = validator.validate(mensagem);
+    if (!violacoes.isEmpty()) {
+      return Mono.error(new ConstraintViolationException(violacoes));
+    }
+    var timestamp = LocalDateTime.now();
+    var mensagemRegistrada = mensagem.toBuilder()
+            .id(idGerador.gerar())
+            .dataCriacao(timestamp)
+            .dataAlteracao(timestamp)
+            .gostei(0)
+            .versao(0L)
+            .build();
+    return databaseClient.sql("INSERT INTO mensagem (" + COLUNAS + ")"
+                    + " VALUES (:id, :usuario, :conteudo, :dataCriacao, :dataAlteracao, 0, 0)")
+            .bind("id", mensagemRegistrada.getId())
+            .bind("usuario", mensagemRegistrada.getUsuario())
+            .bind("conteudo", mensagemRegistrada.getConteudo())
+            .bind("dataCriacao", timestamp)
+            .bind("dataAlteracao", timestamp)
+            .then()
+            .thenReturn(mensagemRegistrada);
+  }
+
+  @Override
+  public Mono<Mensagem> buscarMensagem(UUID id) {
+    return databaseClient.sql("SELECT " + COLUNAS + " FROM mensagem WHERE id = :id")
+            .bind("id", id)
+            .map(MensagemServiceReativoImpl::mapear)
+            .one()
+            .switchIfEmpty(Mono.error(() -> new MensagemNotFoundException("Mensagem não encontrada")));
+  }
+
+  @Override
+  public Mono<Mensagem> alterarMensagem(UUID id, Mensagem mensagemNova) {
+    return verificarId(id, mensagemNova)
+            .then(databaseClient.sql("UPDATE mensagem SET conteudo = :conteudo,"
+                            + " data_alteracao = :dataAlteracao, versao = versao + 1 WHERE id = :id")
+                    .bind("conteudo", mensagemNova.getConteudo())
+                    .bind("dataAlteracao", LocalDateTime.now())
+                    .bind("id", id)
+                    .fetch()
+                    .rowsUpdated())
+            .flatMap(alteradas -> alteradas == 0
+                    ? Mono.error(new MensagemNotFoundException("Mensagem não encontrada"))
+                    : buscarMensagem(id));
+  }
+
+  private Mono<Void> verificarId(UUID id, Mensagem mensagemNova) {
+    if (id.equals(mensagemNova.getId())) {
+      return Mono.empty();
+    }
+    return existe(id).flatMap(encontrada -> Mono.error(encontrada
+            ? new MensagemNotFoundException("mensagem não apresenta o ID correto")
+            : new MensagemNotFoundException("Mensagem não encontrada")));
+  }
+
+  private Mono<Boolean> existe(UUID id) {
+    return databaseClient.sql("SELECT 1 FROM mensagem WHERE id = :id")
+            .bind("id", id)
+            .map(linha -> Boolean.TRUE)
+            .first()
+            .defaultIfEmpty(Boolean.FALSE);
+  }
+
+  @Override
+  public Mono<Void> removerMensagem(UUID id) {
+    return databaseClient.sql("DELETE FROM mensagem WHERE id = :id")
+            .bind("id", id)
+            .fetch()
+            .rowsUpdated()
+            .flatMap(removidas -> removidas == 0
+                    ? Mono.error(new MensagemNotFoundException("Mensagem não encontrada"))
+                    : Mono.empty());
+  }
+
+  @Override
+  public Mono<Page<Mensagem>> listarMensagens(Pageable page) {
+    var mensagens = databaseClient.sql("SELECT " + COLUNAS + " FROM mensagem"
+                    + " ORDER BY data_criacao DESC LIMIT :limite OFFSET :deslocamento")
+            .bind("limite", page.getPageSize())
+            .bind("deslocamento", page.getOffset())
+            .map(MensagemServiceReativoImpl::mapear)
+            .all()
+            .collectList();
+    var total = databaseClient.sql("SELECT COUNT(*) FROM mensagem")
+            .map(linha -> linha.get(0, Long.class))
+            .one();
+    return Mono.zip(mensagens, total)
+            .<Page<Mensagem>>map(resultado -> new PageImpl<>(resultado.getT1(), page, resultado.getT2()));
+  }
+
+  private static Mensagem mapear(Readable linha) {
+    var gostei = linha.get("gostei", Integer.class);
+    return Mensagem.builder()
+            .id(linha.get("id", UUID.class))
+            .usuario(linha.get("usuario", String.class))
+            .conteudo(linha.get("conteudo", String.class))
+            .dataCriacao(linha.get("data_criacao", LocalDateTime.class))
+            .dataAlteracao(linha.get("data_alteracao", LocalDateTime.class))
+            .gostei(gostei == null ? 0 : gostei)
+            .versao(linha.get("versao", Long.class))
+            .build();
+  }
+}
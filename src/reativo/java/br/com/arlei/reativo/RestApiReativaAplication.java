@@ -0,0 +1,34 @@
+package br.com.arlei.reativo;
+
+import br.com.arlei.config.IdConfig;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Variante reativa da API de mensagens: WebFlux (Netty) e R2DBC, sem JDBC nem
+ * JPA. Atende o mesmo contrato REST de {@code /mensagens} da aplicação servlet.
+ *
+ * <p>Os componentes deste pacote só existem no perfil {@value #PERFIL}, para
+ * que a varredura de {@code br.com.arlei} na aplicação servlet os ignore.
+ */
+@Profile(RestApiReativaAplication.PERFIL)
+@SpringBootApplication(
+        scanBasePackages = "br.com.arlei.reativo",
+        exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+@Import(IdConfig.class)
+public class RestApiReativaAplication {
+
+    public static final String PERFIL = "reativo";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(RestApiReativaAplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(PERFIL)
+                .run(args);
+    }
+}
@@ -0,0 +1,12 @@
+-- Mesma tabela gerada pelo Hibernate a partir de Mensagem (aplicação servlet)
+CREATE TABLE IF NOT EXISTS mensagem (
+    id UUID NOT NULL PRIMARY KEY,
+    usuario VARCHAR(255),
+    conteudo VARCHAR(255),
+    data_criacao TIMESTAMP(6),
+    data_alteracao TIMESTAMP(6),
+    gostei INTEGER NOT NULL DEFAULT 0,
+    versao BIGINT DEFAULT 0
+);
+CREATE INDEX IF NOT EXISTS idx_mensagem_data_criacao_id ON mensagem (data_criacao DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_mensagem_usuario_data_criacao ON mensagem (usuario, data_criacao DESC, id DESC);
@@ -0,0 +1,249 @@
+package br.com.arlei.reativo;
+
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.utils.MensagemHelper;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.RestAssured.when;
+import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
+import static org.hamcrest.Matchers.equalTo;
+
+// Mesmo contrato de MensagemControllerIT e dos cenários de Mensagem.feature, na aplicação reativa
+@SpringBootTest(classes = RestApiReativaAplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reativo;DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.username=sa",
+                "spring.r2dbc.password="
+        })
+@ActiveProfiles(RestApiReativaAplication.PERFIL)
+public class MensagemControllerReativoIT {
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    public void setup() {
+        RestAssured.port = port;
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    private Mensagem registrarMensagem() {
+        return given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(MensagemHelper.gerarMensagem())
+        .when()
+                .post("/mensagens")
+        .then()
+                .statusCode(HttpStatus.CREATED.value())
+                .extract().as(Mensagem.class);
+    }
+
+    @Nested
+    class RegistrarMensagem {
+
+        @Test
+        void devePermitirRegistarMensagem() {
+
+            given()
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body(MensagemHelper.gerarMensagem())
+            .when()
+                    .post("/mensagens")
+            .then()
+                    .statusCode(HttpStatus.CREATED.value())
+                    .body(matchesJsonSchemaInClasspath("schemas/mensagem.schema.json"));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRegistrarMensagem_PayloadComXml() {
+            String xmlPayload = "<mensagem><usuario>John</usuario><conteudo>Conteúdo da mensagem</conteudo></mensagem>";
+
+            given()
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body(xmlPayload)
+            .when()
+                    .post("/mensagens")
+            .then()
+                    .statusCode(HttpStatus.BAD_REQUEST.value())
+                    .body("error", equalTo("Bad Request"));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRegistrarMensagem_ConteudoVazio() {
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setConteudo("");
+
+            given()
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body(mensagem)
+            .when()
+                    .post("/mensagens")
+            .then()
+                    .statusCode(HttpStatus.BAD_REQUEST.value())
+                    .body("[0]", equalTo("conteúdo não pode estar vazio"));
+        }
+    }
+
+    @Nested
+    class BuscarMensagem {
+
+        @Test
+        void devePermitirBuscarMensagem() {
+            var mensagem = registrarMensagem();
+
+            when()
+                    .get("/mensagens/{id}", mensagem.getId())
+            .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body(matchesJsonSchemaInClasspath("schemas/mensagem.schema.json"))
+                    .body("conteudo", equalTo(mensagem.getConteudo()));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoBuscarMensagem_IdNaoExiste() {
+
+            when()
+                    .get("/mensagens/{id}", "4106c507-28d5-4294-97fd-3c025d83cb36")
+            .then()
+                    .statusCode(HttpStatus.NOT_FOUND.value())
+                    .body(equalTo("Mensagem não encontrada"));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoBuscarMensagem_IdInvalido() {
+
+            when()
+                    .get("/mensagens/{id}", "2")
+            .then()
+                    .statusCode(HttpStatus.BAD_REQUEST.value())
+                    .body(equalTo("ID inválido"));
+        }
+    }
+
+    @Nested
+    class AlterarMensagem {
+
+        @Test
+        void devePermitirAlterarMensagem() {
+            var mensagem = registrarMensagem();
+            mensagem.setConteudo("novo conteudo");
+
+            given()
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body(mensagem)
+            .when()
+                    .put("/mensagens/{id}", mensagem.getId())
+            .then()
+                    .statusCode(HttpStatus.ACCEPTED.value())
+                    .body(matchesJsonSchemaInClasspath("schemas/mensagem.schema.json"))
+                    .body("conteudo", equalTo("novo conteudo"))
+                    .body("versao", equalTo(1));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarMensagem_PayloadComXml() {
+            String xmlPayload = "<mensagem><usuario>John</usuario><conteudo>Conteúdo da mensagem</conteudo></mensagem>";
+
+            given()
+                    .contentType(MediaType.APPLICATION_XML_VALUE)
+                    .body(xmlPayload)
+            .when()
+                    .put("/mensagens/{id}", "4106c509-28d5-4294-97fd-3c025d83cb30")
+            .then()
+                    .statusCode(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarMensagem_IdNaoExiste() {
+            var mensagem = MensagemHelper.gerarMensagem();
+
+            given()
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body(mensagem)
+            .when()
+                    .put("/mensagens/{id}", mensagem.getId())
+            .then()
+                    .statusCode(HttpStatus.NOT_FOUND.value())
+                    .body(equalTo("Mensagem não encontrada"));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarMensagem_IdMensagemNovaApresentaValorDiferente() {
+            var mensagem = registrarMensagem();
+            var id = mensagem.getId();
+            mensagem.setId(UUID.randomUUID());
+
+            given()
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body(mensagem)
+            .when()
+                    .put("/mensagens/{id}", id)
+            .then()
+                    .statusCode(HttpStatus.NOT_FOUND.value())
+                    .body(equalTo("mensagem não apresenta o ID correto"));
+        }
+    }
+
+    @Nested
+    class RemoverMensagem {
+
+        @Test
+        void devePermitirRemoverMensagem() {
+            var mensagem = registrarMensagem();
+
+            when()
+                    .delete("/mensagens/{id}", mensagem.getId())
+            .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body(equalTo("mensagem removida"));
+
+            when()
+                    .get("/mensagens/{id}", mensagem.getId())
+            .then()
+                    .statusCode(HttpStatus.NOT_FOUND.value());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoIdNaoExiste() {
+
+            when()
+                    .delete("/mensagens/{id}", "4106c508-28d5-4294-97fd-3c025d83cb36")
+            .then()
+                    .statusCode(HttpStatus.NOT_FOUND.value())
+                    .body(equalTo("Mensagem não encontrada"));
+        }
+    }
+
+    @Nested
+    class ListarMensagem {
+
+        @Test
+        void devePermitirListarMensagens() {
+            registrarMensagem();
+
+            given()
+                    .queryParam("page", "0")
+                    .queryParam("size", "10")
+            .when()
+                    .get("/mensagens")
+            .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("number", equalTo(0))
+                    .body("size", equalTo(10))
+                    .body("content[0].usuario", equalTo("Jose"));
+        }
+    }
+}
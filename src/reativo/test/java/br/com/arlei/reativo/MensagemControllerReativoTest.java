@@ -0,0 +1,221 @@
+package br.com.arlei.reativo;
+
+import br.com.arlei.exception.MensagemNotFoundException;
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.utils.MensagemHelper;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class MensagemControllerReativoTest {
+
+    private WebTestClient webTestClient;
+
+    @Mock
+    private MensagemServiceReativo mensagemService;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        webTestClient = WebTestClient.bindToController(new MensagemControllerReativo(mensagemService)).build();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Nested
+    class RegistrarMensagem {
+
+        @Test
+        void devePermitirRegistrarMensagem() {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.registrarMensagem(any(Mensagem.class)))
+                    .thenAnswer(i -> Mono.just(i.getArgument(0)));
+
+            // Act
+            webTestClient.post().uri("/mensagens")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(mensagem)
+                    .exchange()
+                    // Assert
+                    .expectStatus().isCreated()
+                    .expectBody()
+                    .jsonPath("$.usuario").isEqualTo(mensagem.getUsuario());
+            verify(mensagemService, times(1)).registrarMensagem(any(Mensagem.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRegistrarMensagem_MensagemInvalida() {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setUsuario("");
+            var violacoes = Validation.buildDefaultValidatorFactory().getValidator().validate(mensagem);
+            when(mensagemService.registrarMensagem(any(Mensagem.class)))
+                    .thenReturn(Mono.error(new ConstraintViolationException(violacoes)));
+
+            // Act
+            webTestClient.post().uri("/mensagens")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(mensagem)
+                    .exchange()
+                    // Assert
+                    .expectStatus().isBadRequest()
+                    .expectBody()
+                    .jsonPath("$[0]").isEqualTo("usuário não pode estar vazio");
+        }
+    }
+
+    @Nested
+    class BuscarMensagem {
+
+        @Test
+        void devePermitirBuscarMensagem() {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.buscarMensagem(mensagem.getId())).thenReturn(Mono.just(mensagem));
+
+            // Act
+            webTestClient.get().uri("/mensagens/{id}", mensagem.getId())
+                    .exchange()
+                    // Assert
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.id").isEqualTo(mensagem.getId().toString());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoBuscarMensagem_IdNaoExiste() {
+            // Arrange
+            var id = UUID.randomUUID();
+            when(mensagemService.buscarMensagem(id))
+                    .thenReturn(Mono.error(new MensagemNotFoundException("Mensagem não encontrada")));
+
+            // Act
+            webTestClient.get().uri("/mensagens/{id}", id)
+                    .exchange()
+                    // Assert
+                    .expectStatus().isNotFound()
+                    .expectBody(String.class).isEqualTo("Mensagem não encontrada");
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoBuscarMensagem_IdInvalido() {
+            // Act
+            webTestClient.get().uri("/mensagens/{id}", "2")
+                    .exchange()
+                    // Assert
+                    .expectStatus().isBadRequest()
+                    .expectBody(String.class).isEqualTo("ID inválido");
+            verifyNoInteractions(mensagemService);
+        }
+    }
+
+    @Nested
+    class AlterarMensagem {
+
+        @Test
+        void devePermitirAlterarMensagem() {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.alterarMensagem(any(UUID.class), any(Mensagem.class)))
+                    .thenReturn(Mono.just(mensagem));
+
+            // Act
+            webTestClient.put().uri("/mensagens/{id}", mensagem.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(mensagem)
+                    .exchange()
+                    // Assert
+                    .expectStatus().isAccepted();
+            verify(mensagemService, times(1)).alterarMensagem(any(UUID.class), any(Mensagem.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarMensagem_PayloadComXml() {
+            // Act
+            webTestClient.put().uri("/mensagens/{id}", UUID.randomUUID())
+                    .contentType(MediaType.APPLICATION_XML)
+                    .bodyValue("<mensagem><usuario>John</usuario></mensagem>")
+                    .exchange()
+                    // Assert
+                    .expectStatus().isEqualTo(415);
+            verifyNoInteractions(mensagemService);
+        }
+    }
+
+    @Nested
+    class RemoverMensagem {
+
+        @Test
+        void devePermitirRemoverMensagem() {
+            // Arrange
+            var id = UUID.randomUUID();
+            when(mensagemService.removerMensagem(id)).thenReturn(Mono.empty());
+
+            // Act
+            webTestClient.delete().uri("/mensagens/{id}", id)
+                    .exchange()
+                    // Assert
+                    .expectStatus().isOk()
+                    .expectBody(String.class).isEqualTo("mensagem removida");
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRemoverMensagem_IdNaoExiste() {
+            // Arrange
+            var id = UUID.randomUUID();
+            when(mensagemService.removerMensagem(id))
+                    .thenReturn(Mono.error(new MensagemNotFoundException("Mensagem não encontrada")));
+
+            // Act
+            webTestClient.delete().uri("/mensagens/{id}", id)
+                    .exchange()
+                    // Assert
+                    .expectStatus().isNotFound()
+                    .expectBody(String.class).isEqualTo("Mensagem não encontrada");
+        }
+    }
+
+    @Nested
+    class ListarMensagens {
+
+        @Test
+        void devePermitirListarMensagens() {
+            // Arrange
+            var pagina = PageRequest.of(0, 10);
+            var mensagens = new PageImpl<>(List.of(MensagemHelper.gerarMensagem()), pagina, 1);
+            when(mensagemService.listarMensagens(pagina)).thenReturn(Mono.just(mensagens));
+
+            // Act
+            webTestClient.get().uri("/mensagens")
+                    .exchange()
+                    // Assert
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.number").isEqualTo(0)
+                    .jsonPath("$.size").isEqualTo(10)
+                    .jsonPath("$.totalElements").isEqualTo(1);
+        }
+    }
+}
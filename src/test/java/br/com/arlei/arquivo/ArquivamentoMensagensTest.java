@@ -0,0 +1,156 @@
+package br.com.arlei.arquivo;
+
+import br.com.arlei.busca.BuscaMensagem;
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.repository.MensagemRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ArquivamentoMensagensTest {
+
+    private static final Clock RELOGIO = Clock.fixed(Instant.parse("2024-07-01T10:00:00Z"), ZoneOffset.UTC);
+
+    private static final LocalDateTime LIMITE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @TempDir
+    Path diretorio;
+
+    @Mock
+    private BuscaMensagem buscaMensagem;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private org.hibernate.Cache cacheHibernate;
+
+    AutoCloseable mock;
+
+    private EmbeddedDatabase banco;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<UUID> antigas = new ArrayList<>();
+
+    private final List<UUID> recentes = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(cache.unwrap(org.hibernate.Cache.class)).thenReturn(cacheHibernate);
+        banco = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(banco);
+        jdbcTemplate.execute("CREATE TABLE mensagem (id UUID PRIMARY KEY, usuario VARCHAR(255),"
+                + " conteudo VARCHAR(255), data_criacao TIMESTAMP(6), data_alteracao TIMESTAMP(6),"
+                + " gostei INTEGER NOT NULL DEFAULT 0, versao BIGINT DEFAULT 0)");
+        for (int i = 0; i < 5; i++) {
+            antigas.add(inserir(LIMITE.minusDays(i + 1)));
+            recentes.add(inserir(LIMITE.plusDays(i)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        banco.shutdown();
+        mock.close();
+    }
+
+    private UUID inserir(LocalDateTime dataCriacao) {
+        var id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO mensagem (id, usuario, conteudo, data_criacao, data_alteracao, gostei)"
+                + " VALUES (?, 'joe', 'conteudo', ?, ?, 3)", id, dataCriacao, dataCriacao);
+        return id;
+    }
+
+    private ArquivamentoMensagens criarArquivamento(ArquivoEmSegmentos arquivo) {
+        var properties = new ArquivoProperties(true, diretorio.toString(), Period.ofMonths(6), 2, 2);
+        return new ArquivamentoMensagens(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(banco)),
+                arquivo, properties, buscaMensagem, entityManagerFactory, RELOGIO);
+    }
+
+    @Test
+    void devePermitirArquivarMensagens_AnterioresAoLimite() {
+        // Arrange
+        var arquivo = new ArquivoEmSegmentos(diretorio, 2);
+
+        // Act
+        criarArquivamento(arquivo).executar();
+
+        // Assert
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM mensagem", Long.class)).isEqualTo(5);
+        assertThat(arquivo.quantidadeSegmentos()).isEqualTo(3);
+        verify(buscaMensagem).removerAnterioresA(LIMITE);
+        for (var id : antigas) {
+            assertThat(arquivo.buscar(id))
+                    .hasValueSatisfying(mensagem -> {
+                        assertThat(mensagem.getUsuario()).isEqualTo("joe");
+                        assertThat(mensagem.getGostei()).isEqualTo(3);
+                        assertThat(mensagem.getVersao()).isZero();
+                        assertThat(mensagem.getDataCriacao()).isBefore(LIMITE);
+                    });
+        }
+        assertThat(arquivo.buscar(recentes.get(0))).isEmpty();
+        verify(cacheHibernate).evictEntityData(Mensagem.class);
+        verify(cacheHibernate).evictQueryRegion(MensagemRepository.REGIAO_PAGINAS);
+    }
+
+    @Test
+    void devePermitirReabrirArquivo_ComSegmentosGravados() {
+        // Arrange
+        criarArquivamento(new ArquivoEmSegmentos(diretorio, 2)).executar();
+
+        // Act
+        var arquivo = new ArquivoEmSegmentos(diretorio, 2);
+
+        // Assert
+        assertThat(arquivo.quantidadeSegmentos()).isEqualTo(3);
+        assertThat(arquivo.buscar(antigas.get(4))).isPresent();
+        assertThat(arquivo.segmentosEntre(LIMITE.minusDays(1), LIMITE)).hasSize(1);
+    }
+
+    @Test
+    void naoDeveArquivar_QuandoNaoHaMensagensAntigas() {
+        // Arrange
+        jdbcTemplate.update("DELETE FROM mensagem WHERE data_criacao < ?", LIMITE);
+        var arquivo = new ArquivoEmSegmentos(diretorio, 2);
+
+        // Act
+        criarArquivamento(arquivo).executar();
+
+        // Assert
+        assertThat(arquivo.quantidadeSegmentos()).isZero();
+        verifyNoInteractions(cacheHibernate);
+    }
+}
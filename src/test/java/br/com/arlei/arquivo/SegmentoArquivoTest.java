@@ -0,0 +1,136 @@
+package br.com.arlei.arquivo;
+
+import br.com.arlei.model.Mensagem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentoArquivoTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2023, 1, 1, 8, 30, 15, 123_456_000);
+
+    @TempDir
+    Path diretorio;
+
+    private static List<Mensagem> gerarMensagens(int quantidade) {
+        var mensagens = new ArrayList<Mensagem>();
+        for (int i = 0; i < quantidade; i++) {
+            mensagens.add(Mensagem.builder()
+                    .id(UUID.randomUUID())
+                    .usuario("usuario" + (i % 3))
+                    .conteudo("conteúdo da mensagem " + i)
+                    .dataCriacao(INICIO.plusMinutes(i))
+                    .dataAlteracao(INICIO.plusMinutes(i).plusSeconds(1))
+                    .gostei(i)
+                    .versao((long) i)
+                    .build());
+        }
+        return mensagens;
+    }
+
+    @Test
+    void devePermitirBuscarTodasAsMensagens_AposGravarSegmento() throws Exception {
+        // Arrange
+        var mensagens = gerarMensagens(50);
+        var caminho = diretorio.resolve("segmento.seg");
+
+        // Act
+        SegmentoArquivo.gravar(caminho, mensagens, 8);
+        var segmento = SegmentoArquivo.abrir(caminho);
+
+        // Assert
+        assertThat(segmento.quantidade()).isEqualTo(50);
+        assertThat(segmento.menorDataCriacao()).isEqualTo(INICIO);
+        assertThat(segmento.maiorDataCriacao()).isEqualTo(INICIO.plusMinutes(49));
+        for (var mensagem : mensagens) {
+            assertThat(segmento.buscar(mensagem.getId())).contains(mensagem);
+        }
+    }
+
+    @Test
+    void naoDeveEncontrarMensagem_QuandoIdNaoEstaNoSegmento() throws Exception {
+        // Arrange
+        var caminho = diretorio.resolve("segmento.seg");
+        SegmentoArquivo.gravar(caminho, gerarMensagens(10), 4);
+        var segmento = SegmentoArquivo.abrir(caminho);
+
+        // Act
+        var mensagem = segmento.buscar(UUID.randomUUID());
+
+        // Assert
+        assertThat(mensagem).isEmpty();
+    }
+
+    @Test
+    void devePermitirGravarCamposNulos() throws Exception {
+        // Arrange
+        var mensagem = Mensagem.builder().id(UUID.randomUUID()).build();
+        var caminho = diretorio.resolve("segmento.seg");
+
+        // Act
+        SegmentoArquivo.gravar(caminho, List.of(mensagem), 4);
+        var segmento = SegmentoArquivo.abrir(caminho);
+
+        // Assert
+        assertThat(segmento.buscar(mensagem.getId())).contains(mensagem);
+        assertThat(segmento.menorDataCriacao()).isNull();
+    }
+
+    @Test
+    void deveComprimirConteudoRepetido() throws Exception {
+        // Arrange
+        var mensagens = gerarMensagens(1_000);
+        mensagens.forEach(mensagem -> mensagem.setConteudo("conteúdo repetido ".repeat(20)));
+        var caminho = diretorio.resolve("segmento.seg");
+
+        // Act
+        SegmentoArquivo.gravar(caminho, mensagens, 256);
+
+        // Assert
+        var conteudoBruto = mensagens.stream().mapToLong(m -> m.getConteudo().length()).sum();
+        assertThat(Files.size(caminho)).isLessThan(conteudoBruto / 4);
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoSegmentoTruncado() throws Exception {
+        // Arrange
+        var caminho = diretorio.resolve("segmento.seg");
+        SegmentoArquivo.gravar(caminho, gerarMensagens(50), 8);
+        var bytes = Files.readAllBytes(caminho);
+        Files.write(caminho, Arrays.copyOf(bytes, bytes.length - 10));
+
+        // Act & Assert
+        assertThatThrownBy(() -> SegmentoArquivo.abrir(caminho))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("segmento truncado");
+    }
+
+    @Test
+    void deveIgnorarSegmentoInvalido_AoAbrirArquivo() throws Exception {
+        // Arrange
+        var mensagens = gerarMensagens(10);
+        var valido = diretorio.resolve(ArquivoEmSegmentos.PREFIXO + "0000000001" + ArquivoEmSegmentos.EXTENSAO);
+        var invalido = diretorio.resolve(ArquivoEmSegmentos.PREFIXO + "0000000002" + ArquivoEmSegmentos.EXTENSAO);
+        SegmentoArquivo.gravar(valido, mensagens, 4);
+        Files.write(invalido, new byte[] {1, 2, 3});
+
+        // Act
+        var arquivo = new ArquivoEmSegmentos(diretorio, 4);
+        arquivo.adicionar(gerarMensagens(5));
+
+        // Assert
+        assertThat(arquivo.quantidadeSegmentos()).isEqualTo(2);
+        assertThat(arquivo.buscar(mensagens.get(0).getId())).contains(mensagens.get(0));
+        assertThat(invalido.resolveSibling(invalido.getFileName() + ArquivoEmSegmentos.INVALIDO)).exists();
+    }
+}
@@ -0,0 +1,143 @@
+package br.com.arlei.busca;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceInvertidoTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2024, 5, 20, 10, 0);
+
+    private IndiceInvertido indice;
+
+    @BeforeEach
+    void setup(){
+        indice = new IndiceInvertido();
+    }
+
+    @Test
+    void devePermitirBuscarPorConteudoEUsuario(){
+        var id1 = UUID.randomUUID();
+        var id2 = UUID.randomUUID();
+        indice.indexar(id1, AGORA, "Adam", "Conteúdo da mensagem sobre futebol");
+        indice.indexar(id2, AGORA, "Eva", "Receita de bolo");
+
+        assertThat(indice.buscar("futebol", 10)).containsExactly(id1);
+        assertThat(indice.buscar("eva", 10)).containsExactly(id2);
+        // sem acentos e sem diferenciar maiúsculas
+        assertThat(indice.buscar("CONTEUDO", 10)).containsExactly(id1);
+    }
+
+    @Test
+    void devePermitirBuscarPalavrasComLetrasForaDoAscii(){
+        var id = UUID.randomUUID();
+        indice.indexar(id, AGORA, "joe", "Ação na Straße");
+
+        assertThat(indice.buscar("acao", 10)).containsExactly(id);
+        assertThat(indice.buscar("straße", 10)).containsExactly(id);
+        assertThat(indice.buscar("stra", 10)).isEmpty();
+    }
+
+    @Test
+    void deveOrdenarPorRelevancia_QuandoExistemDocumentosRemovidosSemCompactar(){
+        var gato = UUID.randomUUID();
+        var cachorro = UUID.randomUUID();
+        var gatoECachorro = UUID.randomUUID();
+        indice.indexar(gato, AGORA, "gato");
+        indice.indexar(cachorro, AGORA, "cachorro peixe");
+        indice.indexar(gatoECachorro, AGORA, "gato cachorro");
+        // versões antigas de "gato" continuam nas postagens até a compactação
+        for (int i = 0; i < 3; i++) {
+            indice.indexar(gato, AGORA, "gato");
+        }
+
+        assertThat(indice.documentosAlocados()).isEqualTo(6);
+        assertThat(indice.buscar("gato cachorro", 2)).containsExactly(gatoECachorro, cachorro);
+    }
+
+    @Test
+    void deveOrdenarPorRelevancia(){
+        var poucoRelevante = UUID.randomUUID();
+        var muitoRelevante = UUID.randomUUID();
+        indice.indexar(poucoRelevante, AGORA, "joe", "java e outras linguagens de programação variadas");
+        indice.indexar(muitoRelevante, AGORA, "joe", "java java java");
+        indice.indexar(UUID.randomUUID(), AGORA, "joe", "receita de bolo");
+
+        assertThat(indice.buscar("java", 10)).containsExactly(muitoRelevante, poucoRelevante);
+        assertThat(indice.buscar("java", 1)).containsExactly(muitoRelevante);
+    }
+
+    @Test
+    void devePermitirReindexarERemover(){
+        var id = UUID.randomUUID();
+        indice.indexar(id, AGORA, "joe", "texto antigo");
+
+        indice.indexar(id, AGORA, "joe", "texto novo");
+
+        assertThat(indice.buscar("antigo", 10)).isEmpty();
+        assertThat(indice.buscar("novo", 10)).containsExactly(id);
+        assertThat(indice.tamanho()).isEqualTo(1);
+
+        indice.remover(id);
+
+        assertThat(indice.buscar("novo", 10)).isEmpty();
+        assertThat(indice.tamanho()).isZero();
+    }
+
+    @Test
+    void deveCompactarPostagens_QuandoRemovidosSuperamAtivos(){
+        var ids = new UUID[100];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID();
+            indice.indexar(ids[i], AGORA, "joe", "mensagem numero " + i);
+        }
+        for (int i = 0; i < 80; i++) {
+            indice.remover(ids[i]);
+        }
+
+        assertThat(indice.buscar("mensagem", 100)).hasSize(20)
+                .containsExactlyInAnyOrder(java.util.Arrays.copyOfRange(ids, 80, 100));
+    }
+
+    @Test
+    void deveRenumerarDocumentos_QuandoCompactar(){
+        var id = UUID.randomUUID();
+        var outro = UUID.randomUUID();
+        indice.indexar(outro, AGORA, "joe", "outra mensagem");
+
+        // cada alteração gera um documento novo
+        for (int i = 0; i < 10_000; i++) {
+            indice.indexar(id, AGORA, "joe", "versao " + i);
+        }
+
+        assertThat(indice.documentosAlocados()).isLessThanOrEqualTo(4);
+        assertThat(indice.buscar("versao", 10)).containsExactly(id);
+        assertThat(indice.buscar("outra", 10)).containsExactly(outro);
+    }
+
+    @Test
+    void devePermitirRemoverDocumentos_AnterioresAoLimite(){
+        var antiga = UUID.randomUUID();
+        var noLimite = UUID.randomUUID();
+        var semData = UUID.randomUUID();
+        indice.indexar(antiga, AGORA.minusNanos(1), "joe", "mensagem");
+        indice.indexar(noLimite, AGORA, "joe", "mensagem");
+        indice.indexar(semData, null, "joe", "mensagem");
+
+        indice.removerAnterioresA(AGORA);
+
+        assertThat(indice.buscar("mensagem", 10)).containsExactlyInAnyOrder(noLimite, semData);
+        assertThat(indice.tamanho()).isEqualTo(2);
+    }
+
+    @Test
+    void naoDeveEncontrar_QuandoConsultaVazia(){
+        indice.indexar(UUID.randomUUID(), AGORA, "joe", "texto");
+
+        assertThat(indice.buscar("  ", 10)).isEmpty();
+    }
+}
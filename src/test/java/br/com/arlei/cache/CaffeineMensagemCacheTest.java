@@ -0,0 +1,163 @@
+package br.com.arlei.cache;
+
+import br.com.arlei.datasource.LeituraPropria;
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.utils.MensagemHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaffeineMensagemCacheTest {
+
+    private CaffeineMensagemCache mensagemCache;
+
+    private final AtomicInteger carregamentos = new AtomicInteger();
+
+    @BeforeEach
+    void setup(){
+        mensagemCache = new CaffeineMensagemCache(
+                new MensagemCacheProperties("caffeine", 100, Duration.ofMinutes(1)), false);
+        carregamentos.set(0);
+    }
+
+    private Optional<Mensagem> carregar(UUID id) {
+        carregamentos.incrementAndGet();
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(id);
+        return Optional.of(mensagem);
+    }
+
+    @Test
+    void devePermitirBuscarMensagem_RegistrandoAcertosEFalhas(){
+        var id = UUID.randomUUID();
+
+        mensagemCache.buscar(id, this::carregar);
+        var mensagemObtida = mensagemCache.buscar(id, this::carregar);
+
+        assertThat(mensagemObtida).isPresent();
+        assertThat(carregamentos).hasValue(1);
+        var estatisticas = mensagemCache.estatisticas();
+        assertThat(estatisticas.acertos()).isEqualTo(1);
+        assertThat(estatisticas.falhas()).isEqualTo(1);
+        assertThat(estatisticas.taxaAcertos()).isEqualTo(0.5);
+        assertThat(estatisticas.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void devePermitirInvalidarMensagens_AnterioresAoLimite(){
+        var limite = LocalDateTime.of(2024, 1, 1, 0, 0);
+        var antiga = UUID.randomUUID();
+        var recente = UUID.randomUUID();
+        mensagemCache.buscar(antiga, id -> carregar(id).map(m -> m.toBuilder().dataCriacao(limite.minusDays(1)).build()));
+        mensagemCache.buscar(recente, id -> carregar(id).map(m -> m.toBuilder().dataCriacao(limite).build()));
+
+        mensagemCache.invalidarAnterioresA(limite);
+
+        mensagemCache.buscar(antiga, this::carregar);
+        mensagemCache.buscar(recente, this::carregar);
+        assertThat(carregamentos).hasValue(3);
+    }
+
+    @Test
+    void naoDeveArmazenar_QuandoMensagemNaoExiste(){
+        var id = UUID.randomUUID();
+
+        var mensagemObtida = mensagemCache.buscar(id, chave -> Optional.empty());
+
+        assertThat(mensagemObtida).isEmpty();
+        assertThat(mensagemCache.buscar(id, this::carregar)).isPresent();
+        assertThat(carregamentos).hasValue(1);
+    }
+
+    @Test
+    void devePermitirBuscarTodas_CarregandoAusentesEmUmaChamada(){
+        var emCache = UUID.randomUUID();
+        var ausente = UUID.randomUUID();
+        var inexistente = UUID.randomUUID();
+        mensagemCache.buscar(emCache, this::carregar);
+        var pedidas = new ArrayList<UUID>();
+
+        var mensagens = mensagemCache.buscarTodos(List.of(ausente, inexistente, emCache), faltantes -> {
+            pedidas.addAll(faltantes);
+            return List.of(carregar(ausente).orElseThrow());
+        });
+
+        assertThat(mensagens).extracting(Mensagem::getId).containsExactly(ausente, emCache);
+        assertThat(pedidas).containsExactlyInAnyOrder(ausente, inexistente);
+        assertThat(mensagemCache.buscar(ausente, this::carregar)).isPresent();
+        assertThat(carregamentos).hasValue(2);
+    }
+
+    @Test
+    void devePermitirInvalidarMensagem(){
+        var id = UUID.randomUUID();
+        mensagemCache.buscar(id, this::carregar);
+
+        mensagemCache.invalidar(id);
+        mensagemCache.buscar(id, this::carregar);
+
+        assertThat(carregamentos).hasValue(2);
+    }
+
+    @Test
+    void devePermitirCarregarMensagem_NaReplica(){
+        var id = UUID.randomUUID();
+        var noPrimario = new AtomicBoolean(true);
+
+        mensagemCache.buscar(id, chave -> {
+            noPrimario.set(LeituraPropria.primarioExigido());
+            return carregar(chave);
+        });
+
+        assertThat(noPrimario).isFalse();
+    }
+
+    @Test
+    void deveRecarregarMensagem_QuandoPrimarioExigido(){
+        var id = UUID.randomUUID();
+        mensagemCache.buscar(id, this::carregar);
+        var alterada = carregar(id).orElseThrow();
+        alterada.setConteudo("alterado no primário");
+
+        LeituraPropria.exigirPrimario();
+        try {
+            assertThat(mensagemCache.buscar(id, chave -> Optional.of(alterada))).containsSame(alterada);
+        } finally {
+            LeituraPropria.liberar();
+        }
+
+        assertThat(mensagemCache.buscar(id, this::carregar)).containsSame(alterada);
+        assertThat(carregamentos).hasValue(2);
+    }
+
+    @Test
+    void deveConfirmarNoPrimario_QuandoReplicaNaoDevolveTodas(){
+        var cacheComReplica = new CaffeineMensagemCache(
+                new MensagemCacheProperties("caffeine", 100, Duration.ofMinutes(1)), true);
+        var naReplica = UUID.randomUUID();
+        var recente = UUID.randomUUID();
+        var pedidasAoPrimario = new ArrayList<UUID>();
+
+        var mensagens = cacheComReplica.buscarTodos(List.of(recente, naReplica), faltantes -> {
+            if (!LeituraPropria.primarioExigido()) {
+                return List.of(carregar(naReplica).orElseThrow());
+            }
+            pedidasAoPrimario.addAll(faltantes);
+            return List.of(carregar(recente).orElseThrow());
+        });
+
+        assertThat(mensagens).extracting(Mensagem::getId).containsExactly(recente, naReplica);
+        assertThat(pedidasAoPrimario).containsExactly(recente);
+        assertThat(LeituraPropria.primarioExigido()).isFalse();
+    }
+}
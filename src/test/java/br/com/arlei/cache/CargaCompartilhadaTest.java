@@ -0,0 +1,187 @@
+package br.com.arlei.cache;
+
+import br.com.arlei.datasource.LeituraPropria;
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.service.MensagemEvento;
+import br.com.arlei.utils.MensagemHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CargaCompartilhadaTest {
+
+    private CargaCompartilhada cargaCompartilhada;
+
+    private final AtomicInteger cargas = new AtomicInteger();
+
+    @BeforeEach
+    void setup() {
+        cargaCompartilhada = new CargaCompartilhada(new InexistentesProperties(10, Duration.ofMinutes(1)), false);
+    }
+
+    private Optional<Mensagem> carregarInexistente(UUID id) {
+        cargas.incrementAndGet();
+        return Optional.empty();
+    }
+
+    // Com um id inexistente o resultado é determinístico: quem chega depois da
+    // carga terminar encontra o id na lista de inexistentes.
+    @Test
+    void devePermitirCompartilharCarga_QuandoBuscasConcorrentesPeloMesmoId() throws Exception {
+        // Arrange
+        var id = UUID.randomUUID();
+        var iniciada = new CountDownLatch(1);
+        var liberar = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Optional<Mensagem>> primeira = executor.submit(() -> cargaCompartilhada.buscar(id, chave -> {
+                iniciada.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return carregarInexistente(chave);
+            }));
+            iniciada.await();
+            var concorrentes = new ArrayList<Future<Optional<Mensagem>>>();
+            for (int i = 0; i < 3; i++) {
+                concorrentes.add(executor.submit(() -> cargaCompartilhada.buscar(id, this::carregarInexistente)));
+            }
+
+            // Act
+            liberar.countDown();
+
+            // Assert
+            assertThat(primeira.get(5, TimeUnit.SECONDS)).isEmpty();
+            for (var concorrente : concorrentes) {
+                assertThat(concorrente.get(5, TimeUnit.SECONDS)).isEmpty();
+            }
+            assertThat(cargas).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void naoDeveCarregarNovamente_QuandoIdInexistente() {
+        // Arrange
+        var id = UUID.randomUUID();
+        cargaCompartilhada.buscar(id, this::carregarInexistente);
+
+        // Act
+        var mensagem = cargaCompartilhada.buscar(id, this::carregarInexistente);
+
+        // Assert
+        assertThat(mensagem).isEmpty();
+        assertThat(cargas).hasValue(1);
+    }
+
+    @Test
+    void deveCarregarNovamente_QuandoIdInexistenteForRegistrado() {
+        // Arrange
+        var mensagem = MensagemHelper.gerarMensagemCompleta();
+        cargaCompartilhada.buscar(mensagem.getId(), this::carregarInexistente);
+
+        // Act
+        cargaCompartilhada.atualizar(MensagemEvento.registrada(mensagem));
+        var encontrada = cargaCompartilhada.buscar(mensagem.getId(), id -> Optional.of(mensagem));
+
+        // Assert
+        assertThat(encontrada).containsSame(mensagem);
+    }
+
+    @Test
+    void naoDeveLembrarIdInexistente_QuandoMensagemRegistradaDuranteCarga() {
+        // Arrange
+        var mensagem = MensagemHelper.gerarMensagemCompleta();
+        cargaCompartilhada.buscar(mensagem.getId(), id -> {
+            cargaCompartilhada.atualizar(MensagemEvento.registrada(mensagem));
+            return Optional.empty();
+        });
+
+        // Act
+        var encontrada = cargaCompartilhada.buscar(mensagem.getId(), id -> Optional.of(mensagem));
+
+        // Assert
+        assertThat(encontrada).containsSame(mensagem);
+    }
+
+    @Test
+    void devePermitirLembrarIdInexistente_QuandoOutraMensagemRegistradaDuranteCarga() {
+        // Arrange: ids de faixas diferentes (hashCode 1 e 2)
+        var id = new UUID(0, 1);
+        var outra = MensagemHelper.gerarMensagemCompleta();
+        outra.setId(new UUID(0, 2));
+        cargaCompartilhada.buscar(id, chave -> {
+            cargaCompartilhada.atualizar(MensagemEvento.registrada(outra));
+            return carregarInexistente(chave);
+        });
+
+        // Act
+        var mensagem = cargaCompartilhada.buscar(id, this::carregarInexistente);
+
+        // Assert
+        assertThat(mensagem).isEmpty();
+        assertThat(cargas).hasValue(1);
+    }
+
+    @Test
+    void deveConfirmarNoPrimario_AntesDeLembrarIdInexistente() {
+        // Arrange: a réplica ainda não recebeu a mensagem
+        var cargaComReplica = new CargaCompartilhada(new InexistentesProperties(10, Duration.ofMinutes(1)), true);
+        var mensagem = MensagemHelper.gerarMensagemCompleta();
+
+        // Act
+        var encontrada = cargaComReplica.buscar(mensagem.getId(), id -> {
+            cargas.incrementAndGet();
+            return LeituraPropria.primarioExigido() ? Optional.of(mensagem) : Optional.empty();
+        });
+
+        // Assert
+        assertThat(encontrada).containsSame(mensagem);
+        assertThat(cargas).hasValue(2);
+        assertThat(LeituraPropria.primarioExigido()).isFalse();
+    }
+
+    @Test
+    void deveIgnorarIdInexistente_QuandoBuscarExistente() {
+        // Arrange: lembrado como inexistente antes de outra instância gravar
+        var mensagem = MensagemHelper.gerarMensagemCompleta();
+        cargaCompartilhada.buscar(mensagem.getId(), this::carregarInexistente);
+
+        // Act
+        var encontrada = cargaCompartilhada.buscarExistente(mensagem.getId(), id -> Optional.of(mensagem));
+
+        // Assert
+        assertThat(encontrada).containsSame(mensagem);
+    }
+
+    @Test
+    void devePermitirNovaCarga_QuandoCargaFalha() {
+        // Arrange
+        var id = UUID.randomUUID();
+        assertThatThrownBy(() -> cargaCompartilhada.buscar(id, chave -> {
+            throw new IllegalStateException("banco indisponível");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // Act
+        var mensagem = cargaCompartilhada.buscar(id, this::carregarInexistente);
+
+        // Assert
+        assertThat(mensagem).isEmpty();
+        assertThat(cargas).hasValue(1);
+    }
+}
@@ -0,0 +1,158 @@
+package br.com.arlei.cache;
+
+import br.com.arlei.datasource.LeituraPropria;
+import br.com.arlei.model.MensagemCursor;
+import br.com.arlei.service.MensagemEvento;
+import br.com.arlei.utils.MensagemHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimelineCacheTest {
+
+    private TimelineCache timelineCache;
+
+    private final AtomicInteger carregamentos = new AtomicInteger();
+
+    @BeforeEach
+    void setup(){
+        timelineCache = new TimelineCache(new TimelineProperties(10, 2, Duration.ofMinutes(1)), false);
+        carregamentos.set(0);
+    }
+
+    private TimelineCache.Timeline carregarVazia(String usuario) {
+        carregamentos.incrementAndGet();
+        return timelineCache.criar(List.of(), false);
+    }
+
+    @Test
+    void deveAtualizarTimeline_QuandoMensagemRegistrada(){
+        timelineCache.obter("joe", this::carregarVazia);
+        var antiga = MensagemHelper.gerarMensagemCompleta();
+        antiga.setDataCriacao(antiga.getDataCriacao().minusMinutes(1));
+        var recente = MensagemHelper.gerarMensagemCompleta();
+
+        timelineCache.atualizar(MensagemEvento.registrada(recente));
+        timelineCache.atualizar(MensagemEvento.registrada(antiga));
+
+        var timeline = timelineCache.obter("joe", this::carregarVazia);
+        assertThat(timeline.primeiras(10))
+                .containsExactly(MensagemCursor.de(recente), MensagemCursor.de(antiga));
+        assertThat(timeline.haMaisQue(2)).isFalse();
+        assertThat(carregamentos).hasValue(1);
+    }
+
+    @Test
+    void deveDescartarMaisAntiga_QuandoExcederCapacidade(){
+        timelineCache.obter("joe", this::carregarVazia);
+        var mensagens = List.of(
+                MensagemHelper.gerarMensagemCompleta(),
+                MensagemHelper.gerarMensagemCompleta(),
+                MensagemHelper.gerarMensagemCompleta());
+        mensagens.forEach(mensagem -> timelineCache.atualizar(MensagemEvento.registrada(mensagem)));
+
+        var timeline = timelineCache.obter("joe", this::carregarVazia);
+        assertThat(timeline.primeiras(10)).hasSize(2);
+        assertThat(timeline.haMaisQue(2)).isTrue();
+    }
+
+    @Test
+    void deveRecarregarTimeline_QuandoMensagemRemovida(){
+        timelineCache.obter("joe", this::carregarVazia);
+
+        timelineCache.atualizar(MensagemEvento.removida(MensagemHelper.gerarMensagemCompleta()));
+        timelineCache.obter("joe", this::carregarVazia);
+
+        assertThat(carregamentos).hasValue(2);
+    }
+
+    @Test
+    void naoDeveCriarTimeline_QuandoUsuarioNaoEstaEmCache(){
+        timelineCache.atualizar(MensagemEvento.registrada(MensagemHelper.gerarMensagemCompleta()));
+
+        timelineCache.obter("joe", this::carregarVazia);
+
+        assertThat(carregamentos).hasValue(1);
+    }
+
+    @Test
+    void naoDeveGuardarTimeline_QuandoMensagemRegistradaDuranteCarregamento(){
+        var recente = MensagemHelper.gerarMensagemCompleta();
+
+        var timeline = timelineCache.obter("joe", usuario -> {
+            // registro confirmado depois da consulta da carga
+            timelineCache.atualizar(MensagemEvento.registrada(recente));
+            return carregarVazia(usuario);
+        });
+        var recarregada = timelineCache.obter("joe", this::carregarVazia);
+
+        assertThat(timeline.primeiras(10)).isEmpty();
+        assertThat(recarregada).isNotSameAs(timeline);
+        assertThat(carregamentos).hasValue(2);
+    }
+
+    @Test
+    void deveOrdenarIdsComoBanco_QuandoMesmaDataCriacao(){
+        var menor = MensagemHelper.gerarMensagemCompleta();
+        menor.setId(UUID.fromString("7fffffff-0000-0000-0000-000000000000"));
+        var maior = MensagemHelper.gerarMensagemCompleta();
+        maior.setId(UUID.fromString("80000000-0000-0000-0000-000000000000"));
+        maior.setDataCriacao(menor.getDataCriacao());
+        timelineCache.obter("joe", this::carregarVazia);
+
+        timelineCache.atualizar(MensagemEvento.registrada(menor));
+        timelineCache.atualizar(MensagemEvento.registrada(maior));
+
+        // ORDER BY id DESC no Postgres: 80000000-... vem antes de 7fffffff-...
+        assertThat(timelineCache.obter("joe", this::carregarVazia).primeiras(10))
+                .containsExactly(MensagemCursor.de(maior), MensagemCursor.de(menor));
+    }
+
+    @Test
+    void devePermitirCarregarTimeline_NaReplica(){
+        var noPrimario = new AtomicBoolean(true);
+
+        timelineCache.obter("joe", usuario -> {
+            noPrimario.set(LeituraPropria.primarioExigido());
+            return carregarVazia(usuario);
+        });
+
+        assertThat(noPrimario).isFalse();
+    }
+
+    @Test
+    void deveConfirmarNoPrimario_QuandoTimelineVaziaNaReplica(){
+        var cacheComReplica = new TimelineCache(new TimelineProperties(10, 2, Duration.ofMinutes(1)), true);
+        var posicao = MensagemCursor.de(MensagemHelper.gerarMensagemCompleta());
+
+        var timeline = cacheComReplica.obter("joe", usuario -> LeituraPropria.primarioExigido()
+                ? cacheComReplica.criar(List.of(posicao), false)
+                : cacheComReplica.criar(List.of(), false));
+
+        assertThat(timeline.primeiras(10)).containsExactly(posicao);
+        assertThat(LeituraPropria.primarioExigido()).isFalse();
+    }
+
+    @Test
+    void deveRecarregarTimeline_QuandoPrimarioExigido(){
+        timelineCache.obter("joe", this::carregarVazia);
+        var posicao = MensagemCursor.de(MensagemHelper.gerarMensagemCompleta());
+
+        LeituraPropria.exigirPrimario();
+        try {
+            timelineCache.obter("joe", usuario -> timelineCache.criar(List.of(posicao), false));
+        } finally {
+            LeituraPropria.liberar();
+        }
+
+        assertThat(timelineCache.obter("joe", this::carregarVazia).primeiras(10)).containsExactly(posicao);
+        assertThat(carregamentos).hasValue(1);
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.arlei.config;
+
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.utils.MensagemHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CborConfigTest {
+
+    private ObjectMapper cborMapper;
+
+    @BeforeEach
+    void setup() {
+        cborMapper = CborConfig.cborMapper(new Jackson2ObjectMapperBuilder());
+    }
+
+    @Test
+    void devePermitirLerMensagem_GravadaEmCbor() throws Exception {
+        // Arrange
+        var mensagem = MensagemHelper.gerarMensagemCompleta();
+
+        // Act
+        var bytes = cborMapper.writeValueAsBytes(mensagem);
+        var mensagemLida = cborMapper.readValue(bytes, Mensagem.class);
+
+        // Assert
+        assertThat(mensagemLida).isEqualTo(mensagem);
+    }
+
+    @Test
+    void deveGravarDatas_ComoArray() throws Exception {
+        // Arrange
+        var mensagem = MensagemHelper.gerarMensagemCompleta();
+
+        // Act
+        var arvore = cborMapper.readTree(cborMapper.writeValueAsBytes(mensagem));
+
+        // Assert
+        assertThat(arvore.get("dataCriacao").isArray()).isTrue();
+        assertThat(arvore.get("dataCriacao").get(0).asInt()).isEqualTo(mensagem.getDataCriacao().getYear());
+    }
+
+    @Test
+    void devePermitirLerDatas_NoFormatoDoJson() throws Exception {
+        // Arrange
+        var mensagem = MensagemHelper.gerarMensagemCompleta();
+        var json = JsonMapper.builder().findAndAddModules().build();
+        var arvore = json.readTree(json.writeValueAsBytes(mensagem));
+
+        // Act
+        var mensagemLida = cborMapper.readValue(cborMapper.writeValueAsBytes(arvore), Mensagem.class);
+
+        // Assert
+        assertThat(mensagemLida.getId()).isEqualTo(mensagem.getId());
+        assertThat(mensagemLida.getDataCriacao()).isNotNull();
+    }
+
+    @Test
+    void deveGerarPayload_MenorQueJson() throws Exception {
+        // Arrange
+        var mensagem = MensagemHelper.gerarMensagemCompleta();
+        var json = JsonMapper.builder().findAndAddModules().build();
+
+        // Act
+        var tamanhoCbor = cborMapper.writeValueAsBytes(mensagem).length;
+        var tamanhoJson = json.writeValueAsBytes(mensagem).length;
+
+        // Assert
+        assertThat(tamanhoCbor).isLessThan(tamanhoJson);
+    }
+}
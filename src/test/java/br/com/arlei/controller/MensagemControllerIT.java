@@ -21,6 +21,7 @@ import static io.restassured.RestAssured.when;
 import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.fail;
 
 
@@ -268,6 +269,57 @@ public class MensagemControllerIT {
 
         }
 
+        @Test
+        void devePermitirListarMensagens_AtualizadasAposRegistro(){
+
+            int total = when()
+                    .get("/mensagens")
+            .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .extract().path("totalElements");
+
+            given()
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body(MensagemHelper.gerarMensagem())
+            .when()
+                    .post("/mensagens")
+            .then()
+                    .statusCode(HttpStatus.CREATED.value());
+
+            // a primeira página vem do cache de consulta, invalidado pela inserção
+            when()
+                    .get("/mensagens")
+            .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("totalElements", equalTo(total + 1));
+
+        }
+
+        @Test
+        void deveComprimirListagem_QuandoClienteAceitaGzip(){
+
+            for (int i = 0; i < 20; i++) {
+                given()
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .body(MensagemHelper.gerarMensagem())
+                .when()
+                        .post("/mensagens")
+                .then()
+                        .statusCode(HttpStatus.CREATED.value());
+            }
+
+            // acima de server.compression.min-response-size (2KB)
+            given()
+                    .header("Accept-Encoding", "gzip")
+                    .queryParam("size", 50)
+            .when()
+                    .get("/mensagens")
+            .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .header("Content-Encoding", equalTo("gzip"));
+
+        }
+
         @Test
         void devePermitirListarMensagens_QuandoNaoInformadoPaginacao(){
 
@@ -284,4 +336,99 @@ public class MensagemControllerIT {
         }
 
     }
+
+    @Nested
+    class ListarMensagemPorCursor{
+
+        @Test
+        void devePermitirListarMensagensPorCursor(){
+
+            given()
+                    .queryParam("size",10)
+            .when()
+                    .get("/mensagens/cursor")
+            .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("$", hasKey("mensagens"))
+                    .body("$", not(hasKey("totalElements")));
+
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoCursorInvalido(){
+
+            given()
+                    .queryParam("cursor","xpto")
+            .when()
+                    .get("/mensagens/cursor")
+            .then()
+                    .statusCode(HttpStatus.BAD_REQUEST.value())
+                    .body(equalTo("cursor inválido"));
+
+        }
+
+    }
+
+    @Nested
+    class ControleDeVersao{
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarMensagem_VersaoDesatualizada(){
+
+            var mensagem = given()
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .body(MensagemHelper.gerarMensagem())
+            .when()
+                    .post("/mensagens")
+            .then()
+                    .extract().as(Mensagem.class);
+            var etag = when()
+                    .get("/mensagens/{id}", mensagem.getId())
+            .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .extract().header("ETag");
+            mensagem.setConteudo("primeira alteração");
+
+            given()
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .header("If-Match", etag)
+                    .body(mensagem)
+            .when()
+                    .put("/mensagens/{id}", mensagem.getId())
+            .then()
+                    .statusCode(HttpStatus.ACCEPTED.value())
+                    .header("ETag", not(equalTo(etag)));
+
+            given()
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+                    .header("If-Match", etag)
+                    .body(mensagem)
+            .when()
+                    .put("/mensagens/{id}", mensagem.getId())
+            .then()
+                    .statusCode(HttpStatus.PRECONDITION_FAILED.value())
+                    .body(equalTo("mensagem alterada por outra requisição"));
+
+        }
+
+        @Test
+        void devePermitirBuscarMensagem_SemCorpoQuandoNaoAlterada(){
+
+            var id = "4106c509-28d5-4294-97fd-3c025d83cb30";
+            var etag = when()
+                    .get("/mensagens/{id}", id)
+            .then()
+                    .extract().header("ETag");
+
+            given()
+                    .header("If-None-Match", etag)
+            .when()
+                    .get("/mensagens/{id}", id)
+            .then()
+                    .statusCode(HttpStatus.NOT_MODIFIED.value())
+                    .header("ETag", equalTo(etag));
+
+        }
+
+    }
 }
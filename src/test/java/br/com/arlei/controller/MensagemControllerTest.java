@@ -1,10 +1,19 @@
 package br.com.arlei.controller;
 
+import br.com.arlei.exception.ChaveIdempotenciaReutilizadaException;
+import br.com.arlei.exception.MensagemFilaCheiaException;
 import br.com.arlei.exception.MensagemNotFoundException;
+import br.com.arlei.exception.MensagemVersaoConflitoException;
+import br.com.arlei.limite.IdentificacaoCliente;
 import br.com.arlei.model.Mensagem;
+import br.com.arlei.model.MensagemCursor;
+import br.com.arlei.model.ResultadoRegistro;
 import br.com.arlei.service.MensagemService;
 import br.com.arlei.utils.MensagemHelper;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -13,17 +22,28 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -42,7 +62,8 @@ public class MensagemControllerTest {
     @BeforeEach
     void setup(){
         mock = MockitoAnnotations.openMocks(this);
-        MensagemController mensagemController = new MensagemController(mensagemService);
+        MensagemController mensagemController = new MensagemController(mensagemService,
+                new ObjectMapper().findAndRegisterModules(), new IdentificacaoCliente("X-Cliente-Id"));
         // definindo o controle do nosso mockmvc
 
         mockMvc = MockMvcBuilders.standaloneSetup(mensagemController)
@@ -82,6 +103,86 @@ public class MensagemControllerTest {
 
 
         }
+        @Test
+        void devePermitirRegistrarMensagem_EmCbor() throws Exception {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.registrarMensagem(any(Mensagem.class)))
+                    .thenAnswer(i -> i.getArgument(0));
+
+            // Act
+            mockMvc.perform(post("/mensagens")
+                            .contentType(MediaType.APPLICATION_CBOR)
+                            .accept(MediaType.APPLICATION_CBOR)
+                            .content(new CBORMapper().findAndRegisterModules().writeValueAsBytes(mensagem)))
+                    .andExpect(status().isCreated())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+
+            // Assert
+            verify(mensagemService, times(1)).registrarMensagem(any(Mensagem.class));
+        }
+
+        @Test
+        void devePermitirRegistrarMensagem_ComIdempotencyKey() throws Exception {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.registrarMensagem(any(Mensagem.class), any(), eq("chave-1")))
+                    .thenAnswer(i -> i.getArgument(0));
+
+            // Act
+            mockMvc.perform(post("/mensagens")
+                            .header("Idempotency-Key", "chave-1")
+                            .header("X-Cliente-Id", "joe")
+                            .header("Prefer", "respond-async")
+                            .with(request -> {
+                                request.setRemoteAddr("10.0.0.1");
+                                return request;
+                            })
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(mensagem)))
+                    .andExpect(status().isCreated());
+
+            // Assert
+            verify(mensagemService, times(1))
+                    .registrarMensagem(any(Mensagem.class), eq("10.0.0.1|joe"), eq("chave-1"));
+            verify(mensagemService, never()).registrarMensagem(any(Mensagem.class));
+            verify(mensagemService, never()).enfileirarMensagem(any(Mensagem.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoIdempotencyKeyReutilizadaComOutraMensagem() throws Exception {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.registrarMensagem(any(Mensagem.class), any(), eq("chave-1")))
+                    .thenThrow(new ChaveIdempotenciaReutilizadaException(
+                            "Idempotency-Key já usada com outra mensagem"));
+
+            // Act e Assert
+            mockMvc.perform(post("/mensagens")
+                            .header("Idempotency-Key", "chave-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(mensagem)))
+                    .andExpect(status().isUnprocessableEntity())
+                    .andExpect(content().string("Idempotency-Key já usada com outra mensagem"));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRegistrarMensagem_Invalida() throws Exception {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setConteudo("");
+            var violacoes = Validation.buildDefaultValidatorFactory().getValidator().validate(mensagem);
+            when(mensagemService.registrarMensagem(any(Mensagem.class)))
+                    .thenThrow(new ConstraintViolationException(violacoes));
+
+            // Act e Assert
+            mockMvc.perform(post("/mensagens")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(mensagem)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$[0]").value("conteúdo não pode estar vazio"));
+        }
+
         @Test
         void deveGerarExcecao_QuandoRegistrarMensagem_PayloadComXml() throws Exception {
             String xmlPayload
@@ -94,6 +195,166 @@ public class MensagemControllerTest {
             verify(mensagemService, never()).registrarMensagem(any(Mensagem.class));
         }
 
+        @Test
+        void devePermitirRegistrarMensagem_Assincrona() throws Exception {
+            var id = UUID.fromString("259bdc02-1ab5-11ee-be56-0242ac120002");
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.enfileirarMensagem(any(Mensagem.class)))
+                    .thenReturn(Optional.of(id));
+
+            mockMvc.perform(post("/mensagens")
+                            .header("Prefer", "respond-async")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(mensagem)))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", "/mensagens/" + id))
+                    .andExpect(header().string("Preference-Applied", "respond-async"))
+                    .andExpect(jsonPath("$.id").value(id.toString()));
+            verify(mensagemService, never()).registrarMensagem(any(Mensagem.class));
+        }
+
+        @Test
+        void devePermitirRegistrarMensagem_QuandoModoAssincronoDesabilitado() throws Exception {
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.enfileirarMensagem(any(Mensagem.class)))
+                    .thenReturn(Optional.empty());
+            when(mensagemService.registrarMensagem(any(Mensagem.class)))
+                    .thenAnswer(i -> i.getArgument(0));
+
+            mockMvc.perform(post("/mensagens")
+                            .header("Prefer", "respond-async")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(mensagem)))
+                    .andExpect(status().isCreated());
+            verify(mensagemService, times(1)).registrarMensagem(any(Mensagem.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRegistrarMensagem_FilaCheia() throws Exception {
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.enfileirarMensagem(any(Mensagem.class)))
+                    .thenThrow(new MensagemFilaCheiaException("fila de registro cheia"));
+
+            mockMvc.perform(post("/mensagens")
+                            .header("Prefer", "respond-async")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(mensagem)))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(content().string("fila de registro cheia"));
+            verify(mensagemService, never()).registrarMensagem(any(Mensagem.class));
+        }
+
+    }
+
+    @Nested
+    class RegistrarMensagensEmLote{
+
+        @Test
+        void devePermitirRegistrarMensagensEmLote_PayloadComArray() throws Exception {
+            var id = UUID.randomUUID();
+            when(mensagemService.registrarMensagens(any()))
+                    .thenReturn(List.of(ResultadoRegistro.registrada(0, id)));
+
+            mockMvc.perform(post("/mensagens/lote")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(List.of(MensagemHelper.gerarMensagem()))))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$[0].indice").value(0))
+                    .andExpect(jsonPath("$[0].id").value(id.toString()))
+                    .andExpect(jsonPath("$[0].situacao").value("REGISTRADA"));
+            verify(mensagemService, times(1)).registrarMensagens(any());
+        }
+
+        @Test
+        void devePermitirRegistrarMensagensEmLote_PayloadComNdjson() throws Exception {
+            when(mensagemService.registrarMensagens(any())).thenAnswer(i -> {
+                Iterator<Mensagem> mensagens = i.getArgument(0);
+                var quantidade = 0;
+                while (mensagens.hasNext()) {
+                    mensagens.next();
+                    quantidade++;
+                }
+                return Collections.nCopies(quantidade, ResultadoRegistro.registrada(0, UUID.randomUUID()));
+            });
+            var ndjson = asJsonString(MensagemHelper.gerarMensagem()) + "\n"
+                    + asJsonString(MensagemHelper.gerarMensagem()) + "\n";
+
+            mockMvc.perform(post("/mensagens/lote")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(ndjson))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.length()").value(2));
+        }
+
+        @Test
+        void deveInformarItensGravados_QuandoLoteInterrompido() throws Exception {
+            var id = UUID.randomUUID();
+            when(mensagemService.registrarMensagens(any()))
+                    .thenReturn(List.of(ResultadoRegistro.registrada(0, id), ResultadoRegistro.ilegivel(1)));
+
+            mockMvc.perform(post("/mensagens/lote")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(asJsonString(MensagemHelper.gerarMensagem()) + "\n{\"usuario\": "))
+                    .andExpect(status().isMultiStatus())
+                    .andExpect(jsonPath("$[0].situacao").value("REGISTRADA"))
+                    .andExpect(jsonPath("$[1].situacao").value("ILEGIVEL"))
+                    .andExpect(jsonPath("$[1].erros[0]").value("lote inválido"));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRegistrarMensagensEmLote_PayloadInvalido() throws Exception {
+            when(mensagemService.registrarMensagens(any())).thenAnswer(i -> {
+                Iterator<Mensagem> mensagens = i.getArgument(0);
+                while (mensagens.hasNext()) {
+                    mensagens.next();
+                }
+                return List.of();
+            });
+
+            mockMvc.perform(post("/mensagens/lote")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content("{\"usuario\": "))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("lote inválido"));
+        }
+    }
+
+    @Nested
+    class BuscarMensagensPorTexto{
+        @Test
+        void devePermitirBuscarMensagensPorTexto() throws Exception {
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.buscarMensagens("conteudo", 20))
+                    .thenReturn(List.of(mensagem));
+
+            mockMvc.perform(get("/mensagens/busca")
+                            .param("q", "conteudo"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value(mensagem.getId().toString()));
+            verify(mensagemService, times(1)).buscarMensagens("conteudo", 20);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoConsultaVazia() throws Exception {
+            mockMvc.perform(get("/mensagens/busca")
+                            .param("q", " "))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("consulta inválida"));
+            verify(mensagemService, never()).buscarMensagens(any(), anyInt());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoLimiteForaDoIntervalo() throws Exception {
+            for (var limite : List.of("0", "-1", String.valueOf(MensagemController.LIMITE_MAXIMO_BUSCA + 1))) {
+                mockMvc.perform(get("/mensagens/busca")
+                                .param("q", "conteudo")
+                                .param("limite", limite))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(content().string("limite inválido"));
+            }
+            verify(mensagemService, never()).buscarMensagens(any(), anyInt());
+        }
     }
 
     @Nested
@@ -118,6 +379,28 @@ public class MensagemControllerTest {
             verify(mensagemService, times(1)).buscarMensagem(any(UUID.class));
         }
 
+        @Test
+        void devePermitirBuscarMensagem_EmCbor() throws Exception {
+            // Arrange
+            var id = UUID.fromString("259bdc02-1ab5-11ee-be56-0242ac120002");
+            var mensagem = MensagemHelper.gerarMensagemCompleta();
+            mensagem.setId(id);
+            when(mensagemService.buscarMensagem(any(UUID.class))).thenReturn(mensagem);
+
+            // Act
+            var resultado = mockMvc.perform(get("/mensagens/{id}", id)
+                            .accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andReturn();
+
+            // Assert
+            var mensagemRecebida = new CBORMapper().findAndRegisterModules()
+                    .readValue(resultado.getResponse().getContentAsByteArray(), Mensagem.class);
+            assertThat(mensagemRecebida.getId()).isEqualTo(id);
+            assertThat(mensagemRecebida.getConteudo()).isEqualTo(mensagem.getConteudo());
+        }
+
         @Test
         void deveGerarExcecao_QuandoBuscarMensagem_IdNaoExiste() throws Exception {
             var id = UUID.fromString("259bdc02-1ab5-11ee-be56-0242ac120002");
@@ -132,6 +415,37 @@ public class MensagemControllerTest {
                     .buscarMensagem(any(UUID.class));
         }
 
+        @Test
+        void devePermitirBuscarMensagem_ComETag() throws Exception {
+            var id = UUID.fromString("259bdc02-1ab5-11ee-be56-0242ac120002");
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(id);
+            mensagem.setVersao(3L);
+            mensagem.setGostei(7);
+
+            when(mensagemService.buscarMensagem(any(UUID.class))).thenReturn(mensagem);
+
+            mockMvc.perform(get("/mensagens/{id}", id))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"3-7\""));
+        }
+
+        @Test
+        void devePermitirBuscarMensagem_SemCorpoQuandoETagCorresponde() throws Exception {
+            var id = UUID.fromString("259bdc02-1ab5-11ee-be56-0242ac120002");
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(id);
+            mensagem.setVersao(3L);
+
+            when(mensagemService.buscarMensagem(any(UUID.class))).thenReturn(mensagem);
+
+            mockMvc.perform(get("/mensagens/{id}", id)
+                            .header("If-None-Match", "W/\"3-0\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", "\"3-0\""))
+                    .andExpect(content().string(""));
+        }
+
     }
 
     @Nested
@@ -214,6 +528,80 @@ public class MensagemControllerTest {
 
         }
 
+        @Test
+        void devePermitirAlterarMensagem_ComIfMatch() throws Exception {
+            var id = UUID.fromString("259bdc02-1ab5-11ee-be56-0242ac120002");
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(id);
+            var mensagemAlterada = mensagem.toBuilder().versao(4L).build();
+
+            when(mensagemService.alterarMensagem(any(UUID.class), any(Mensagem.class), eq(3L)))
+                    .thenReturn(mensagemAlterada);
+
+            mockMvc.perform(put("/mensagens/{id}", id)
+                            .header("If-Match", "\"3-0\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(mensagem)))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("ETag", "\"4-0\""));
+            verify(mensagemService, never()).alterarMensagem(any(UUID.class), any(Mensagem.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarMensagem_VersaoDesatualizada() throws Exception {
+            var id = UUID.fromString("259bdc02-1ab5-11ee-be56-0242ac120002");
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(id);
+
+            when(mensagemService.alterarMensagem(any(UUID.class), any(Mensagem.class), anyLong()))
+                    .thenThrow(new MensagemVersaoConflitoException("mensagem alterada por outra requisição"));
+
+            mockMvc.perform(put("/mensagens/{id}", id)
+                            .header("If-Match", "\"3-0\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(mensagem)))
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(content().string("mensagem alterada por outra requisição"));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarMensagem_IfMatchInvalido() throws Exception {
+            var id = UUID.fromString("259bdc02-1ab5-11ee-be56-0242ac120002");
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(id);
+
+            mockMvc.perform(put("/mensagens/{id}", id)
+                            .header("If-Match", "xpto")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(mensagem)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("If-Match inválido"));
+            verifyNoInteractions(mensagemService);
+        }
+
+    }
+
+    @Nested
+    class RegistrarGostei{
+        @Test
+        void devePermitirRegistrarGostei() throws Exception {
+
+            var id = UUID.fromString("259bdc02-1ab5-11ee-be56-0242ac120002");
+
+            mockMvc.perform(post("/mensagens/{id}/gostei", id))
+                    .andExpect(status().isAccepted())
+                    .andExpect(content().string("gostei registrado"));
+            verify(mensagemService, times(1)).registrarGostei(id);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRegistrarGostei_IdInvalido() throws Exception {
+
+            mockMvc.perform(post("/mensagens/{id}/gostei", "2"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("ID inválido"));
+            verify(mensagemService, never()).registrarGostei(any(UUID.class));
+        }
     }
 
     @Nested
@@ -271,6 +659,82 @@ public class MensagemControllerTest {
         }
     }
 
+    @Nested
+    class ExportarMensagens {
+        @Test
+        void devePermitirExportarMensagens() throws Exception {
+
+            var mensagem1 = MensagemHelper.gerarMensagem();
+            var mensagem2 = MensagemHelper.gerarMensagem();
+            doAnswer(i -> {
+                Consumer<Mensagem> destino = i.getArgument(0);
+                destino.accept(mensagem1);
+                destino.accept(mensagem2);
+                return null;
+            }).when(mensagemService).exportarMensagens(any());
+
+            MvcResult resultado = mockMvc.perform(get("/mensagens/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(resultado))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string(
+                            asJsonString(mensagem1) + "\n" + asJsonString(mensagem2)));
+            verify(mensagemService, times(1)).exportarMensagens(any());
+        }
+    }
+
+    @Nested
+    class ListarMensagemPorCursor {
+        @Test
+        void devePermitirListarMensagensPorCursor() throws Exception {
+
+            var mensagem = MensagemHelper.gerarMensagemCompleta();
+            var fatia = new SliceImpl<>(Collections.singletonList(mensagem), PageRequest.of(0, 1), true);
+            when(mensagemService.listarMensagens(isNull(), anyInt()))
+                    .thenReturn(fatia);
+
+            mockMvc.perform(get("/mensagens/cursor")
+                            .param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.mensagens[0].id").value(mensagem.getId().toString()))
+                    .andExpect(jsonPath("$.proximoCursor").value(MensagemCursor.de(mensagem).codificar()))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist());
+            verify(mensagemService, times(1))
+                    .listarMensagens(isNull(), anyInt());
+        }
+
+        @Test
+        void devePermitirListarMensagensPorCursor_QuandoInformadoCursor() throws Exception {
+
+            var mensagem = MensagemHelper.gerarMensagemCompleta();
+            var cursor = MensagemCursor.de(mensagem);
+            var fatia = new SliceImpl<Mensagem>(Collections.emptyList(), PageRequest.of(0, 10), false);
+            when(mensagemService.listarMensagens(any(MensagemCursor.class), anyInt()))
+                    .thenReturn(fatia);
+
+            mockMvc.perform(get("/mensagens/cursor")
+                            .param("cursor", cursor.codificar()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.mensagens").isEmpty())
+                    .andExpect(jsonPath("$.proximoCursor").doesNotExist());
+            verify(mensagemService, times(1)).listarMensagens(cursor, 10);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoCursorInvalido() throws Exception {
+
+            mockMvc.perform(get("/mensagens/cursor")
+                            .param("cursor", "xpto"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("cursor inválido"));
+            verify(mensagemService, never())
+                    .listarMensagens(any(MensagemCursor.class), anyInt());
+        }
+    }
+
 
     private String asJsonString(final Object obj) {
         try {
@@ -0,0 +1,70 @@
+package br.com.arlei.controller;
+
+import br.com.arlei.model.MensagemCursor;
+import br.com.arlei.service.MensagemService;
+import br.com.arlei.utils.MensagemHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class UsuarioControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private MensagemService mensagemService;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup(){
+        mock = MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new UsuarioController(mensagemService)).build();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void devePermitirListarMensagensDoUsuario() throws Exception {
+        var mensagem = MensagemHelper.gerarMensagemCompleta();
+        when(mensagemService.listarMensagensDoUsuario(eq("joe"), isNull(), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of(mensagem), PageRequest.of(0, 1), true));
+
+        mockMvc.perform(get("/usuarios/{usuario}/mensagens", "joe")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mensagens[0].usuario").value("joe"))
+                .andExpect(jsonPath("$.proximoCursor").value(MensagemCursor.de(mensagem).codificar()));
+        verify(mensagemService, times(1)).listarMensagensDoUsuario("joe", null, 1);
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoCursorInvalido() throws Exception {
+        mockMvc.perform(get("/usuarios/{usuario}/mensagens", "joe")
+                        .param("cursor", "xpto"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("cursor inválido"));
+        verify(mensagemService, never())
+                .listarMensagensDoUsuario(anyString(), any(MensagemCursor.class), anyInt());
+    }
+}
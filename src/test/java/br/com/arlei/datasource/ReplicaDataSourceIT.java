@@ -0,0 +1,102 @@
+package br.com.arlei.datasource;
+
+import br.com.arlei.utils.MensagemHelper;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Primário e réplica em dois bancos H2 em memória. A réplica recebe apenas o
+ * esquema e uma mensagem própria, simulando atraso na replicação.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:primario;DB_CLOSE_DELAY=-1",
+        "mensagem.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "mensagem.datasource.replica.username=sa",
+        "mensagem.datasource.replica.password=",
+        "mensagem.cache.tipo=nenhum",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class ReplicaDataSourceIT {
+
+    private static final String SOMENTE_NA_REPLICA = "7f6b1a2e-0c8d-4e5f-9a1b-2c3d4e5f6a7b";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    @Qualifier("primarioDataSource")
+    private DataSource primario;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+        var jdbcReplica = new JdbcTemplate(replica);
+        jdbcReplica.execute("DROP ALL OBJECTS");
+        new JdbcTemplate(primario).queryForList("SCRIPT NODATA", String.class).stream()
+                .filter(comando -> !comando.startsWith("--"))
+                .forEach(jdbcReplica::execute);
+        jdbcReplica.update("INSERT INTO mensagem (id, usuario, conteudo, gostei, versao) VALUES (?, 'Lia', 'na réplica', 0, 0)",
+                UUID.fromString(SOMENTE_NA_REPLICA));
+    }
+
+    @Test
+    void deveLerDaReplica_QuandoClienteNaoEscreveu() {
+        given()
+                .header(LeituraPropriaFilter.CLIENTE, "leitor")
+        .when()
+                .get("/mensagens/{id}", SOMENTE_NA_REPLICA)
+        .then()
+                .statusCode(HttpStatus.OK.value());
+    }
+
+    @Test
+    void deveLerDoPrimario_QuandoClienteAcabouDeEscrever() {
+        var id = given()
+                .header(LeituraPropriaFilter.CLIENTE, "escritor")
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(MensagemHelper.gerarMensagem())
+        .when()
+                .post("/mensagens")
+        .then()
+                .statusCode(HttpStatus.CREATED.value())
+                .extract().path("id");
+
+        // quem escreveu lê do primário
+        given()
+                .header(LeituraPropriaFilter.CLIENTE, "escritor")
+        .when()
+                .get("/mensagens/{id}", id)
+        .then()
+                .statusCode(HttpStatus.OK.value());
+
+        // os demais leem da réplica, que ainda não recebeu a mensagem
+        given()
+                .header(LeituraPropriaFilter.CLIENTE, "leitor")
+        .when()
+                .get("/mensagens/{id}", id)
+        .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.arlei.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class RoteamentoDataSourceTest {
+
+    AutoCloseable mock;
+    @Mock
+    private DataSource primario;
+    @Mock
+    private DataSource replica;
+    @Mock
+    private Connection conexaoPrimario;
+    @Mock
+    private Connection conexaoReplica;
+    private RoteamentoDataSource roteamentoDataSource;
+
+    @BeforeEach
+    void setup() throws Exception {
+        mock = MockitoAnnotations.openMocks(this);
+        when(primario.getConnection()).thenReturn(conexaoPrimario);
+        when(replica.getConnection()).thenReturn(conexaoReplica);
+        roteamentoDataSource = new RoteamentoDataSource(primario, replica);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        LeituraPropria.liberar();
+        mock.close();
+    }
+
+    @Test
+    void deveUsarPrimario_ForaDeTransacaoSomenteLeitura() throws Exception {
+        assertThat(roteamentoDataSource.getConnection()).isSameAs(conexaoPrimario);
+    }
+
+    @Test
+    void deveUsarReplica_EmTransacaoSomenteLeitura() throws Exception {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act e Assert
+        assertThat(roteamentoDataSource.getConnection()).isSameAs(conexaoReplica);
+    }
+
+    @Test
+    void deveUsarPrimario_QuandoClienteEscreveuRecentemente() throws Exception {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        LeituraPropria.exigirPrimario();
+
+        // Act e Assert
+        assertThat(roteamentoDataSource.getConnection()).isSameAs(conexaoPrimario);
+    }
+
+    @Test
+    void deveUsarPrimario_QuandoReplicaIndisponivel() throws Exception {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replica.getConnection()).thenThrow(new SQLException("conexão recusada"));
+
+        // Act e Assert
+        assertThat(roteamentoDataSource.getConnection()).isSameAs(conexaoPrimario);
+    }
+}
@@ -0,0 +1,271 @@
+package br.com.arlei.eventos;
+
+import br.com.arlei.service.MensagemEvento;
+import br.com.arlei.utils.MensagemHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MensagemEventoBusTest {
+
+    // executa as tarefas de envio apenas quando o teste chama executarEnvios()
+    private final Queue<Runnable> envios = new ArrayDeque<>();
+    private SimpleMeterRegistry meterRegistry;
+    private MensagemEventoBus mensagemEventoBus;
+
+    @BeforeEach
+    void setup(){
+        meterRegistry = new SimpleMeterRegistry();
+        mensagemEventoBus = new MensagemEventoBus(
+                new StreamProperties(3, 2, 1, Duration.ofMinutes(1), Duration.ofMillis(1)), envios::add, meterRegistry);
+    }
+
+    private void executarEnvios() {
+        while (!envios.isEmpty()) {
+            envios.poll().run();
+        }
+    }
+
+    private void publicar(int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            mensagemEventoBus.publicar(MensagemEvento.registrada(MensagemHelper.gerarMensagemCompleta()));
+        }
+    }
+
+    private static List<Long> ids(DestinoFake destino) {
+        return destino.recebidos.stream().map(EventoStream::id).toList();
+    }
+
+    @Test
+    void devePermitirReceberEventos_NaOrdemDePublicacao(){
+        // Arrange
+        var destino = new DestinoFake();
+        mensagemEventoBus.assinar(null, destino);
+
+        // Act
+        publicar(2);
+        executarEnvios();
+
+        // Assert
+        assertThat(ids(destino)).containsExactly(1L, 2L);
+        assertThat(destino.recebidos).extracting(EventoStream::nome).containsOnly("registrada");
+    }
+
+    @Test
+    void devePermitirRetomarPeloUltimoEventoRecebido(){
+        // Arrange
+        publicar(4);
+        var destino = new DestinoFake();
+
+        // Act
+        mensagemEventoBus.assinar(2L, destino);
+        executarEnvios();
+
+        // Assert
+        assertThat(ids(destino)).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void deveEnviarReinicio_QuandoEventosJaSairamDoHistorico(){
+        // Arrange
+        publicar(5);
+        var destino = new DestinoFake();
+
+        // Act
+        mensagemEventoBus.assinar(1L, destino);
+        executarEnvios();
+
+        // Assert
+        assertThat(destino.recebidos).extracting(EventoStream::nome).containsExactly(EventoStream.REINICIO);
+        assertThat(ids(destino)).containsExactly(5L);
+    }
+
+    @Test
+    void deveEnviarReinicio_QuandoUltimoEventoPosteriorAoServidor(){
+        // Arrange
+        publicar(1);
+        var destino = new DestinoFake();
+
+        // Act
+        mensagemEventoBus.assinar(50L, destino);
+        executarEnvios();
+
+        // Assert
+        assertThat(destino.recebidos).extracting(EventoStream::nome).containsExactly(EventoStream.REINICIO);
+    }
+
+    @Test
+    void deveDesconectarAssinante_QuandoNaoAcompanhaOsEventos(){
+        // Arrange
+        var destino = new DestinoFake();
+        mensagemEventoBus.assinar(null, destino);
+
+        // Act: buffer de 2 eventos sem nenhum envio executado
+        publicar(3);
+        executarEnvios();
+
+        // Assert
+        assertThat(destino.encerrado).isTrue();
+        assertThat(destino.recebidos).isEmpty();
+        assertThat(meterRegistry.counter("mensagem.stream.descartados").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("mensagem.stream.assinantes").gauge().value()).isZero();
+    }
+
+    @Test
+    void devePermitirRetomar_AposDesconexaoPorLentidao(){
+        // Arrange
+        var lento = new DestinoFake();
+        mensagemEventoBus.assinar(null, lento);
+        publicar(3);
+        var reconectado = new DestinoFake();
+
+        // Act
+        mensagemEventoBus.assinar(0L, reconectado);
+        executarEnvios();
+
+        // Assert
+        assertThat(lento.encerrado).isTrue();
+        assertThat(ids(reconectado)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void deveCancelarAssinante_QuandoEnvioFalha(){
+        // Arrange
+        var destino = new DestinoFake();
+        destino.falhar = true;
+        mensagemEventoBus.assinar(null, destino);
+
+        // Act
+        publicar(1);
+        executarEnvios();
+        publicar(1);
+        executarEnvios();
+
+        // Assert
+        assertThat(destino.tentativas).isEqualTo(1);
+        assertThat(meterRegistry.get("mensagem.stream.assinantes").gauge().value()).isZero();
+    }
+
+    @Test
+    void deveDesconectarAssinante_QuandoEnvioExcedeTimeout() throws Exception {
+        // Arrange
+        var destino = new DestinoBloqueado();
+        mensagemEventoBus.assinar(null, destino);
+        publicar(1);
+        var envio = new Thread(this::executarEnvios);
+        envio.start();
+        destino.iniciado.await();
+        Thread.sleep(10);
+
+        // Act
+        mensagemEventoBus.verificarEnvios();
+        envio.join(5_000);
+
+        // Assert
+        assertThat(envio.isAlive()).isFalse();
+        assertThat(destino.encerrado).isTrue();
+        assertThat(meterRegistry.counter("mensagem.stream.descartados").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("mensagem.stream.assinantes").gauge().value()).isZero();
+    }
+
+    @Test
+    void devePermitirPublicar_QuandoEnvioEstaBloqueado() throws Exception {
+        // Arrange
+        var bloqueado = new DestinoBloqueado();
+        var destino = new DestinoFake();
+        mensagemEventoBus.assinar(null, bloqueado);
+        publicar(1);
+        var envio = new Thread(this::executarEnvios);
+        envio.start();
+        bloqueado.iniciado.await();
+
+        // Act
+        var publicacao = new Thread(() -> publicar(1));
+        publicacao.start();
+        publicacao.join(5_000);
+        envio.interrupt();
+        envio.join(5_000);
+        mensagemEventoBus.assinar(1L, destino);
+        executarEnvios();
+
+        // Assert
+        assertThat(publicacao.isAlive()).isFalse();
+        assertThat(ids(destino)).containsExactly(2L);
+    }
+
+    @Test
+    void deveEncerrarThreadsDeEnvio_QuandoEncerrarBus() throws Exception {
+        // Arrange
+        var threads = Executors.newSingleThreadExecutor();
+        var bus = new MensagemEventoBus(
+                new StreamProperties(3, 2, 1, Duration.ofMinutes(1), Duration.ofMillis(1)), threads, meterRegistry);
+        var destino = new DestinoBloqueado();
+        bus.assinar(null, destino);
+        bus.publicar(MensagemEvento.registrada(MensagemHelper.gerarMensagemCompleta()));
+        destino.iniciado.await();
+
+        // Act
+        bus.encerrar();
+
+        // Assert
+        assertThat(threads.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(destino.encerrado).isTrue();
+    }
+
+    private static final class DestinoBloqueado implements MensagemEventoBus.Destino {
+
+        private final CountDownLatch iniciado = new CountDownLatch(1);
+        private volatile boolean encerrado;
+
+        @Override
+        public void enviar(EventoStream evento) throws IOException {
+            iniciado.countDown();
+            try {
+                // conexão que não aceita mais dados
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+        }
+
+        @Override
+        public void encerrar() {
+            encerrado = true;
+        }
+    }
+
+    private static final class DestinoFake implements MensagemEventoBus.Destino {
+
+        private final List<EventoStream> recebidos = new ArrayList<>();
+        private boolean encerrado;
+        private boolean falhar;
+        private int tentativas;
+
+        @Override
+        public void enviar(EventoStream evento) throws IOException {
+            tentativas++;
+            if (falhar) {
+                throw new IOException("conexão encerrada");
+            }
+            recebidos.add(evento);
+        }
+
+        @Override
+        public void encerrar() {
+            encerrado = true;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.arlei.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeradorTest {
+
+    private static final Instant INSTANTE = Instant.parse("2024-01-15T10:00:00Z");
+
+    @Test
+    void deveGerarUuid_ComVersaoEVarianteDaVersao7(){
+        // Arrange
+        var gerador = new UuidV7Gerador();
+
+        // Act
+        var id = gerador.gerar();
+
+        // Assert
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void deveGerarUuid_ComMilissegundosNosPrimeiros48Bits(){
+        // Arrange
+        var gerador = new UuidV7Gerador(Clock.fixed(INSTANTE, ZoneOffset.UTC));
+
+        // Act
+        var id = gerador.gerar();
+
+        // Assert
+        assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(INSTANTE.toEpochMilli());
+    }
+
+    @Test
+    void deveGerarUuidsCrescentes_QuandoContadorEstouraNoMesmoMilissegundo(){
+        // Arrange
+        var gerador = new UuidV7Gerador(Clock.fixed(INSTANTE, ZoneOffset.UTC));
+        var ids = new ArrayList<UUID>();
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(gerador.gerar());
+        }
+
+        // Assert
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void deveGerarUuidsCrescentes_QuandoRelogioVolta(){
+        // Arrange
+        var relogio = new RelogioAjustavel(INSTANTE);
+        var gerador = new UuidV7Gerador(relogio);
+
+        // Act
+        var primeiro = gerador.gerar();
+        relogio.instante = INSTANTE.minusSeconds(10);
+        var segundo = gerador.gerar();
+
+        // Assert
+        assertThat(segundo).isGreaterThan(primeiro);
+    }
+
+    @Test
+    void deveGerarUuidsUnicos_EntreThreads() throws Exception {
+        // Arrange
+        var gerador = new UuidV7Gerador();
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        List<Boolean> ordenados = Collections.synchronizedList(new ArrayList<>());
+        var executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                var anterior = gerador.gerar();
+                ids.add(anterior);
+                for (int j = 0; j < 10_000; j++) {
+                    var id = gerador.gerar();
+                    ordenados.add(id.compareTo(anterior) > 0);
+                    ids.add(id);
+                    anterior = id;
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Assert
+        assertThat(ids).hasSize(8 * 10_001);
+        assertThat(ordenados).containsOnly(true);
+    }
+
+    private static final class RelogioAjustavel extends Clock {
+
+        private Instant instante;
+
+        private RelogioAjustavel(Instant instante) {
+            this.instante = instante;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zona) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instante;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.arlei.idempotencia;
+
+import br.com.arlei.exception.ChaveIdempotenciaReutilizadaException;
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.utils.MensagemHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChavesIdempotenciaJdbcTest {
+
+    private static final Instant AGORA = Instant.parse("2024-05-20T10:00:00Z");
+
+    private static final IdempotenciaProperties PROPERTIES =
+            new IdempotenciaProperties(100, Duration.ofHours(1), true);
+
+    private static final Mensagem PEDIDO = MensagemHelper.gerarMensagem();
+
+    private static final String RESUMO = RegistroIdempotente.resumo(PEDIDO);
+
+    private EmbeddedDatabase banco;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        banco = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(banco);
+        jdbcTemplate.execute("CREATE TABLE mensagem (id UUID PRIMARY KEY)");
+        criarChaves(Clock.fixed(AGORA, ZoneOffset.UTC)).criarTabela();
+    }
+
+    @AfterEach
+    void tearDown() {
+        banco.shutdown();
+    }
+
+    private ChavesIdempotenciaJdbc criarChaves(Clock clock) {
+        return new ChavesIdempotenciaJdbc(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(banco)), PROPERTIES, clock);
+    }
+
+    private Supplier<Mensagem> registro() {
+        return () -> {
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(UUID.randomUUID());
+            jdbcTemplate.update("INSERT INTO mensagem (id) VALUES (?)", mensagem.getId());
+            return mensagem;
+        };
+    }
+
+    private long contarMensagens() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM mensagem", Long.class);
+    }
+
+    @Test
+    void devePermitirBuscarChave_AposRegistrar() {
+        // Arrange
+        var chaves = criarChaves(Clock.fixed(AGORA, ZoneOffset.UTC));
+
+        // Act
+        var mensagem = chaves.registrar("joe", "chave", RESUMO, registro());
+
+        // Assert
+        assertThat(chaves.buscar("joe", "chave"))
+                .contains(new ChavesIdempotenciaJdbc.ChaveRegistrada(mensagem.getId(), RESUMO));
+        assertThat(chaves.buscar("eva", "chave")).isEmpty();
+        assertThat(contarMensagens()).isEqualTo(1);
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoChaveJaRegistrada_DesfazendoMensagem() {
+        // Arrange
+        var chaves = criarChaves(Clock.fixed(AGORA, ZoneOffset.UTC));
+        chaves.registrar("joe", "chave", RESUMO, registro());
+
+        // Act & Assert
+        assertThatThrownBy(() -> chaves.registrar("joe", "chave", RESUMO, registro()))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThat(contarMensagens()).isEqualTo(1);
+    }
+
+    @Test
+    void devePermitirReutilizarChave_AposTtl() {
+        // Arrange
+        var primeira = criarChaves(Clock.fixed(AGORA, ZoneOffset.UTC)).registrar("joe", "chave", RESUMO, registro());
+        var chaves = criarChaves(Clock.fixed(AGORA.plus(Duration.ofHours(2)), ZoneOffset.UTC));
+
+        // Act
+        var vencida = chaves.buscar("joe", "chave");
+        var segunda = chaves.registrar("joe", "chave", RESUMO, registro());
+
+        // Assert
+        assertThat(vencida).isEmpty();
+        assertThat(segunda.getId()).isNotEqualTo(primeira.getId());
+        assertThat(chaves.buscar("joe", "chave"))
+                .map(ChavesIdempotenciaJdbc.ChaveRegistrada::mensagemId)
+                .contains(segunda.getId());
+    }
+
+    @Test
+    void devePermitirDevolverMensagemDaOutraInstancia_QuandoChaveGravadaPorEla() {
+        // Arrange
+        var chaves = criarChaves(Clock.fixed(AGORA, ZoneOffset.UTC));
+        var original = chaves.registrar("joe", "chave", RESUMO, registro());
+        var registroIdempotente = new RegistroIdempotente(PROPERTIES, Optional.of(chaves));
+
+        // Act
+        var mensagem = registroIdempotente.registrar("joe", "chave", PEDIDO, registro(), id -> {
+            var encontrada = MensagemHelper.gerarMensagem();
+            encontrada.setId(id);
+            return encontrada;
+        });
+
+        // Assert
+        assertThat(mensagem.getId()).isEqualTo(original.getId());
+        assertThat(contarMensagens()).isEqualTo(1);
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoOutraInstanciaGravouChaveComOutroPedido() {
+        // Arrange
+        var chaves = criarChaves(Clock.fixed(AGORA, ZoneOffset.UTC));
+        chaves.registrar("joe", "chave", RESUMO, registro());
+        var registroIdempotente = new RegistroIdempotente(PROPERTIES, Optional.of(chaves));
+        var outroPedido = PEDIDO.toBuilder().conteudo("outro conteudo").build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> registroIdempotente.registrar("joe", "chave", outroPedido, registro(), id -> {
+            throw new AssertionError("busca inesperada: " + id);
+        })).isInstanceOf(ChaveIdempotenciaReutilizadaException.class);
+        assertThat(contarMensagens()).isEqualTo(1);
+    }
+}
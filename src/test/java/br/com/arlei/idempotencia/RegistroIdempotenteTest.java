@@ -0,0 +1,151 @@
+package br.com.arlei.idempotencia;
+
+import br.com.arlei.exception.ChaveIdempotenciaReutilizadaException;
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.utils.MensagemHelper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RegistroIdempotenteTest {
+
+    private static final Mensagem PEDIDO = MensagemHelper.gerarMensagem();
+
+    private final RegistroIdempotente registroIdempotente =
+            new RegistroIdempotente(new IdempotenciaProperties(100, Duration.ofMinutes(1), false), Optional.empty());
+
+    private final AtomicInteger registros = new AtomicInteger();
+
+    private Supplier<Mensagem> registro() {
+        return () -> {
+            registros.incrementAndGet();
+            var mensagem = MensagemHelper.gerarMensagem();
+            mensagem.setId(UUID.randomUUID());
+            return mensagem;
+        };
+    }
+
+    private static Mensagem naoBuscar(UUID id) {
+        throw new AssertionError("busca inesperada: " + id);
+    }
+
+    private Mensagem registrar(String cliente, Mensagem pedido, Supplier<Mensagem> registro) {
+        return registroIdempotente.registrar(cliente, "chave", pedido, registro, RegistroIdempotenteTest::naoBuscar);
+    }
+
+    @Test
+    void devePermitirDevolverMensagemOriginal_QuandoChaveRepetida() {
+        // Act
+        var primeira = registrar("joe", PEDIDO, registro());
+        var repetida = registrar("joe", PEDIDO, registro());
+
+        // Assert
+        assertThat(repetida).isSameAs(primeira);
+        assertThat(registros).hasValue(1);
+    }
+
+    @Test
+    void devePermitirDevolverMensagemOriginal_QuandoPedidoRepetidoComOutroId() {
+        // Arrange: o id do corpo é descartado na gravação e não entra no resumo
+        var outroId = PEDIDO.toBuilder().id(UUID.randomUUID()).build();
+        var primeira = registrar("joe", PEDIDO, registro());
+
+        // Act
+        var repetida = registrar("joe", outroId, registro());
+
+        // Assert
+        assertThat(repetida).isSameAs(primeira);
+        assertThat(registros).hasValue(1);
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoChaveRepetidaComOutroPedido() {
+        // Arrange
+        registrar("joe", PEDIDO, registro());
+        var outroPedido = PEDIDO.toBuilder().conteudo("outro conteudo").build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> registrar("joe", outroPedido, registro()))
+                .isInstanceOf(ChaveIdempotenciaReutilizadaException.class);
+        assertThat(registros).hasValue(1);
+    }
+
+    @Test
+    void devePermitirRegistrarMensagensSeparadas_QuandoClientesUsamMesmaChave() {
+        // Act
+        var doJoe = registrar("joe", PEDIDO, registro());
+        var daEva = registrar("eva", PEDIDO, registro());
+
+        // Assert
+        assertThat(daEva.getId()).isNotEqualTo(doJoe.getId());
+        assertThat(registros).hasValue(2);
+    }
+
+    @Test
+    void devePermitirRegistrarUmaVez_QuandoRequisicoesConcorrentes() throws Exception {
+        // Arrange
+        var iniciado = new CountDownLatch(1);
+        var liberar = new CountDownLatch(1);
+        Supplier<Mensagem> registroLento = () -> {
+            iniciado.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return registro().get();
+        };
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Mensagem> primeira = executor.submit(
+                    () -> registrar("joe", PEDIDO, registroLento));
+            iniciado.await();
+            var repetidas = new ArrayList<Future<Mensagem>>();
+            for (int i = 0; i < 3; i++) {
+                repetidas.add(executor.submit(
+                        () -> registrar("joe", PEDIDO, registro())));
+            }
+
+            // Act
+            liberar.countDown();
+
+            // Assert
+            var original = primeira.get(5, TimeUnit.SECONDS);
+            for (var repetida : repetidas) {
+                assertThat(repetida.get(5, TimeUnit.SECONDS)).isSameAs(original);
+            }
+            assertThat(registros).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void devePermitirNovaTentativa_QuandoRegistroFalha() {
+        // Arrange
+        Supplier<Mensagem> falha = () -> {
+            throw new IllegalStateException("banco indisponível");
+        };
+        assertThatThrownBy(() -> registrar("joe", PEDIDO, falha))
+                .isInstanceOf(IllegalStateException.class);
+
+        // Act
+        var mensagem = registrar("joe", PEDIDO, registro());
+
+        // Assert
+        assertThat(mensagem).isNotNull();
+        assertThat(registros).hasValue(1);
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.arlei.limite;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimitadorTaxaTest {
+
+    private static final String ENDERECO = "10.0.0.1";
+
+    private final AtomicLong relogio = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    private LimitadorTaxa limitadorTaxa;
+
+    @BeforeEach
+    void setup() {
+        var properties = new LimiteProperties(true, "X-Cliente-Id", 2, 100, Duration.ofMinutes(1),
+                100, 5, 10, 2, new LimiteProperties.Concorrencia(true, 100, 10, 1000, 2.0, 0.2));
+        limitadorTaxa = new LimitadorTaxa(properties, relogio::get);
+    }
+
+    @Test
+    void devePermitirRajada_QuandoBaldeCheio() {
+        // Act & Assert
+        assertThat(limitadorTaxa.consumir(ENDERECO, "joe", true)).isZero();
+        assertThat(limitadorTaxa.consumir(ENDERECO, "joe", true)).isZero();
+        assertThat(limitadorTaxa.consumir(ENDERECO, "joe", true)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    void devePermitirNovaEscrita_AposReposicaoDoToken() {
+        // Arrange
+        limitadorTaxa.consumir(ENDERECO, "joe", true);
+        limitadorTaxa.consumir(ENDERECO, "joe", true);
+
+        // Act
+        relogio.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        // Assert
+        assertThat(limitadorTaxa.consumir(ENDERECO, "joe", true)).isZero();
+        assertThat(limitadorTaxa.consumir(ENDERECO, "joe", true)).isPositive();
+    }
+
+    @Test
+    void devePermitirLeitura_QuandoEscritaEsgotada() {
+        // Arrange
+        limitadorTaxa.consumir(ENDERECO, "joe", true);
+        limitadorTaxa.consumir(ENDERECO, "joe", true);
+
+        // Act
+        var espera = limitadorTaxa.consumir(ENDERECO, "joe", false);
+
+        // Assert
+        assertThat(espera).isZero();
+    }
+
+    @Test
+    void devePermitirEscritaDeOutroCliente_QuandoClienteEsgotouBalde() {
+        // Arrange
+        limitadorTaxa.consumir(ENDERECO, "joe", true);
+        limitadorTaxa.consumir(ENDERECO, "joe", true);
+
+        // Act
+        var espera = limitadorTaxa.consumir(ENDERECO, "eva", true);
+
+        // Assert
+        assertThat(espera).isZero();
+        assertThat(limitadorTaxa.consumir(ENDERECO, "joe", true)).isPositive();
+    }
+
+    @Test
+    void deveLimitarEndereco_QuandoClienteTrocaCabecalho() {
+        // Arrange: o endereço vale 2 clientes, 4 escritas seguidas
+        for (int i = 0; i < 4; i++) {
+            limitadorTaxa.consumir(ENDERECO, "cliente" + i, true);
+        }
+
+        // Act
+        var espera = limitadorTaxa.consumir(ENDERECO, "cliente-novo", true);
+
+        // Assert
+        assertThat(espera).isPositive();
+        assertThat(limitadorTaxa.consumir("10.0.0.2", "cliente-novo", true)).isZero();
+    }
+
+    @Test
+    void naoDeveConsumirBaldeDoCliente_QuandoEnderecoRecusa() {
+        // Arrange: o endereço esgotado por outros clientes recusa a primeira escrita do joe
+        for (int i = 0; i < 4; i++) {
+            limitadorTaxa.consumir(ENDERECO, "cliente" + i, true);
+        }
+        assertThat(limitadorTaxa.consumir(ENDERECO, "joe", true)).isPositive();
+
+        // Act: o endereço repõe um token a cada 50ms, o cliente a cada 100ms
+        relogio.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        var primeira = limitadorTaxa.consumir(ENDERECO, "joe", true);
+        relogio.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        var segunda = limitadorTaxa.consumir(ENDERECO, "joe", true);
+
+        // Assert: a rajada do joe continua inteira
+        assertThat(primeira).isZero();
+        assertThat(segunda).isZero();
+    }
+}
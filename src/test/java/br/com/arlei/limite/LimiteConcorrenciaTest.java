@@ -0,0 +1,81 @@
+package br.com.arlei.limite;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimiteConcorrenciaTest {
+
+    private static final long LATENCIA = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final LimiteConcorrencia limiteConcorrencia =
+            new LimiteConcorrencia(new LimiteProperties.Concorrencia(true, 20, 5, 100, 2.0, 0.2));
+
+    // ocupa todas as vagas e as libera com a latência informada
+    private void rodada(long latencia) {
+        var vagas = limiteConcorrencia.limite();
+        for (int i = 0; i < vagas; i++) {
+            limiteConcorrencia.adquirir();
+        }
+        for (int i = 0; i < vagas; i++) {
+            limiteConcorrencia.liberar(latencia);
+        }
+    }
+
+    @Test
+    void deveRecusar_QuandoLimiteAtingido() {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiteConcorrencia.adquirir()).isTrue();
+        }
+
+        // Act
+        var adquiriu = limiteConcorrencia.adquirir();
+
+        // Assert
+        assertThat(adquiriu).isFalse();
+        assertThat(limiteConcorrencia.emAndamento()).isEqualTo(20);
+    }
+
+    @Test
+    void deveAumentarLimite_QuandoLatenciaEstavel() {
+        // Act
+        for (int i = 0; i < 10; i++) {
+            rodada(LATENCIA);
+        }
+
+        // Assert
+        assertThat(limiteConcorrencia.limite()).isGreaterThan(20);
+    }
+
+    @Test
+    void deveReduzirLimite_QuandoLatenciaSobe() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            rodada(LATENCIA);
+        }
+        var limiteAntes = limiteConcorrencia.limite();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            rodada(LATENCIA * 10);
+        }
+
+        // Assert
+        assertThat(limiteConcorrencia.limite()).isLessThan(limiteAntes).isGreaterThanOrEqualTo(5);
+    }
+
+    @Test
+    void naoDeveAlterarLimite_QuandoPoucasRequisicoesEmAndamento() {
+        // Act
+        for (int i = 0; i < 100; i++) {
+            limiteConcorrencia.adquirir();
+            limiteConcorrencia.liberar(LATENCIA * (i % 2 == 0 ? 1 : 50));
+        }
+
+        // Assert
+        assertThat(limiteConcorrencia.limite()).isEqualTo(20);
+    }
+}
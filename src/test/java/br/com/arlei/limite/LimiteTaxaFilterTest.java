@@ -0,0 +1,172 @@
+package br.com.arlei.limite;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimiteTaxaFilterTest {
+
+    private final AtomicLong relogio = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    private final LimiteProperties properties = new LimiteProperties(true, "X-Cliente-Id", 2, 100, Duration.ofMinutes(1),
+            100, 5, 0.5, 1, new LimiteProperties.Concorrencia(true, 1, 1, 10, 2.0, 0.2));
+
+    private LimiteConcorrencia limiteConcorrencia;
+
+    private LimiteConcorrencia concorrenciaEscrita;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LimiteTaxaFilter filtro;
+
+    @BeforeEach
+    void setup() {
+        limiteConcorrencia = new LimiteConcorrencia(properties.concorrencia());
+        concorrenciaEscrita = new LimiteConcorrencia(properties.concorrencia());
+        meterRegistry = new SimpleMeterRegistry();
+        filtro = new LimiteTaxaFilter(properties, new LimitadorTaxa(properties, relogio::get),
+                Optional.of(limiteConcorrencia), Optional.of(concorrenciaEscrita), meterRegistry);
+    }
+
+    private static MockHttpServletRequest requisicao(String metodo, String uri, String cliente) {
+        var request = new MockHttpServletRequest(metodo, uri);
+        request.addHeader("X-Cliente-Id", cliente);
+        return request;
+    }
+
+    private MockHttpServletResponse executar(MockHttpServletRequest request) throws Exception {
+        var response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoClienteExcedeTaxaDeEscrita() throws Exception {
+        // Arrange
+        executar(requisicao("POST", "/mensagens", "joe"));
+
+        // Act
+        var response = executar(requisicao("POST", "/mensagens", "joe"));
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentAsString()).isEqualTo("limite de requisições excedido");
+        assertThat(meterRegistry.counter("mensagem.limite.recusadas", "motivo", "taxa").count()).isEqualTo(1);
+    }
+
+    @Test
+    void devePermitirLeituraEOutrosClientes_QuandoClienteExcedeTaxaDeEscrita() throws Exception {
+        // Arrange
+        executar(requisicao("POST", "/mensagens", "joe"));
+
+        // Act
+        var leitura = executar(requisicao("GET", "/mensagens", "joe"));
+        var outroCliente = executar(requisicao("POST", "/mensagens", "eva"));
+
+        // Assert
+        assertThat(leitura.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(outroCliente.getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void devePermitirIdentificarCliente_PeloEnderecoRemoto() throws Exception {
+        // Arrange
+        var primeira = new MockHttpServletRequest("POST", "/mensagens");
+        primeira.setRemoteAddr("10.0.0.1");
+        executar(primeira);
+        var segunda = new MockHttpServletRequest("POST", "/mensagens");
+        segunda.setRemoteAddr("10.0.0.1");
+
+        // Act
+        var response = executar(segunda);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoLimiteDeConcorrenciaAtingido() throws Exception {
+        // Arrange
+        limiteConcorrencia.adquirir();
+
+        // Act
+        var response = executar(requisicao("GET", "/mensagens", "joe"));
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(meterRegistry.counter("mensagem.limite.recusadas", "motivo", "concorrencia").count()).isEqualTo(1);
+    }
+
+    @Test
+    void devePermitirStream_QuandoLimiteDeConcorrenciaAtingido() throws Exception {
+        // Arrange
+        limiteConcorrencia.adquirir();
+
+        // Act
+        var response = executar(requisicao("GET", "/mensagens/stream", "joe"));
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void devePermitirLote_QuandoLimiteDeConcorrenciaAtingido() throws Exception {
+        // Arrange
+        concorrenciaEscrita.adquirir();
+
+        // Act
+        var response = executar(requisicao("POST", "/mensagens/lote", "joe"));
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void devePermitirLeitura_QuandoLimiteDeEscritaAtingido() throws Exception {
+        // Arrange
+        concorrenciaEscrita.adquirir();
+
+        // Act
+        var leitura = executar(requisicao("GET", "/mensagens", "joe"));
+        var escrita = executar(requisicao("POST", "/mensagens", "joe"));
+
+        // Assert
+        assertThat(leitura.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(escrita.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoClienteTrocaCabecalhoNoMesmoEndereco() throws Exception {
+        // Arrange: escrita com rajada 1 e 2 clientes por endereço
+        executar(requisicao("POST", "/mensagens", "cliente1"));
+        executar(requisicao("POST", "/mensagens", "cliente2"));
+
+        // Act
+        var response = executar(requisicao("POST", "/mensagens", "cliente3"));
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    void deveLiberarVaga_AposRequisicao() throws Exception {
+        // Act
+        executar(requisicao("GET", "/mensagens", "joe"));
+
+        // Assert
+        assertThat(limiteConcorrencia.emAndamento()).isZero();
+    }
+}
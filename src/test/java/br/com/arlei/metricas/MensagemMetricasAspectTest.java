@@ -0,0 +1,200 @@
+package br.com.arlei.metricas;
+
+import br.com.arlei.controller.MensagemController;
+import br.com.arlei.exception.MensagemFilaCheiaException;
+import br.com.arlei.exception.MensagemNotFoundException;
+import br.com.arlei.limite.IdentificacaoCliente;
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.service.MensagemService;
+import br.com.arlei.utils.MensagemHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+class MensagemMetricasAspectTest {
+
+    AutoCloseable mock;
+    @Mock
+    private MensagemService mensagemService;
+    private SimpleMeterRegistry meterRegistry;
+    private MensagemMetricasAspect aspect;
+
+    @BeforeEach
+    void setup(){
+        mock = MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new MensagemMetricasAspect(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    private long contagem(String nome, String operacao, String resultado) {
+        var timer = meterRegistry.find(nome)
+                .tag("operacao", operacao)
+                .tag("resultado", resultado)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Nested
+    class Servico {
+
+        private MensagemService servico;
+
+        @BeforeEach
+        void setup(){
+            var factory = new AspectJProxyFactory(mensagemService);
+            factory.addAspect(aspect);
+            servico = factory.getProxy();
+        }
+
+        @Test
+        void deveRegistrarTempo_ComResultadoSucesso(){
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.buscarMensagem(any(UUID.class))).thenReturn(mensagem);
+
+            // Act
+            servico.buscarMensagem(UUID.randomUUID());
+
+            // Assert
+            assertThat(contagem("mensagem.servico", "buscarMensagem", MensagemMetricasAspect.SUCESSO))
+                    .isEqualTo(1);
+        }
+
+        @Test
+        void deveRegistrarTempo_ComResultadoNaoEncontrada(){
+            // Arrange
+            when(mensagemService.buscarMensagem(any(UUID.class)))
+                    .thenThrow(new MensagemNotFoundException("Mensagem não encontrada"));
+
+            // Act
+            assertThatThrownBy(() -> servico.buscarMensagem(UUID.randomUUID()))
+                    .isInstanceOf(MensagemNotFoundException.class);
+
+            // Assert
+            assertThat(contagem("mensagem.servico", "buscarMensagem", MensagemMetricasAspect.NAO_ENCONTRADA))
+                    .isEqualTo(1);
+        }
+
+        @Test
+        void deveRegistrarTempo_ComResultadoIdInvalido(){
+            // Arrange
+            when(mensagemService.alterarMensagem(any(UUID.class), any()))
+                    .thenThrow(new IllegalArgumentException("mensagem não apresenta o ID correto"));
+            var mensagem = MensagemHelper.gerarMensagem();
+
+            // Act
+            assertThatThrownBy(() -> servico.alterarMensagem(UUID.randomUUID(), mensagem))
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            // Assert
+            assertThat(contagem("mensagem.servico", "alterarMensagem", MensagemMetricasAspect.ID_INVALIDO))
+                    .isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class Requisicao {
+
+        private MensagemController controller;
+
+        @BeforeEach
+        void setup(){
+            var factory = new AspectJProxyFactory(
+                    new MensagemController(mensagemService, new ObjectMapper().findAndRegisterModules(),
+                            new IdentificacaoCliente("X-Cliente-Id")));
+            factory.setProxyTargetClass(true);
+            factory.addAspect(aspect);
+            controller = factory.getProxy();
+        }
+
+        @Test
+        void deveRegistrarTempo_ConformeStatusDaResposta(){
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            var id = UUID.randomUUID();
+            when(mensagemService.buscarMensagem(any(UUID.class)))
+                    .thenAnswer(invocacao -> Optional.of(invocacao.getArgument(0, UUID.class))
+                            .filter(id::equals)
+                            .map(valor -> mensagem)
+                            .orElseThrow(() -> new MensagemNotFoundException("Mensagem não encontrada")));
+
+            // Act
+            controller.buscarMensagem(id.toString(), null);
+            controller.buscarMensagem(UUID.randomUUID().toString(), null);
+            controller.buscarMensagem("2", null);
+
+            // Assert
+            assertThat(contagem("mensagem.requisicao", "buscarMensagem", MensagemMetricasAspect.SUCESSO))
+                    .isEqualTo(1);
+            assertThat(contagem("mensagem.requisicao", "buscarMensagem", MensagemMetricasAspect.NAO_ENCONTRADA))
+                    .isEqualTo(1);
+            assertThat(contagem("mensagem.requisicao", "buscarMensagem", MensagemMetricasAspect.ID_INVALIDO))
+                    .isEqualTo(1);
+        }
+
+        @Test
+        void deveRegistrarTempo_ConformeCausaDaRecusa(){
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagem();
+            when(mensagemService.registrarMensagem(any(Mensagem.class)))
+                    .thenThrow(new MensagemFilaCheiaException("fila de registro cheia"));
+
+            // Act
+            controller.buscarMensagens(" ", 20);
+            controller.registrarMensagem(mensagem, null, null, null);
+
+            // Assert
+            assertThat(contagem("mensagem.requisicao", "buscarMensagens", MensagemMetricasAspect.INVALIDO))
+                    .isEqualTo(1);
+            assertThat(contagem("mensagem.requisicao", "buscarMensagens", MensagemMetricasAspect.ID_INVALIDO))
+                    .isZero();
+            assertThat(contagem("mensagem.requisicao", "registrarMensagem", MensagemMetricasAspect.LIMITADO))
+                    .isEqualTo(1);
+        }
+
+        @Test
+        void deveRegistrarTempoDaExportacao_SomenteAposEscreverCorpo() throws Exception {
+            // Arrange
+            var mensagem = MensagemHelper.gerarMensagemCompleta();
+            doAnswer(invocacao -> {
+                invocacao.<Consumer<Mensagem>>getArgument(0).accept(mensagem);
+                return null;
+            }).when(mensagemService).exportarMensagens(any());
+            var resposta = controller.exportarMensagens();
+
+            assertThat(contagem("mensagem.requisicao", "exportarMensagens", MensagemMetricasAspect.SUCESSO))
+                    .isZero();
+
+            // Act
+            var saida = new ByteArrayOutputStream();
+            resposta.getBody().writeTo(saida);
+
+            // Assert
+            assertThat(saida.size()).isPositive();
+            assertThat(contagem("mensagem.requisicao", "exportarMensagens", MensagemMetricasAspect.SUCESSO))
+                    .isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.arlei.particao;
+
+import br.com.arlei.busca.BuscaMensagem;
+import br.com.arlei.cache.MensagemCache;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.BadSqlGrammarException;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ManutencaoParticoesTest {
+
+    private static final Clock RELOGIO = Clock.fixed(Instant.parse("2024-05-20T10:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private GerenciadorParticoes gerenciadorParticoes;
+
+    @Mock
+    private MensagemCache mensagemCache;
+
+    @Mock
+    private BuscaMensagem buscaMensagem;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private org.hibernate.Cache cacheHibernate;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(cache.unwrap(org.hibernate.Cache.class)).thenReturn(cacheHibernate);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    private ManutencaoParticoes criarManutencao(Period retencao) {
+        var properties = new ParticaoProperties("postgres", 3, retencao, AcaoRetencao.REMOVER);
+        return new ManutencaoParticoes(gerenciadorParticoes, properties, mensagemCache, buscaMensagem,
+                entityManagerFactory, RELOGIO);
+    }
+
+    @Test
+    void devePermitirCriarParticoes_SemRetencao() {
+        // Act
+        criarManutencao(null).executar();
+
+        // Assert
+        verify(gerenciadorParticoes).criarParticoes(YearMonth.of(2024, 5), 3);
+        verify(gerenciadorParticoes, never()).aplicarRetencao(any(), any());
+    }
+
+    @Test
+    void devePermitirAplicarRetencao_InvalidandoCaches() {
+        // Arrange
+        var limite = LocalDateTime.of(2023, 5, 20, 0, 0);
+        when(gerenciadorParticoes.aplicarRetencao(limite, AcaoRetencao.REMOVER)).thenReturn(true);
+
+        // Act
+        criarManutencao(Period.ofMonths(12)).executar();
+
+        // Assert
+        verify(gerenciadorParticoes).aplicarRetencao(limite, AcaoRetencao.REMOVER);
+        verify(mensagemCache).invalidarAnterioresA(limite);
+        verify(buscaMensagem).removerAnterioresA(limite);
+        verify(cacheHibernate).evictAllRegions();
+    }
+
+    @Test
+    void naoDeveInvalidarCaches_QuandoNadaFoiRetirado() {
+        // Arrange
+        when(gerenciadorParticoes.aplicarRetencao(any(), any())).thenReturn(false);
+
+        // Act
+        criarManutencao(Period.ofMonths(12)).executar();
+
+        // Assert
+        verifyNoInteractions(mensagemCache, cacheHibernate);
+    }
+
+    @Test
+    void devePermitirAplicarRetencao_QuandoFalharCriacaoDeParticoes() {
+        // Arrange
+        var limite = LocalDateTime.of(2023, 5, 20, 0, 0);
+        doThrow(new CannotAcquireLockException("lock_timeout"))
+                .when(gerenciadorParticoes).criarParticoes(any(), anyInt());
+        when(gerenciadorParticoes.aplicarRetencao(limite, AcaoRetencao.REMOVER)).thenReturn(true);
+
+        // Act
+        criarManutencao(Period.ofMonths(12)).iniciar();
+
+        // Assert
+        verify(mensagemCache).invalidarAnterioresA(limite);
+    }
+
+    @Test
+    void naoDeveGerarExcecao_QuandoFalharRetencao() {
+        // Arrange
+        when(gerenciadorParticoes.aplicarRetencao(any(), any()))
+                .thenThrow(new BadSqlGrammarException("retencao", "DROP TABLE", new SQLException()));
+
+        // Act
+        criarManutencao(Period.ofMonths(12)).iniciar();
+
+        // Assert
+        verifyNoInteractions(mensagemCache);
+    }
+}
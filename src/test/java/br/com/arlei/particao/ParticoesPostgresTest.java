@@ -0,0 +1,111 @@
+package br.com.arlei.particao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ParticoesPostgresTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ParticoesPostgres particoes;
+
+    AutoCloseable mock;
+
+    @BeforeEach
+    void setup() {
+        mock = MockitoAnnotations.openMocks(this);
+        particoes = new ParticoesPostgres(jdbcTemplate);
+        when(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                ParticoesPostgres.CHAVE_LOCK)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void devePermitirCriarParticoes_DoMesAtualEFuturas() {
+        // Act
+        particoes.criarParticoes(YearMonth.of(2024, 11), 2);
+
+        // Assert
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS mensagem_p2024_11 PARTITION OF mensagem"
+                + " FOR VALUES FROM ('2024-11-01') TO ('2024-12-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS mensagem_p2024_12 PARTITION OF mensagem"
+                + " FOR VALUES FROM ('2024-12-01') TO ('2025-01-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS mensagem_p2025_01 PARTITION OF mensagem"
+                + " FOR VALUES FROM ('2025-01-01') TO ('2025-02-01')");
+        verify(jdbcTemplate).execute("SET LOCAL lock_timeout = '5s'");
+        verify(jdbcTemplate).queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                ParticoesPostgres.CHAVE_LOCK);
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void devePermitirRetirarApenasParticoes_InteiramenteAnterioresAoLimite() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("mensagem_padrao", "mensagem_p2024_01", "mensagem_p2024_02", "mensagem_p2024_03"));
+
+        // Act: fevereiro termina antes do limite, março ainda tem mensagens dentro da retenção
+        var retiradas = particoes.aplicarRetencao(LocalDateTime.of(2024, 3, 15, 0, 0), AcaoRetencao.REMOVER);
+
+        // Assert
+        assertThat(retiradas).isTrue();
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS mensagem_p2024_01");
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS mensagem_p2024_02");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS mensagem_p2024_03");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS mensagem_padrao");
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    void devePermitirDesanexarParticoes_QuandoAcaoDesanexar() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("mensagem_p2024_01"));
+
+        // Act
+        particoes.aplicarRetencao(LocalDateTime.of(2024, 2, 1, 0, 0), AcaoRetencao.DESANEXAR);
+
+        // Assert
+        verify(jdbcTemplate).execute("ALTER TABLE mensagem DETACH PARTITION mensagem_p2024_01");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS mensagem_p2024_01");
+    }
+
+    @Test
+    void naoDeveRetirarParticoes_QuandoOutraInstanciaTemOLock() {
+        // Arrange
+        when(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                ParticoesPostgres.CHAVE_LOCK)).thenReturn(false);
+
+        // Act
+        var retiradas = particoes.aplicarRetencao(LocalDateTime.of(2024, 2, 1, 0, 0), AcaoRetencao.REMOVER);
+
+        // Assert
+        assertThat(retiradas).isFalse();
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+    }
+
+    @Test
+    void deveIdentificarMes_PeloNomeDaParticao() {
+        assertThat(ParticoesPostgres.mes(ParticoesPostgres.nome(YearMonth.of(2025, 7))))
+                .contains(YearMonth.of(2025, 7));
+        assertThat(ParticoesPostgres.mes("mensagem_padrao")).isEmpty();
+    }
+}
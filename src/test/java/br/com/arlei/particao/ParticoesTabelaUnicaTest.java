@@ -0,0 +1,89 @@
+package br.com.arlei.particao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParticoesTabelaUnicaTest {
+
+    private static final LocalDateTime LIMITE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private EmbeddedDatabase banco;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ParticoesTabelaUnica particoes;
+
+    @BeforeEach
+    void setup() {
+        banco = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(banco);
+        jdbcTemplate.execute("CREATE TABLE mensagem (id UUID PRIMARY KEY, usuario VARCHAR(255),"
+                + " conteudo VARCHAR(255), data_criacao TIMESTAMP(6), data_alteracao TIMESTAMP(6),"
+                + " gostei INTEGER NOT NULL DEFAULT 0, versao BIGINT DEFAULT 0)");
+        inserir(LIMITE.minusMonths(3));
+        inserir(LIMITE.minusSeconds(1));
+        inserir(LIMITE);
+        inserir(LIMITE.plusDays(10));
+        particoes = new ParticoesTabelaUnica(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        banco.shutdown();
+    }
+
+    private void inserir(LocalDateTime dataCriacao) {
+        jdbcTemplate.update("INSERT INTO mensagem (id, usuario, conteudo, data_criacao, data_alteracao)"
+                + " VALUES (?, 'joe', 'conteudo', ?, ?)", UUID.randomUUID(), dataCriacao, dataCriacao);
+    }
+
+    private long contar(String tabela) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + tabela, Long.class);
+    }
+
+    @Test
+    void devePermitirRemoverMensagens_AnterioresAoLimite() {
+        // Act
+        var retiradas = particoes.aplicarRetencao(LIMITE, AcaoRetencao.REMOVER);
+
+        // Assert
+        assertThat(retiradas).isTrue();
+        assertThat(contar("mensagem")).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT min(data_criacao) FROM mensagem", LocalDateTime.class)).isEqualTo(LIMITE);
+    }
+
+    @Test
+    void devePermitirDesanexarMensagens_CopiandoParaArquivo() {
+        // Act
+        var retiradas = particoes.aplicarRetencao(LIMITE, AcaoRetencao.DESANEXAR);
+
+        // Assert
+        assertThat(retiradas).isTrue();
+        assertThat(contar("mensagem")).isEqualTo(2);
+        assertThat(contar(ParticoesTabelaUnica.TABELA_ARQUIVO)).isEqualTo(2);
+    }
+
+    @Test
+    void naoDeveRetirarMensagens_QuandoTodasDentroDaRetencao() {
+        // Act
+        var retiradas = particoes.aplicarRetencao(LIMITE.minusYears(1), AcaoRetencao.REMOVER);
+
+        // Assert
+        assertThat(retiradas).isFalse();
+        assertThat(contar("mensagem")).isEqualTo(4);
+    }
+}
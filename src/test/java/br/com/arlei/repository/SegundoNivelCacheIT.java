@@ -0,0 +1,72 @@
+package br.com.arlei.repository;
+
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.utils.MensagemHelper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sem @Transactional: o cache de segundo nível só vê o que foi confirmado
+@SpringBootTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+class SegundoNivelCacheIT {
+
+    @Autowired
+    private MensagemRepository mensagemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void devePermitirManterOutrasMensagensNoCache_QuandoGravarGostei() {
+        // Arrange
+        var alterada = MensagemHelper.gerarMensagem();
+        var outra = MensagemHelper.gerarMensagem();
+        mensagemRepository.persistirEmLote(List.of(alterada, outra));
+        mensagemRepository.findById(alterada.getId());
+        mensagemRepository.findById(outra.getId());
+
+        // Act
+        mensagemRepository.incrementarGostei(alterada.getId(), 3);
+
+        // Assert
+        assertThat(entityManagerFactory.getCache().contains(Mensagem.class, outra.getId())).isTrue();
+        assertThat(mensagemRepository.findById(alterada.getId()))
+                .hasValueSatisfying(mensagem -> assertThat(mensagem.getGostei()).isEqualTo(3));
+    }
+
+    @Test
+    void devePermitirListarPaginaAtualizada_QuandoAlterarERemoverMensagem() {
+        // Arrange
+        var alterada = MensagemHelper.gerarMensagem();
+        var removida = MensagemHelper.gerarMensagem();
+        mensagemRepository.persistirEmLote(List.of(alterada, removida));
+        var pagina = PageRequest.of(0, 1000);
+        assertThat(mensagemRepository.listarMensagensEmCache(pagina).getContent())
+                .extracting(Mensagem::getId)
+                .contains(alterada.getId(), removida.getId());
+
+        // Act
+        mensagemRepository.alterarConteudo(alterada.getId(), "conteudo alterado", LocalDateTime.now());
+        mensagemRepository.removerPorId(removida.getId());
+
+        // Assert
+        var conteudo = mensagemRepository.listarMensagensEmCache(pagina).getContent();
+        assertThat(conteudo).extracting(Mensagem::getId).doesNotContain(removida.getId());
+        assertThat(conteudo)
+                .filteredOn(mensagem -> mensagem.getId().equals(alterada.getId()))
+                .singleElement()
+                .satisfies(mensagem -> assertThat(mensagem.getConteudo()).isEqualTo("conteudo alterado"));
+        assertThat(mensagemRepository.findById(removida.getId())).isEmpty();
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.arlei.service;
+
+import br.com.arlei.busca.BuscaMensagem;
+import br.com.arlei.repository.MensagemRepository;
+import br.com.arlei.utils.MensagemHelper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Escritor real sobre um H2 próprio: a chave duplicada vem do banco, traduzida
+ * pelo JPA, e não de um mock.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fila-registro;DB_CLOSE_DELAY=-1",
+        "mensagem.assincrono.habilitado=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class FilaRegistroIT {
+
+    @Autowired
+    private FilaRegistro filaRegistro;
+
+    @Autowired
+    private MensagemRepository mensagemRepository;
+
+    @Autowired
+    private BuscaMensagem buscaMensagem;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void devePublicarMensagem_QuandoTentativaAnteriorJaGravou() throws Exception {
+        // Arrange: o commit de uma tentativa anterior chegou ao banco, mas a resposta não
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setConteudo("retentativa do escritor");
+        mensagemRepository.persistirEmLote(List.of(mensagem.toBuilder().build()));
+        var gravadas = meterRegistry.counter("mensagem.fila.gravadas").count();
+
+        // Act
+        assertThat(filaRegistro.enfileirar(mensagem)).isTrue();
+        var limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.counter("mensagem.fila.gravadas").count() == gravadas
+                && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertThat(meterRegistry.counter("mensagem.fila.gravadas").count()).isEqualTo(gravadas + 1);
+        assertThat(meterRegistry.counter("mensagem.fila.perdidas").count()).isZero();
+        assertThat(mensagemRepository.findById(mensagem.getId())).isPresent();
+        assertThat(buscaMensagem.buscar("retentativa", 10)).containsExactly(mensagem.getId());
+    }
+}
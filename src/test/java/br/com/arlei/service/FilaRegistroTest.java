@@ -0,0 +1,223 @@
+package br.com.arlei.service;
+
+import br.com.arlei.model.Mensagem;
+import br.com.arlei.repository.MensagemRepository;
+import br.com.arlei.utils.MensagemHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class FilaRegistroTest {
+
+    AutoCloseable mock;
+    @Mock
+    private MensagemRepository mensagemRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup(){
+        mock = MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    private FilaRegistro criarFila(int capacidade) {
+        return new FilaRegistro(mensagemRepository, eventPublisher,
+                new FilaRegistroProperties(true, capacidade, Duration.ofMillis(10), Duration.ofMillis(1), Duration.ofMillis(5)),
+                new MensagemLoteProperties(3),
+                meterRegistry);
+    }
+
+    private static Mensagem novaMensagem() {
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(UUID.randomUUID());
+        return mensagem;
+    }
+
+    @Test
+    void deveRejeitarMensagem_QuandoFilaCheia() throws Exception {
+        // Arrange
+        var gravando = new CountDownLatch(1);
+        var liberar = new CountDownLatch(1);
+        doAnswer(invocacao -> {
+            gravando.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(mensagemRepository).persistirEmLote(anyList());
+        var filaRegistro = criarFila(2);
+        filaRegistro.start();
+        filaRegistro.enfileirar(novaMensagem());
+        assertThat(gravando.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        var primeira = filaRegistro.enfileirar(novaMensagem());
+        var segunda = filaRegistro.enfileirar(novaMensagem());
+        var terceira = filaRegistro.enfileirar(novaMensagem());
+        liberar.countDown();
+        filaRegistro.stop();
+
+        // Assert
+        assertThat(primeira).isTrue();
+        assertThat(segunda).isTrue();
+        assertThat(terceira).isFalse();
+        assertThat(meterRegistry.counter("mensagem.fila.rejeitadas").count()).isEqualTo(1);
+    }
+
+    @Test
+    void deveRejeitarMensagem_QuandoNaoIniciada(){
+        // Arrange
+        var filaRegistro = criarFila(2);
+
+        // Act e Assert
+        assertThat(filaRegistro.enfileirar(novaMensagem())).isFalse();
+    }
+
+    @Test
+    void deveGravarMensagensPendentes_QuandoEncerrar() throws Exception {
+        // Arrange
+        var gravando = new CountDownLatch(1);
+        var liberar = new CountDownLatch(1);
+        doAnswer(invocacao -> {
+            gravando.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(mensagemRepository).persistirEmLote(anyList());
+        var filaRegistro = criarFila(10);
+        filaRegistro.start();
+
+        // Act
+        assertThat(filaRegistro.enfileirar(novaMensagem())).isTrue();
+        assertThat(gravando.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 7; i++) {
+            assertThat(filaRegistro.enfileirar(novaMensagem())).isTrue();
+        }
+        assertThat(filaRegistro.profundidade()).isEqualTo(7);
+        var encerrado = new CountDownLatch(1);
+        filaRegistro.stop(encerrado::countDown);
+        assertThat(filaRegistro.enfileirar(novaMensagem())).isFalse();
+        liberar.countDown();
+
+        // Assert
+        assertThat(encerrado.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(filaRegistro.profundidade()).isZero();
+        // 1 + lotes de até 3: 3, 3, 1
+        verify(mensagemRepository, times(4)).persistirEmLote(anyList());
+        verify(eventPublisher, times(8)).publishEvent(any(MensagemEvento.class));
+        assertThat(meterRegistry.counter("mensagem.fila.gravadas").count()).isEqualTo(8);
+        assertThat(meterRegistry.get("mensagem.fila.profundidade").gauge().value()).isZero();
+    }
+
+    @Test
+    void deveGravarIndividualmente_QuandoFalharGravacaoDoLote() throws Exception {
+        // Arrange
+        var invalida = novaMensagem();
+        doThrow(new DataIntegrityViolationException("violação"))
+                .when(mensagemRepository).persistirEmLote(argThat((List<Mensagem> lote) -> lote.contains(invalida)));
+        var filaRegistro = criarFila(10);
+
+        // Act
+        filaRegistro.start();
+        filaRegistro.enfileirar(novaMensagem());
+        filaRegistro.enfileirar(invalida);
+        filaRegistro.enfileirar(novaMensagem());
+        filaRegistro.stop();
+
+        // Assert
+        assertThat(meterRegistry.counter("mensagem.fila.perdidas").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("mensagem.fila.gravadas").count()).isEqualTo(2);
+    }
+
+    @Test
+    void naoDevePerderMensagens_QuandoBancoIndisponivel() throws Exception {
+        // Arrange
+        doThrow(new CannotCreateTransactionException("pool esgotado"))
+                .doThrow(new QueryTimeoutException("failover"))
+                .doNothing()
+                .when(mensagemRepository).persistirEmLote(anyList());
+        var filaRegistro = criarFila(10);
+
+        // Act
+        filaRegistro.start();
+        filaRegistro.enfileirar(novaMensagem());
+        filaRegistro.enfileirar(novaMensagem());
+        filaRegistro.stop();
+
+        // Assert
+        assertThat(meterRegistry.counter("mensagem.fila.perdidas").count()).isZero();
+        assertThat(meterRegistry.counter("mensagem.fila.gravadas").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("mensagem.fila.retentativas").count()).isEqualTo(2);
+        verify(eventPublisher, times(2)).publishEvent(any(MensagemEvento.class));
+    }
+
+    @Test
+    void devePublicarMensagem_QuandoJaGravadaPorTentativaAnterior() throws Exception {
+        // Arrange
+        var mensagem = novaMensagem();
+        doThrow(new DataIntegrityViolationException("id duplicado"))
+                .when(mensagemRepository).persistirEmLote(anyList());
+        when(mensagemRepository.existsById(mensagem.getId())).thenReturn(true);
+        var filaRegistro = criarFila(10);
+
+        // Act
+        filaRegistro.start();
+        filaRegistro.enfileirar(mensagem);
+        filaRegistro.stop();
+
+        // Assert
+        assertThat(meterRegistry.counter("mensagem.fila.perdidas").count()).isZero();
+        verify(eventPublisher).publishEvent(MensagemEvento.registrada(mensagem));
+    }
+
+    @Test
+    void deveGravarMensagensDaFila_QuandoEscritorInterrompido() throws Exception {
+        // Arrange
+        var gravando = new CountDownLatch(1);
+        var liberar = new CountDownLatch(1);
+        doAnswer(invocacao -> {
+            gravando.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            // a próxima espera por mensagens na fila é interrompida
+            Thread.currentThread().interrupt();
+            return null;
+        }).doNothing().when(mensagemRepository).persistirEmLote(anyList());
+        var filaRegistro = criarFila(10);
+        filaRegistro.start();
+        filaRegistro.enfileirar(novaMensagem());
+        assertThat(gravando.await(5, TimeUnit.SECONDS)).isTrue();
+        filaRegistro.enfileirar(novaMensagem());
+        filaRegistro.enfileirar(novaMensagem());
+
+        // Act
+        liberar.countDown();
+        filaRegistro.stop();
+
+        // Assert
+        assertThat(filaRegistro.profundidade()).isZero();
+        assertThat(meterRegistry.counter("mensagem.fila.gravadas").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("mensagem.fila.perdidas").count()).isZero();
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.arlei.service;
+
+import br.com.arlei.cache.MensagemCache;
+import br.com.arlei.repository.MensagemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GosteiAcumuladorTest {
+
+    AutoCloseable mock;
+    @Mock
+    private MensagemRepository mensagemRepository;
+    @Mock
+    private MensagemCache mensagemCache;
+    private GosteiAcumulador gosteiAcumulador;
+
+    @BeforeEach
+    void setup(){
+        mock = MockitoAnnotations.openMocks(this);
+        gosteiAcumulador = new GosteiAcumulador(mensagemRepository, mensagemCache);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void devePermitirAcumularGostei_SemPerderIncrementosConcorrentes() throws Exception {
+        // Arrange
+        var id = UUID.randomUUID();
+        var executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    gosteiAcumulador.incrementar(id);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Assert
+        assertThat(gosteiAcumulador.pendente(id)).isEqualTo(8000);
+        verifyNoInteractions(mensagemRepository);
+    }
+
+    @Test
+    void naoDevePerderGostei_QuandoDescarregarDuranteIncrementos() throws Exception {
+        // Arrange: descargas seguidas removem o contador sempre que ele fica ocioso
+        var id = UUID.randomUUID();
+        var gravados = new AtomicLong();
+        doAnswer(invocacao -> {
+            gravados.addAndGet(invocacao.getArgument(1));
+            return 1;
+        }).when(mensagemRepository).incrementarGostei(eq(id), anyLong());
+        var executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 20_000; j++) {
+                    gosteiAcumulador.incrementar(id);
+                    if (j % 100 == 0) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        while (!executor.isTerminated()) {
+            gosteiAcumulador.descarregar();
+        }
+        gosteiAcumulador.descarregar();
+
+        // Assert
+        assertThat(gravados.get() + gosteiAcumulador.pendente(id)).isEqualTo(80_000);
+    }
+
+    @Test
+    void devePermitirDescarregarGostei_ComUmUpdatePorMensagem(){
+        // Arrange
+        var id = UUID.randomUUID();
+        gosteiAcumulador.incrementar(id);
+        gosteiAcumulador.incrementar(id);
+        gosteiAcumulador.incrementar(id);
+
+        // Act
+        gosteiAcumulador.descarregar();
+
+        // Assert
+        verify(mensagemRepository, times(1)).incrementarGostei(id, 3);
+        verify(mensagemCache, times(1)).invalidar(id);
+        assertThat(gosteiAcumulador.pendente(id)).isZero();
+    }
+
+    @Test
+    void deveManterGosteiPendente_QuandoFalharGravacao(){
+        // Arrange
+        var id = UUID.randomUUID();
+        gosteiAcumulador.incrementar(id);
+        when(mensagemRepository.incrementarGostei(any(UUID.class), anyLong()))
+                .thenThrow(new RuntimeException("banco indisponível"));
+
+        // Act
+        gosteiAcumulador.descarregar();
+
+        // Assert
+        assertThat(gosteiAcumulador.pendente(id)).isEqualTo(1);
+    }
+
+    @Test
+    void naoDeveGravar_QuandoNaoExistemGosteiPendentes(){
+        gosteiAcumulador.descarregar();
+
+        verifyNoInteractions(mensagemRepository);
+    }
+}
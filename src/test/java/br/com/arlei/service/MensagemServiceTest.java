@@ -1,20 +1,53 @@
 package br.com.arlei.service;
 
+import br.com.arlei.arquivo.ArquivoMensagens;
+import br.com.arlei.busca.BuscaMensagem;
+import br.com.arlei.cache.CaffeineMensagemCache;
+import br.com.arlei.cache.CargaCompartilhada;
+import br.com.arlei.cache.InexistentesProperties;
+import br.com.arlei.cache.MensagemCache;
+import br.com.arlei.cache.MensagemCacheDesabilitado;
+import br.com.arlei.cache.MensagemCacheProperties;
+import br.com.arlei.cache.SegundoNivelProperties;
+import br.com.arlei.cache.TimelineCache;
+import br.com.arlei.cache.TimelineProperties;
+import br.com.arlei.exception.MensagemFilaCheiaException;
 import br.com.arlei.exception.MensagemNotFoundException;
+import br.com.arlei.exception.MensagemVersaoConflitoException;
+import br.com.arlei.id.UuidV7Gerador;
+import br.com.arlei.idempotencia.IdempotenciaProperties;
+import br.com.arlei.idempotencia.RegistroIdempotente;
 import br.com.arlei.model.Mensagem;
+import br.com.arlei.model.MensagemCursor;
+import br.com.arlei.model.ResultadoRegistro;
 import br.com.arlei.repository.MensagemRepository;
 import br.com.arlei.utils.MensagemHelper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,12 +62,41 @@ class MensagemServiceTest {
     private MensagemService mensagemService;
     @Mock
     private  MensagemRepository mensagemRepository;
+    @Mock
+    private GosteiAcumulador gosteiAcumulador;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private BuscaMensagem buscaMensagem;
+    @Mock
+    private ArquivoMensagens arquivoMensagens;
+    private CargaCompartilhada cargaCompartilhada;
 
     @BeforeEach  // antes de cada teste
     void setup(){
 
         mock = MockitoAnnotations.openMocks(this);
-        mensagemService = new MensagemServiceImpl(mensagemRepository);
+        cargaCompartilhada = new CargaCompartilhada(new InexistentesProperties(10, Duration.ofMinutes(1)), false);
+        mensagemService = criarMensagemService(new MensagemCacheDesabilitado());
+    }
+
+    private MensagemServiceImpl criarMensagemService(MensagemCache mensagemCache) {
+        return criarMensagemService(mensagemCache, null);
+    }
+
+    private MensagemServiceImpl criarMensagemService(MensagemCache mensagemCache, FilaRegistro filaRegistro) {
+        return new MensagemServiceImpl(mensagemRepository, gosteiAcumulador, mensagemCache,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new MensagemLoteProperties(2),
+                eventPublisher,
+                buscaMensagem,
+                new TimelineCache(new TimelineProperties(10, 3, Duration.ofMinutes(1)), false),
+                new UuidV7Gerador(),
+                new SegundoNivelProperties(10, 10, 2, Duration.ofMinutes(1)),
+                arquivoMensagens,
+                new RegistroIdempotente(new IdempotenciaProperties(10, Duration.ofMinutes(1), false), Optional.empty()),
+                cargaCompartilhada,
+                Optional.ofNullable(filaRegistro));
     }
 
     // Limpar o mock da memoria.
@@ -64,9 +126,136 @@ class MensagemServiceTest {
         assertThat(mensagemRegistrada.getConteudo()).isEqualTo(mensagem.getConteudo());
         assertThat(mensagem.getId()).isNotNull();
         verify(mensagemRepository,times(1)).save(any(Mensagem.class));
+        verify(eventPublisher, times(1)).publishEvent(MensagemEvento.registrada(mensagemRegistrada));
+
+    }
+
+    @Test
+    void devePermitirRegistrarMensagemUmaVez_QuandoRepetidaComMesmaChave() {
+        // Arrange
+        when(mensagemRepository.save(any(Mensagem.class)))
+                .thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        var primeira = mensagemService.registrarMensagem(MensagemHelper.gerarMensagem(), "joe", "chave-1");
+        var repetida = mensagemService.registrarMensagem(MensagemHelper.gerarMensagem(), "joe", "chave-1");
+        var outraChave = mensagemService.registrarMensagem(MensagemHelper.gerarMensagem(), "joe", "chave-2");
+        var outroCliente = mensagemService.registrarMensagem(MensagemHelper.gerarMensagem(), "eva", "chave-1");
+
+        // Assert
+        assertThat(repetida.getId()).isEqualTo(primeira.getId());
+        assertThat(outraChave.getId()).isNotEqualTo(primeira.getId());
+        assertThat(outroCliente.getId()).isNotEqualTo(primeira.getId());
+        verify(mensagemRepository, times(3)).save(any(Mensagem.class));
+    }
+
+
+    @Test
+    void devePermitirRegistrarMensagensEmLote()
+    {
+        // Arrange
+        var mensagens = List.of(
+                MensagemHelper.gerarMensagem(),
+                MensagemHelper.gerarMensagem(),
+                MensagemHelper.gerarMensagem());
+
+        // Act
+        var resultados = mensagemService.registrarMensagens(mensagens.iterator());
+
+        // Assert: lotes de 2 mensagens
+        assertThat(resultados).hasSize(3)
+                .allSatisfy(resultado -> {
+                    assertThat(resultado.situacao()).isEqualTo(ResultadoRegistro.Situacao.REGISTRADA);
+                    assertThat(resultado.id()).isNotNull();
+                });
+        verify(mensagemRepository, times(2)).persistirEmLote(anyList());
+        verify(mensagemRepository, never()).save(any(Mensagem.class));
+    }
+
+    @Test
+    void deveRejeitarItensInvalidos_QuandoRegistrarMensagensEmLote()
+    {
+        // Arrange
+        var mensagemInvalida = MensagemHelper.gerarMensagem();
+        mensagemInvalida.setConteudo("");
+        var mensagens = List.of(MensagemHelper.gerarMensagem(), mensagemInvalida);
+
+        // Act
+        var resultados = mensagemService.registrarMensagens(mensagens.iterator());
+
+        // Assert
+        assertThat(resultados.get(0).situacao()).isEqualTo(ResultadoRegistro.Situacao.REGISTRADA);
+        assertThat(resultados.get(1).situacao()).isEqualTo(ResultadoRegistro.Situacao.INVALIDA);
+        assertThat(resultados.get(1).indice()).isEqualTo(1);
+        assertThat(resultados.get(1).erros()).containsExactly("conteúdo não pode estar vazio");
+        verify(mensagemRepository, times(1)).persistirEmLote(List.of(mensagens.get(0)));
+    }
+
+    @Test
+    void deveInformarLotesGravados_QuandoItemIlegivelNoMeioDoLote()
+    {
+        // Arrange
+        var lidas = List.of(
+                MensagemHelper.gerarMensagem(),
+                MensagemHelper.gerarMensagem(),
+                MensagemHelper.gerarMensagem());
+        var mensagens = new Iterator<Mensagem>() {
+            int posicao;
+
+            @Override
+            public boolean hasNext() {
+                if (posicao == lidas.size()) {
+                    throw new IllegalStateException("corpo ilegível");
+                }
+                return true;
+            }
+
+            @Override
+            public Mensagem next() {
+                return lidas.get(posicao++);
+            }
+        };
 
+        // Act
+        var resultados = mensagemService.registrarMensagens(mensagens);
+
+        // Assert: o lote de 2 e a mensagem pendente foram gravados antes de interromper
+        assertThat(resultados).extracting(ResultadoRegistro::situacao).containsExactly(
+                ResultadoRegistro.Situacao.REGISTRADA,
+                ResultadoRegistro.Situacao.REGISTRADA,
+                ResultadoRegistro.Situacao.REGISTRADA,
+                ResultadoRegistro.Situacao.ILEGIVEL);
+        assertThat(resultados.get(3).indice()).isEqualTo(3);
+        verify(mensagemRepository, times(2)).persistirEmLote(anyList());
     }
 
+    @Test
+    void deveInformarItensNaoGravados_QuandoFalharGravacaoDoLote()
+    {
+        // Arrange
+        var mensagens = List.of(
+                MensagemHelper.gerarMensagem(),
+                MensagemHelper.gerarMensagem(),
+                MensagemHelper.gerarMensagem(),
+                MensagemHelper.gerarMensagem(),
+                MensagemHelper.gerarMensagem());
+        doNothing()
+                .doThrow(new DataIntegrityViolationException("falha"))
+                .when(mensagemRepository).persistirEmLote(anyList());
+
+        // Act
+        var resultados = mensagemService.registrarMensagens(mensagens.iterator());
+
+        // Assert: o segundo lote falhou e o quinto item não foi lido
+        assertThat(resultados).extracting(ResultadoRegistro::situacao).containsExactly(
+                ResultadoRegistro.Situacao.REGISTRADA,
+                ResultadoRegistro.Situacao.REGISTRADA,
+                ResultadoRegistro.Situacao.NAO_GRAVADA,
+                ResultadoRegistro.Situacao.NAO_GRAVADA);
+        assertThat(resultados.get(2).id()).isNull();
+        verify(mensagemRepository, times(2)).persistirEmLote(anyList());
+        verify(eventPublisher, times(2)).publishEvent(any(MensagemEvento.class));
+    }
 
     @Test
     void devePermitirBuscarMensagem(){
@@ -89,6 +278,68 @@ class MensagemServiceTest {
 
     }
 
+    @Test
+    void devePermitirBuscarMensagem_SomandoGosteiPendente(){
+        var id = UUID.randomUUID();
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(id);
+        mensagem.setGostei(10);
+
+        when(mensagemRepository.findById(id)).thenReturn(Optional.of(mensagem));
+        when(gosteiAcumulador.pendente(id)).thenReturn(5L);
+
+        var mensagemObtida = mensagemService.buscarMensagem(id);
+
+        assertThat(mensagemObtida.getGostei()).isEqualTo(15);
+        assertThat(mensagem.getGostei()).isEqualTo(10);
+    }
+
+    @Test
+    void devePermitirBuscarMensagem_UsandoCache(){
+        var id = UUID.randomUUID();
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(id);
+        var mensagemServiceComCache = criarMensagemService(
+                new CaffeineMensagemCache(new MensagemCacheProperties("caffeine", 10, Duration.ofMinutes(1)), false));
+        when(mensagemRepository.findById(id)).thenReturn(Optional.of(mensagem));
+
+        mensagemServiceComCache.buscarMensagem(id);
+        var mensagemObtida = mensagemServiceComCache.buscarMensagem(id);
+
+        assertThat(mensagemObtida).isEqualTo(mensagem);
+        verify(mensagemRepository, times(1)).findById(id);
+    }
+
+    @Test
+    void deveInvalidarCache_QuandoRemoverMensagem(){
+        var id = UUID.randomUUID();
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(id);
+        var mensagemServiceComCache = criarMensagemService(
+                new CaffeineMensagemCache(new MensagemCacheProperties("caffeine", 10, Duration.ofMinutes(1)), false));
+        when(mensagemRepository.findById(id))
+                .thenReturn(Optional.of(mensagem))
+                .thenReturn(Optional.empty());
+        when(mensagemRepository.removerPorId(id)).thenReturn(1);
+
+        mensagemServiceComCache.buscarMensagem(id);
+        mensagemServiceComCache.removerMensagem(id);
+
+        assertThatThrownBy(() -> mensagemServiceComCache.buscarMensagem(id))
+                .isInstanceOf(MensagemNotFoundException.class);
+        verify(mensagemRepository, times(2)).findById(id);
+    }
+
+    @Test
+    void devePermitirRegistrarGostei(){
+        var id = UUID.randomUUID();
+
+        mensagemService.registrarGostei(id);
+
+        verify(gosteiAcumulador, times(1)).incrementar(id);
+        verifyNoInteractions(mensagemRepository);
+    }
+
     @Test
     void deveGerarExcecao_QuandoBuscarMensagem_IdNaoExiste(){
 
@@ -103,6 +354,57 @@ class MensagemServiceTest {
         verify(mensagemRepository,times(1)).findById(id);
     }
 
+    @Test
+    void naoDeveConsultarBanco_QuandoIdJaNaoFoiEncontrado(){
+
+        // Arrange
+        var id = UUID.randomUUID();
+        when(mensagemRepository.findById(id)).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> mensagemService.buscarMensagem(id))
+                .isInstanceOf(MensagemNotFoundException.class);
+
+        // Act & Assert
+        assertThatThrownBy(() -> mensagemService.buscarMensagem(id))
+                .isInstanceOf(MensagemNotFoundException.class)
+                .hasMessage("Mensagem não encontrada");
+        verify(mensagemRepository, times(1)).findById(id);
+    }
+
+    @Test
+    void devePermitirBuscarMensagem_QuandoArquivada(){
+
+        // Arrange
+        var id = UUID.randomUUID();
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(id);
+        when(mensagemRepository.findById(id)).thenReturn(Optional.empty());
+        when(arquivoMensagens.buscar(id)).thenReturn(Optional.of(mensagem));
+
+        // Act
+        var mensagemObtida = mensagemService.buscarMensagem(id);
+
+        // Assert
+        assertThat(mensagemObtida).isEqualTo(mensagem);
+        verify(mensagemRepository).findById(id);
+        verify(arquivoMensagens).buscar(id);
+    }
+
+    @Test
+    void naoDeveConsultarArquivo_QuandoMensagemEstaNoBanco(){
+
+        // Arrange
+        var id = UUID.randomUUID();
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(id);
+        when(mensagemRepository.findById(id)).thenReturn(Optional.of(mensagem));
+
+        // Act
+        mensagemService.buscarMensagem(id);
+
+        // Assert
+        verify(arquivoMensagens, never()).buscar(any(UUID.class));
+    }
+
     @Test
     void devePermitirAlterarMensagem(){
 
@@ -112,12 +414,12 @@ class MensagemServiceTest {
         var mensagemNova = mensagemAntiga;
         mensagemNova.setConteudo("abcd");
 
+        when(mensagemRepository.alterarConteudo(eq(id), eq("abcd"), any(LocalDateTime.class)))
+                .thenReturn(1);
+
         when(mensagemRepository.findById(any(UUID.class)))
                 .thenReturn(Optional.of(mensagemAntiga));
 
-        when(mensagemRepository.save(any(Mensagem.class)))
-                .thenAnswer(i -> i.getArgument(0));
-
         var mensagemObtida = mensagemService
                 .alterarMensagem(id, mensagemNova);
 
@@ -130,7 +432,9 @@ class MensagemServiceTest {
                 .isEqualTo(mensagemNova.getUsuario());
         assertThat(mensagemObtida.getConteudo())
                 .isEqualTo(mensagemNova.getConteudo());
-        verify(mensagemRepository, times(1)).save(any(Mensagem.class));
+        verify(mensagemRepository, times(1))
+                .alterarConteudo(eq(id), eq("abcd"), any(LocalDateTime.class));
+        verify(mensagemRepository, never()).save(any(Mensagem.class));
 
 
     }
@@ -148,14 +452,14 @@ class MensagemServiceTest {
         mensagemNova.setId(UUID.randomUUID());
         mensagemNova.setConteudo("ABC 12345");
 
-        when(mensagemRepository.findById(id)).thenReturn(Optional.of(mensagemAntiga));
+        when(mensagemRepository.existsById(id)).thenReturn(true);
 
         //Act e Assert
         assertThatThrownBy(()-> mensagemService.alterarMensagem(id,mensagemNova))
                 .isInstanceOf(MensagemNotFoundException.class)
                 .hasMessage("mensagem não apresenta o ID correto");
-        verify(mensagemRepository,times(1)).findById(any(UUID.class));
-        verify(mensagemRepository,never()).save(any(Mensagem.class));
+        verify(mensagemRepository,times(1)).existsById(any(UUID.class));
+        verify(mensagemRepository,never()).alterarConteudo(any(UUID.class), anyString(), any(LocalDateTime.class));
 
     }
 
@@ -165,14 +469,13 @@ class MensagemServiceTest {
         var id = UUID.fromString("e0b73fc9-cca5-4173-bb0d-1d7813984f3f");
         var mensagem = MensagemHelper.gerarMensagem();
         mensagem.setId(id);
-        when(mensagemRepository.findById(id)).thenReturn(Optional.of(mensagem));
-        doNothing().when(mensagemRepository).deleteById(id);
+        when(mensagemRepository.removerPorId(id)).thenReturn(1);
         //Act
         var mensagemFoiRemovida = mensagemService.removerMensagem(id);
         //Assert
         assertThat(mensagemFoiRemovida).isTrue();
-        verify(mensagemRepository,times(1)).findById(any(UUID.class));
-        verify(mensagemRepository,times(1)).delete(any(Mensagem.class));
+        verify(mensagemRepository,times(1)).removerPorId(id);
+        verify(mensagemRepository,never()).findById(any(UUID.class));
 
 
         //fail("Teste não implementado");
@@ -183,13 +486,13 @@ class MensagemServiceTest {
 
         // Arrange
         var id = UUID.fromString("e0b73fc9-cca5-4173-bb0d-1d7813984f4f");
-        when(mensagemRepository.findById(id)).thenReturn(Optional.empty());
+        when(mensagemRepository.removerPorId(id)).thenReturn(0);
        // Act e Assert
         assertThatThrownBy(()-> mensagemService.removerMensagem(id) )
                 .isInstanceOf(MensagemNotFoundException.class)
                 .hasMessage("Mensagem não encontrada");
-        verify(mensagemRepository,times(1)).findById(any(UUID.class));
-        verify(mensagemRepository,never()).deleteById(any(UUID.class));
+        verify(mensagemRepository,times(1)).removerPorId(any(UUID.class));
+        verify(eventPublisher,never()).publishEvent(any());
 
 
     }
@@ -219,5 +522,357 @@ class MensagemServiceTest {
 
     }
 
+    @Test
+    void devePermitirListarMensagensPorCursor_PrimeiraPagina(){
+        // Arrange
+        var fatia = new SliceImpl<>(Arrays.asList(
+                MensagemHelper.gerarMensagemCompleta(),
+                MensagemHelper.gerarMensagemCompleta()
+        ));
+        when(mensagemRepository.listarMensagensRecentes(any(Pageable.class)))
+                .thenReturn(fatia);
+
+        // Action
+        var resultadoObtido = mensagemService.listarMensagens(null, 2);
 
+        // Assert
+        assertThat(resultadoObtido).hasSize(2);
+        verify(mensagemRepository, times(1)).listarMensagensRecentes(PageRequest.of(0, 2));
+        verify(mensagemRepository, never())
+                .listarMensagensAnterioresA(any(LocalDateTime.class), any(UUID.class), any(Pageable.class));
+    }
+
+    @Test
+    void devePermitirListarMensagensPorCursor_AposCursor(){
+        // Arrange
+        var cursor = MensagemCursor.de(MensagemHelper.gerarMensagemCompleta());
+        when(mensagemRepository.listarMensagensAnterioresA(any(LocalDateTime.class), any(UUID.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(MensagemHelper.gerarMensagemCompleta())));
+
+        // Action
+        var resultadoObtido = mensagemService.listarMensagens(cursor, 10);
+
+        // Assert
+        assertThat(resultadoObtido).hasSize(1);
+        verify(mensagemRepository, times(1))
+                .listarMensagensAnterioresA(cursor.dataCriacao(), cursor.id(), PageRequest.of(0, 10));
+        verify(mensagemRepository, never()).listarMensagensRecentes(any(Pageable.class));
+    }
+
+    @Test
+    void devePermitirExportarMensagens_DesanexandoCadaMensagem(){
+        // Arrange
+        var mensagem1 = MensagemHelper.gerarMensagemCompleta();
+        var mensagem2 = MensagemHelper.gerarMensagemCompleta();
+        when(mensagemRepository.exportarMensagens()).thenReturn(Stream.of(mensagem1, mensagem2));
+        var exportadas = new ArrayList<Mensagem>();
+
+        // Act
+        mensagemService.exportarMensagens(exportadas::add);
+
+        // Assert
+        assertThat(exportadas).containsExactly(mensagem1, mensagem2);
+        verify(mensagemRepository, times(1)).desanexar(mensagem1);
+        verify(mensagemRepository, times(1)).desanexar(mensagem2);
+    }
+
+    @Test
+    void devePermitirBuscarMensagensPorTexto_MantendoOrdemDeRelevancia(){
+        // Arrange
+        var mensagem1 = MensagemHelper.gerarMensagem();
+        var mensagem2 = MensagemHelper.gerarMensagem();
+        when(buscaMensagem.buscar("conteudo", 10))
+                .thenReturn(List.of(mensagem2.getId(), mensagem1.getId()));
+        when(mensagemRepository.findAllById(anyIterable()))
+                .thenReturn(List.of(mensagem1, mensagem2));
+
+        // Act
+        var resultadoObtido = mensagemService.buscarMensagens("conteudo", 10);
+
+        // Assert
+        assertThat(resultadoObtido).containsExactly(mensagem2, mensagem1);
+    }
+
+    @Test
+    void devePublicarEvento_QuandoRemoverMensagem(){
+        // Arrange
+        var id = UUID.randomUUID();
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setId(id);
+        when(mensagemRepository.removerPorId(id)).thenReturn(1);
+
+        // Act
+        mensagemService.removerMensagem(id);
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(MensagemEvento.removida(Mensagem.builder().id(id).build()));
+    }
+
+    @Test
+    void devePermitirListarMensagensDoUsuario_SemConsultarBancoNaTimelineEmCache(){
+        // Arrange
+        var mensagemServiceComCache = criarMensagemService(
+                new CaffeineMensagemCache(new MensagemCacheProperties("caffeine", 10, Duration.ofMinutes(1)), false));
+        var mensagem1 = MensagemHelper.gerarMensagemCompleta();
+        var mensagem2 = MensagemHelper.gerarMensagemCompleta();
+        mensagem2.setDataCriacao(mensagem1.getDataCriacao().minusSeconds(1));
+        when(mensagemRepository.findByUsuarioOrderByDataCriacaoDescIdDesc(eq("joe"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(mensagem1, mensagem2), PageRequest.of(0, 3), false));
+
+        // Act
+        mensagemServiceComCache.listarMensagensDoUsuario("joe", null, 2);
+        var resultadoObtido = mensagemServiceComCache.listarMensagensDoUsuario("joe", null, 2);
+
+        // Assert
+        assertThat(resultadoObtido.getContent()).containsExactly(mensagem1, mensagem2);
+        assertThat(resultadoObtido.hasNext()).isFalse();
+        verify(mensagemRepository, times(1))
+                .findByUsuarioOrderByDataCriacaoDescIdDesc("joe", PageRequest.of(0, 3));
+        verify(mensagemRepository, never()).findById(any(UUID.class));
+        verify(mensagemRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void devePermitirListarMensagensDoUsuario_ComUmaConsultaQuandoCacheDesabilitado(){
+        // Arrange
+        var mensagem1 = MensagemHelper.gerarMensagemCompleta();
+        var mensagem2 = MensagemHelper.gerarMensagemCompleta();
+        mensagem2.setDataCriacao(mensagem1.getDataCriacao().minusSeconds(1));
+        when(mensagemRepository.findByUsuarioOrderByDataCriacaoDescIdDesc(eq("joe"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(mensagem1, mensagem2), PageRequest.of(0, 3), false));
+        // o banco não garante a ordem dos ids pedidos
+        when(mensagemRepository.findAllById(anyIterable())).thenReturn(List.of(mensagem2, mensagem1));
+
+        // Act
+        mensagemService.listarMensagensDoUsuario("joe", null, 2);
+        var resultadoObtido = mensagemService.listarMensagensDoUsuario("joe", null, 2);
+
+        // Assert
+        assertThat(resultadoObtido.getContent()).containsExactly(mensagem1, mensagem2);
+        verify(mensagemRepository, times(1))
+                .findByUsuarioOrderByDataCriacaoDescIdDesc("joe", PageRequest.of(0, 3));
+        verify(mensagemRepository, times(2)).findAllById(List.of(mensagem1.getId(), mensagem2.getId()));
+        verify(mensagemRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    void deveSomarGosteiPendente_QuandoListarMensagensDaTimelineEmCache(){
+        // Arrange
+        var mensagemServiceComCache = criarMensagemService(
+                new CaffeineMensagemCache(new MensagemCacheProperties("caffeine", 10, Duration.ofMinutes(1)), false));
+        var mensagem = MensagemHelper.gerarMensagemCompleta();
+        when(mensagemRepository.findByUsuarioOrderByDataCriacaoDescIdDesc(eq("joe"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(mensagem), PageRequest.of(0, 3), false));
+        when(gosteiAcumulador.pendente(mensagem.getId())).thenReturn(5L);
+
+        // Act
+        var resultadoObtido = mensagemServiceComCache.listarMensagensDoUsuario("joe", null, 2);
+
+        // Assert
+        assertThat(resultadoObtido.getContent())
+                .extracting(Mensagem::getGostei)
+                .containsExactly(mensagem.getGostei() + 5);
+    }
+
+    @Test
+    void devePermitirListarMensagensDoUsuario_AposCursor(){
+        // Arrange
+        var cursor = MensagemCursor.de(MensagemHelper.gerarMensagemCompleta());
+        when(mensagemRepository.listarMensagensDoUsuarioAnterioresA(
+                any(String.class), any(LocalDateTime.class), any(UUID.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        // Act
+        mensagemService.listarMensagensDoUsuario("joe", cursor, 10);
+
+        // Assert
+        verify(mensagemRepository, times(1)).listarMensagensDoUsuarioAnterioresA(
+                "joe", cursor.dataCriacao(), cursor.id(), PageRequest.of(0, 10));
+    }
+
+    @Test
+    void deveInvalidarCache_SomenteAposCommitDaAlteracao(){
+        // Arrange
+        var mensagemCache = mock(MensagemCache.class);
+        var mensagemServiceComCache = criarMensagemService(mensagemCache);
+        var mensagem = MensagemHelper.gerarMensagemCompleta();
+        when(mensagemRepository.alterarConteudo(eq(mensagem.getId()), anyString(), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(mensagemRepository.findById(mensagem.getId())).thenReturn(Optional.of(mensagem));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            mensagemServiceComCache.alterarMensagem(mensagem.getId(), mensagem);
+            verify(mensagemCache, never()).invalidar(mensagem.getId());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        verify(mensagemCache, times(1)).invalidar(mensagem.getId());
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoAlterarMensagem_NenhumaLinhaAlterada(){
+        // Arrange
+        var id = UUID.randomUUID();
+        var mensagemNova = MensagemHelper.gerarMensagem();
+        mensagemNova.setId(id);
+        when(mensagemRepository.alterarConteudo(eq(id), anyString(), any(LocalDateTime.class)))
+                .thenReturn(0);
+
+        // Act e Assert
+        assertThatThrownBy(() -> mensagemService.alterarMensagem(id, mensagemNova))
+                .isInstanceOf(MensagemNotFoundException.class)
+                .hasMessage("Mensagem não encontrada");
+        verify(mensagemRepository, never()).findById(any(UUID.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void deveRecarregarTimeline_QuandoMensagemDaTimelineFoiRemovida(){
+        // Arrange
+        var mensagemServiceComCache = criarMensagemService(
+                new CaffeineMensagemCache(new MensagemCacheProperties("caffeine", 10, Duration.ofMinutes(1)), false));
+        var mensagem1 = MensagemHelper.gerarMensagemCompleta();
+        var mensagem2 = MensagemHelper.gerarMensagemCompleta();
+        mensagem2.setDataCriacao(mensagem1.getDataCriacao().minusSeconds(1));
+        when(mensagemRepository.findByUsuarioOrderByDataCriacaoDescIdDesc(eq("joe"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(mensagem1, mensagem2), PageRequest.of(0, 3), false))
+                .thenReturn(new SliceImpl<>(List.of(mensagem2), PageRequest.of(0, 2), false));
+        when(mensagemRepository.removerPorId(mensagem1.getId())).thenReturn(1);
+        when(mensagemRepository.findAllById(List.of(mensagem1.getId()))).thenReturn(List.of());
+
+        // Act
+        mensagemServiceComCache.listarMensagensDoUsuario("joe", null, 2);
+        mensagemServiceComCache.removerMensagem(mensagem1.getId());
+        var resultadoObtido = mensagemServiceComCache.listarMensagensDoUsuario("joe", null, 2);
+
+        // Assert
+        assertThat(resultadoObtido.getContent()).containsExactly(mensagem2);
+        verify(mensagemRepository, times(1))
+                .findByUsuarioOrderByDataCriacaoDescIdDesc("joe", PageRequest.of(0, 2));
+    }
+
+    @Test
+    void devePermitirAlterarMensagem_NaVersaoEsperada(){
+        // Arrange
+        var id = UUID.randomUUID();
+        var mensagemNova = MensagemHelper.gerarMensagem();
+        mensagemNova.setId(id);
+        when(mensagemRepository.alterarConteudoNaVersao(eq(id), eq(2L), anyString(), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(mensagemRepository.findById(id))
+                .thenReturn(Optional.of(mensagemNova.toBuilder().versao(3L).build()));
+
+        // Act
+        var mensagemObtida = mensagemService.alterarMensagem(id, mensagemNova, 2L);
+
+        // Assert
+        assertThat(mensagemObtida.getVersao()).isEqualTo(3L);
+        verify(mensagemRepository, never()).alterarConteudo(any(UUID.class), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoAlterarMensagem_VersaoDesatualizada(){
+        // Arrange
+        var id = UUID.randomUUID();
+        var mensagemNova = MensagemHelper.gerarMensagem();
+        mensagemNova.setId(id);
+        when(mensagemRepository.alterarConteudoNaVersao(eq(id), eq(2L), anyString(), any(LocalDateTime.class)))
+                .thenReturn(0);
+        when(mensagemRepository.existsById(id)).thenReturn(true);
+
+        // Act e Assert
+        assertThatThrownBy(() -> mensagemService.alterarMensagem(id, mensagemNova, 2L))
+                .isInstanceOf(MensagemVersaoConflitoException.class)
+                .hasMessage("mensagem alterada por outra requisição");
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void devePermitirEnfileirarMensagem_ComIdAtribuido(){
+        // Arrange
+        var filaRegistro = mock(FilaRegistro.class);
+        when(filaRegistro.enfileirar(any(Mensagem.class))).thenReturn(true);
+        var mensagemServiceAssincrono = criarMensagemService(new MensagemCacheDesabilitado(), filaRegistro);
+        var mensagem = MensagemHelper.gerarMensagem();
+
+        // Act
+        var id = mensagemServiceAssincrono.enfileirarMensagem(mensagem);
+
+        // Assert
+        assertThat(id).contains(mensagem.getId());
+        verify(filaRegistro, times(1)).enfileirar(mensagem);
+        verifyNoInteractions(mensagemRepository);
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoEnfileirarMensagem_FilaCheia(){
+        // Arrange
+        var filaRegistro = mock(FilaRegistro.class);
+        when(filaRegistro.enfileirar(any(Mensagem.class))).thenReturn(false);
+        var mensagemServiceAssincrono = criarMensagemService(new MensagemCacheDesabilitado(), filaRegistro);
+
+        // Act e Assert
+        assertThatThrownBy(() -> mensagemServiceAssincrono.enfileirarMensagem(MensagemHelper.gerarMensagem()))
+                .isInstanceOf(MensagemFilaCheiaException.class)
+                .hasMessage("fila de registro cheia");
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoRegistrarMensagem_Invalida(){
+        // Arrange
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setConteudo("");
+
+        // Act e Assert
+        assertThatThrownBy(() -> mensagemService.registrarMensagem(mensagem))
+                .isInstanceOf(ConstraintViolationException.class);
+        assertThatThrownBy(() -> mensagemService.registrarMensagem(mensagem, "joe", "chave-invalida"))
+                .isInstanceOf(ConstraintViolationException.class);
+        verify(mensagemRepository, never()).save(any(Mensagem.class));
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoEnfileirarMensagem_Invalida(){
+        // Arrange
+        var filaRegistro = mock(FilaRegistro.class);
+        var mensagemServiceAssincrono = criarMensagemService(new MensagemCacheDesabilitado(), filaRegistro);
+        var mensagem = MensagemHelper.gerarMensagem();
+        mensagem.setConteudo("");
+
+        // Act e Assert
+        assertThatThrownBy(() -> mensagemServiceAssincrono.enfileirarMensagem(mensagem))
+                .isInstanceOf(ConstraintViolationException.class);
+        verifyNoInteractions(filaRegistro);
+    }
+
+    @Test
+    void deveRetornarVazio_QuandoEnfileirarMensagem_ModoAssincronoDesabilitado(){
+        // Act
+        var id = mensagemService.enfileirarMensagem(MensagemHelper.gerarMensagem());
+
+        // Assert
+        assertThat(id).isEmpty();
+    }
+
+    @Test
+    void devePermitirListarMensagens_PaginasIniciaisPeloCacheDeConsulta(){
+        // Arrange
+        Page<Mensagem> pagina = new PageImpl<>(List.of(MensagemHelper.gerarMensagemCompleta()));
+        when(mensagemRepository.listarMensagensEmCache(any(Pageable.class))).thenReturn(pagina);
+        when(mensagemRepository.listarMensagens(any(Pageable.class))).thenReturn(pagina);
+
+        // Act
+        mensagemService.listarMensagens(PageRequest.of(0, 10));
+        mensagemService.listarMensagens(PageRequest.of(1, 10));
+        mensagemService.listarMensagens(PageRequest.of(2, 10));
+
+        // Assert
+        verify(mensagemRepository, times(2)).listarMensagensEmCache(any(Pageable.class));
+        verify(mensagemRepository, times(1)).listarMensagens(PageRequest.of(2, 10));
+    }
 }